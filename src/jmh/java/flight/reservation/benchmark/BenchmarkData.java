@@ -0,0 +1,46 @@
+package flight.reservation.benchmark;
+
+import flight.reservation.Airport;
+import flight.reservation.plane.Aircraft;
+import flight.reservation.plane.factories.AircraftFactoryProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shared fixtures for the benchmarks.
+ */
+final class BenchmarkData {
+    static final List<Airport> AIRPORTS = Arrays.asList(
+            new Airport("Berlin Airport", "BER", "Berlin, Berlin"),
+            new Airport("Frankfurt Airport", "FRA", "Frankfurt, Hesse"),
+            new Airport("Madrid Barajas Airport", "MAD", "Barajas, Madrid"),
+            new Airport("Guarulhos International Airport", "GRU", "Guarulhos (Sao Paulo)"),
+            new Airport("John F. Kennedy International Airport", "JFK", "Queens, New York, New York"),
+            new Airport("Istanbul Airport", "IST", "Arnavutkoy, Istanbul"),
+            new Airport("Dubai International Airport", "DXB", "Garhoud, Dubai"),
+            new Airport("Chengdu Shuangliu International Airport", "CTU", "Shuangliu-Wuhou, Chengdu, Sichuan")
+    );
+
+    static final Aircraft A380 = AircraftFactoryProvider.getAircraftFactory("plane").createAircraft("A380");
+
+    private BenchmarkData() {
+    }
+
+    static Airport departureFor(int flightNumber) {
+        return AIRPORTS.get(flightNumber % AIRPORTS.size());
+    }
+
+    static Airport arrivalFor(int flightNumber) {
+        return AIRPORTS.get((flightNumber + 1 + (flightNumber / AIRPORTS.size()) % (AIRPORTS.size() - 1)) % AIRPORTS.size());
+    }
+
+    static List<String> passengerNames(int count) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add("Passenger " + i);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,78 @@
+package flight.reservation.benchmark;
+
+import flight.reservation.Customer;
+import flight.reservation.flight.Flight;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.order.FlightOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking throughput through Customer.createOrder. Every thread books on its own flight and cancels
+ * right away so the flight never sells out; run with -t to vary the number of booking threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BookingBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int passengerCount;
+
+    private Customer customer;
+    private List<ScheduledFlight> flights;
+    private List<String> passengerNames;
+
+    @Setup
+    public void setUp() {
+        customer = new Customer("Max Mustermann", "max@example.com");
+        Flight flight = new Flight.Builder()
+                .number(1)
+                .departure(BenchmarkData.AIRPORTS.get(0))
+                .arrival(BenchmarkData.AIRPORTS.get(1))
+                .aircraft(BenchmarkData.A380)
+                .build();
+        flights = List.of(new ScheduledFlight.Builder()
+                .number(flight.getNumber())
+                .departure(flight.getDeparture())
+                .arrival(flight.getArrival())
+                .aircraft(flight.getAircraft())
+                .departureTime(new Date())
+                .build());
+        passengerNames = BenchmarkData.passengerNames(passengerCount);
+    }
+
+    @Benchmark
+    public FlightOrder createOrder() {
+        FlightOrder order = customer.createOrder(passengerNames, flights, 100);
+        flights.get(0).removePassengers(order.getPassengers());
+        customer.getOrders().clear();
+        return order;
+    }
+
+    @Benchmark
+    public Flight buildAndValidateFlight() {
+        return new Flight.Builder()
+                .number(1)
+                .departure(BenchmarkData.AIRPORTS.get(0))
+                .arrival(BenchmarkData.AIRPORTS.get(1))
+                .aircraft(BenchmarkData.A380)
+                .build();
+    }
+}
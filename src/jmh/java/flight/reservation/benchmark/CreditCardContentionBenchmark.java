@@ -0,0 +1,58 @@
+package flight.reservation.benchmark;
+
+import flight.reservation.Money;
+import flight.reservation.payment.CreditCardPayment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of concurrent debits against a single credit card.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CreditCardContentionBenchmark {
+    private static final Money ONE_CENT = Money.ofMinor(1);
+
+    private CreditCardPayment card;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        card = new CreditCardPayment("4111111111111111", new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(365)), "123", 0);
+        card.setBalance(1e12);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean debit_1Thread() {
+        return card.pay(ONE_CENT);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean debit_8Threads() {
+        return card.pay(ONE_CENT);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public boolean debit_32Threads() {
+        return card.pay(ONE_CENT);
+    }
+}
@@ -0,0 +1,74 @@
+package flight.reservation.benchmark;
+
+import flight.reservation.events.EventLog;
+import flight.reservation.events.EventType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost for a paying thread of recording one payment, comparing the asynchronous event log against the
+ * former System.out.println, a synchronized blocking write, both targeting a file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class EventLogBenchmark {
+
+    @Param({"DROP", "BLOCK"})
+    public EventLog.OverflowPolicy overflowPolicy;
+
+    private Path directory;
+    private EventLog log;
+    private PrintStream printStream;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("event-log-benchmark");
+        log = new EventLog.Builder().directory(directory).overflowPolicy(overflowPolicy).open();
+        printStream = new PrintStream(new FileOutputStream(directory.resolve("stdout.log").toFile()), true);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        log.close();
+        printStream.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public boolean eventLog() {
+        return log.emit(EventType.PAYMENT_SUCCEEDED, "credit card", 10000, "USD");
+    }
+
+    @Benchmark
+    public void printStream() {
+        printStream.println("Paid 100.00 USD using Credit Card.");
+    }
+}
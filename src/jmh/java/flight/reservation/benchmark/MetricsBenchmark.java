@@ -0,0 +1,59 @@
+package flight.reservation.benchmark;
+
+import flight.reservation.metrics.Counter;
+import flight.reservation.metrics.LatencyHistogram;
+import flight.reservation.metrics.MetricsRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead the metrics add to every instrumented operation: one counter increment,
+ * one histogram recording, and a complete timed section with its two clock reads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    private Counter counter;
+    private LatencyHistogram histogram;
+
+    @Setup
+    public void setUp() {
+        MetricsRegistry registry = new MetricsRegistry();
+        counter = registry.counter("benchmark.count");
+        histogram = registry.histogram("benchmark.latency");
+    }
+
+    @Benchmark
+    public void incrementCounter() {
+        counter.increment();
+    }
+
+    @Benchmark
+    public void recordLatency() {
+        histogram.record(ThreadLocalRandom.current().nextLong(1_000, 1_000_000));
+    }
+
+    @Benchmark
+    public void timedSection() {
+        long start = System.nanoTime();
+        histogram.recordSince(start);
+    }
+}
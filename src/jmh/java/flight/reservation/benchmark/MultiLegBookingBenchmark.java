@@ -0,0 +1,101 @@
+package flight.reservation.benchmark;
+
+import flight.reservation.Airport;
+import flight.reservation.Passenger;
+import flight.reservation.flight.Flight;
+import flight.reservation.flight.ItineraryBooking;
+import flight.reservation.flight.Schedule;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.plane.Aircraft;
+import flight.reservation.plane.factories.AircraftFactoryProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput of all-or-nothing bookings of three-leg itineraries on a shared schedule.
+ * In "disjoint" mode every thread books its own legs, in "shared" mode all threads book the same legs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiLegBookingBenchmark {
+    private static final int LEGS = 3;
+
+    @State(Scope.Benchmark)
+    public static class SharedSchedule {
+        @Param({"disjoint", "shared"})
+        public String itineraries;
+
+        final Schedule schedule = new Schedule();
+        final AtomicInteger threadIds = new AtomicInteger();
+
+        @Setup
+        public void setUp() {
+            Airport berlin = new Airport("Berlin Airport", "BER", "Berlin, Berlin");
+            Airport frankfurt = new Airport("Frankfurt Airport", "FRA", "Frankfurt, Hesse");
+            Aircraft a380 = AircraftFactoryProvider.getAircraftFactory("plane").createAircraft("A380");
+            Date departure = new Date();
+            for (int number = 1; number <= 32 * LEGS; number++) {
+                Flight flight = new Flight.Builder().number(number).departure(berlin).arrival(frankfurt).aircraft(a380).build();
+                schedule.scheduleFlight(flight, departure);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Itinerary {
+        final List<ScheduledFlight> legs = new ArrayList<>(LEGS);
+        final List<Passenger> passengers = List.of(new Passenger("Amanda"), new Passenger("Max"));
+
+        @Setup
+        public void setUp(SharedSchedule shared) {
+            int first = "shared".equals(shared.itineraries) ? 0 : shared.threadIds.getAndIncrement() * LEGS;
+            for (int leg = 0; leg < LEGS; leg++) {
+                legs.add(shared.schedule.getScheduledFlights().get(first + leg));
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void bookAndCancel_1Thread(Itinerary itinerary) {
+        bookAndCancel(itinerary);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void bookAndCancel_8Threads(Itinerary itinerary) {
+        bookAndCancel(itinerary);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void bookAndCancel_32Threads(Itinerary itinerary) {
+        bookAndCancel(itinerary);
+    }
+
+    private static void bookAndCancel(Itinerary itinerary) {
+        ItineraryBooking.book(itinerary.legs, itinerary.passengers);
+        for (ScheduledFlight leg : itinerary.legs) {
+            leg.removePassengers(itinerary.passengers);
+        }
+    }
+}
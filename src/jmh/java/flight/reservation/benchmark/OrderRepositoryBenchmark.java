@@ -0,0 +1,76 @@
+package flight.reservation.benchmark;
+
+import flight.reservation.Customer;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.order.FlightOrder;
+import flight.reservation.persistence.OrderRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Durable commit throughput of the order repository. Every operation waits until its booking is on disk,
+ * so with more threads (-t) group commit shares each fsync between more bookings.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderRepositoryBenchmark {
+
+    @Param({"true", "false"})
+    public boolean sync;
+
+    private Path directory;
+    private OrderRepository repository;
+    private FlightOrder order;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("order-repository-benchmark");
+        repository = new OrderRepository.Builder().directory(directory).sync(sync).open();
+        ScheduledFlight flight = new ScheduledFlight.Builder()
+                .number(1)
+                .departure(BenchmarkData.AIRPORTS.get(0))
+                .arrival(BenchmarkData.AIRPORTS.get(1))
+                .aircraft(BenchmarkData.A380)
+                .departureTime(new Date())
+                .build();
+        Customer customer = new Customer("Max Mustermann", "max@example.com");
+        order = customer.createOrder(BenchmarkData.passengerNames(2), List.of(flight), 100);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        repository.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void saveBooking() {
+        repository.saveBooking(order).join();
+    }
+}
@@ -0,0 +1,66 @@
+package flight.reservation.benchmark;
+
+import flight.reservation.Customer;
+import flight.reservation.Money;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.order.FlightOrder;
+import flight.reservation.payment.CreditCardPayment;
+import flight.reservation.payment.PayPalPayment;
+import flight.reservation.payment.PaymentStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of FlightOrder.processOrder with the built-in payment strategies.
+ * A fresh order is paid on every invocation, since closed orders short-circuit.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PaymentBenchmark {
+    private static final Money PRICE = Money.of(100);
+    private final List<ScheduledFlight> flights = Collections.emptyList();
+    private Customer customer;
+    private CreditCardPayment creditCard;
+    private PayPalPayment payPal;
+
+    @Setup
+    public void setUp() {
+        customer = new Customer("Max Mustermann", "max@example.com");
+        creditCard = new CreditCardPayment("4111111111111111", new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(365)), "123", 0);
+        payPal = new PayPalPayment("user@example.com", "password123");
+    }
+
+    @Benchmark
+    public boolean processOrderWithCreditCard() {
+        creditCard.setBalance(1000);
+        return process(new FlightOrder(flights, customer), creditCard);
+    }
+
+    @Benchmark
+    public boolean processOrderWithPayPal() {
+        return process(new FlightOrder(flights, customer), payPal);
+    }
+
+    private static boolean process(FlightOrder order, PaymentStrategy strategy) {
+        order.setPrice(PRICE);
+        order.setPaymentStrategy(strategy);
+        return order.processOrder();
+    }
+}
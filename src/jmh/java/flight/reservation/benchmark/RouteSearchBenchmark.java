@@ -0,0 +1,70 @@
+package flight.reservation.benchmark;
+
+import flight.reservation.flight.Flight;
+import flight.reservation.flight.Schedule;
+import flight.reservation.search.Itinerary;
+import flight.reservation.search.RouteSearch;
+import flight.reservation.search.SearchObjective;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of multi-leg itinerary searches over large schedules.
+ * Flights depart one per minute, spread round-robin over the benchmark airports, and take two hours.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteSearchBenchmark {
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long FLIGHT_DURATION = TimeUnit.HOURS.toMillis(2);
+
+    @Param({"10000", "100000"})
+    public int scheduleSize;
+
+    @Param({"EARLIEST_ARRIVAL", "CHEAPEST"})
+    public SearchObjective objective;
+
+    private RouteSearch search;
+    private long firstDeparture;
+
+    @Setup
+    public void setUp() {
+        Schedule schedule = new Schedule();
+        firstDeparture = System.currentTimeMillis();
+        for (int number = 1; number <= scheduleSize; number++) {
+            Flight flight = new Flight.Builder()
+                    .number(number)
+                    .departure(BenchmarkData.departureFor(number))
+                    .arrival(BenchmarkData.arrivalFor(number))
+                    .aircraft(BenchmarkData.A380)
+                    .build();
+            long departure = firstDeparture + number * MINUTE;
+            schedule.scheduleFlight(flight, new Date(departure), new Date(departure + FLIGHT_DURATION));
+        }
+        search = new RouteSearch.Builder().schedule(schedule).maxLegs(3).build();
+    }
+
+    @Benchmark
+    public List<Itinerary> searchTopFive() {
+        long from = firstDeparture + ThreadLocalRandom.current().nextInt(scheduleSize / 2) * MINUTE;
+        return search.search("BER", "CTU", new Date(from), new Date(from + TimeUnit.HOURS.toMillis(6)), 1, 5, objective);
+    }
+}
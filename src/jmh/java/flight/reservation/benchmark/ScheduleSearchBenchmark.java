@@ -0,0 +1,74 @@
+package flight.reservation.benchmark;
+
+import flight.reservation.flight.Flight;
+import flight.reservation.flight.Schedule;
+import flight.reservation.flight.ScheduledFlight;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup latency of Schedule queries for growing schedule sizes.
+ * Flights depart one per minute, spread round-robin over the benchmark airports.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScheduleSearchBenchmark {
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int scheduleSize;
+
+    private Schedule schedule;
+    private long firstDeparture;
+
+    @Setup
+    public void setUp() {
+        schedule = new Schedule();
+        firstDeparture = System.currentTimeMillis();
+        for (int number = 1; number <= scheduleSize; number++) {
+            Flight flight = new Flight.Builder()
+                    .number(number)
+                    .departure(BenchmarkData.departureFor(number))
+                    .arrival(BenchmarkData.arrivalFor(number))
+                    .aircraft(BenchmarkData.A380)
+                    .build();
+            schedule.scheduleFlight(flight, new Date(firstDeparture + number * MINUTE));
+        }
+    }
+
+    @Benchmark
+    public Optional<ScheduledFlight> searchByNumber() {
+        return schedule.searchScheduledFlight(ThreadLocalRandom.current().nextInt(1, scheduleSize + 1));
+    }
+
+    @Benchmark
+    public List<ScheduledFlight> searchRouteWithinDay() {
+        long from = firstDeparture + ThreadLocalRandom.current().nextInt(scheduleSize) * MINUTE;
+        return schedule.searchScheduledFlights("BER", "FRA", new Date(from), new Date(from + TimeUnit.DAYS.toMillis(1)));
+    }
+
+    @Benchmark
+    public List<ScheduledFlight> searchDepartureWindow() {
+        long from = firstDeparture + ThreadLocalRandom.current().nextInt(scheduleSize) * MINUTE;
+        return schedule.searchScheduledFlights(new Date(from), new Date(from + TimeUnit.HOURS.toMillis(1)));
+    }
+}
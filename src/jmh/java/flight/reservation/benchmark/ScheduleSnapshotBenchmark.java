@@ -0,0 +1,76 @@
+package flight.reservation.benchmark;
+
+import flight.reservation.flight.Flight;
+import flight.reservation.flight.Schedule;
+import flight.reservation.persistence.ScheduleSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup cost of loading a schedule from a binary snapshot, compared with scheduling every flight
+ * through Schedule.scheduleFlight.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ScheduleSnapshotBenchmark {
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    @Param({"100000", "1000000"})
+    public int scheduleSize;
+
+    private Path file;
+    private long firstDeparture;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        firstDeparture = System.currentTimeMillis();
+        file = Files.createTempFile("schedule", ".bin");
+        ScheduleSnapshot.write(scheduleFlights(), file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Schedule readSnapshot() throws IOException {
+        return ScheduleSnapshot.read(file);
+    }
+
+    @Benchmark
+    public Schedule scheduleFlights() {
+        Schedule schedule = new Schedule();
+        for (int number = 1; number <= scheduleSize; number++) {
+            Flight flight = new Flight.Builder()
+                    .number(number)
+                    .departure(BenchmarkData.departureFor(number))
+                    .arrival(BenchmarkData.arrivalFor(number))
+                    .aircraft(BenchmarkData.A380)
+                    .build();
+            schedule.scheduleFlight(flight, new Date(firstDeparture + number * MINUTE));
+        }
+        return schedule;
+    }
+}
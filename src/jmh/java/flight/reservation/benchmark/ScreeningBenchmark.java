@@ -0,0 +1,63 @@
+package flight.reservation.benchmark;
+
+import flight.reservation.screening.NoFlyListScreening;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of screening one name against no-fly lists of growing size,
+ * comparing the hashed screening service against the former linear List.contains.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScreeningBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int listSize;
+
+    private List<String> names;
+    private NoFlyListScreening screening;
+
+    @Setup
+    public void setUp() {
+        names = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            names.add("Listed Person " + i);
+        }
+        screening = new NoFlyListScreening(names);
+    }
+
+    @Benchmark
+    public boolean hashedScreening() {
+        return screening.isOnNoFlyList(candidate());
+    }
+
+    @Benchmark
+    public boolean linearListContains() {
+        return names.contains(candidate());
+    }
+
+    // Half of the candidates are listed, half are not
+    private String candidate() {
+        int i = ThreadLocalRandom.current().nextInt(listSize * 2);
+        return (i < listSize ? "Listed Person " : "Unlisted Person ") + i;
+    }
+}
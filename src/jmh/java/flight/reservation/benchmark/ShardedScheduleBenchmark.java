@@ -0,0 +1,64 @@
+package flight.reservation.benchmark;
+
+import flight.reservation.flight.Flight;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.flight.ShardedSchedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write throughput of scheduling flights from many threads for a growing number of shards.
+ * With one shard every write is serialized; with more shards writes for different departure airports
+ * proceed in parallel. Run with e.g. -t 1,2,4,8 to see scaling with the thread count.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(4)
+@State(Scope.Benchmark)
+public class ShardedScheduleBenchmark {
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    @Param({"1", "2", "4", "8"})
+    public int shards;
+
+    private ShardedSchedule schedule;
+    private long firstDeparture;
+
+    // a fresh schedule per iteration keeps the tree depth comparable between shard counts
+    @Setup(Level.Iteration)
+    public void setUp() {
+        schedule = new ShardedSchedule(shards);
+        firstDeparture = System.currentTimeMillis();
+    }
+
+    @Benchmark
+    public ScheduledFlight scheduleFlight() {
+        // random numbers spread departures over all airports and so over all shards
+        int number = ThreadLocalRandom.current().nextInt(1, Integer.MAX_VALUE);
+        Flight flight = new Flight.Builder()
+                .number(number)
+                .departure(BenchmarkData.departureFor(number))
+                .arrival(BenchmarkData.arrivalFor(number))
+                .aircraft(BenchmarkData.A380)
+                .build();
+        return schedule.scheduleFlight(flight, new Date(firstDeparture + (number % 1_000_000) * MINUTE));
+    }
+}
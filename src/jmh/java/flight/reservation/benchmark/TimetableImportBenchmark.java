@@ -0,0 +1,77 @@
+package flight.reservation.benchmark;
+
+import flight.reservation.flight.Schedule;
+import flight.reservation.persistence.ImportReport;
+import flight.reservation.persistence.TimetableImporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to stream a CSV timetable into a schedule, with validation on one or on all available cores.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TimetableImportBenchmark {
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"1", "0"})
+    public int parallelism;
+
+    private Path file;
+    private ForkJoinPool pool;
+    private TimetableImporter importer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("timetable", ".csv");
+        Instant firstDeparture = Instant.now();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# number,departure,arrival,aircraft,departureTime,arrivalTime,fare,currency\n");
+            for (int number = 1; number <= rows; number++) {
+                Instant departure = firstDeparture.plusSeconds(number * 60L);
+                writer.write(String.format("%d,%s,%s,A380,%s,%s,129.50,USD%n", number,
+                        BenchmarkData.departureFor(number).getCode(), BenchmarkData.arrivalFor(number).getCode(),
+                        departure, departure.plusSeconds(7200)));
+            }
+        }
+        // 0 means one worker per available processor
+        pool = new ForkJoinPool(parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism);
+        importer = new TimetableImporter.Builder().airports(BenchmarkData.AIRPORTS).pool(pool).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ImportReport importTimetable() throws IOException {
+        return importer.importFile(file, new Schedule());
+    }
+}
@@ -1,9 +1,25 @@
 import flight.reservation.Airport;
+import flight.reservation.events.EventLog;
+import flight.reservation.events.Events;
 import flight.reservation.flight.Flight;
+import flight.reservation.flight.LoadFactorFarePolicy;
+import flight.reservation.flight.ShardedSchedule;
+import flight.reservation.metrics.MetricsRegistry;
+import flight.reservation.metrics.MetricsReporter;
+import flight.reservation.order.SeatHoldManager;
+import flight.reservation.persistence.OrderRepository;
 import flight.reservation.plane.*;
 import flight.reservation.plane.factories.AircraftFactoryProvider;
+import flight.reservation.server.BookingServer;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 
 public class Runner {
@@ -40,8 +56,78 @@ public class Runner {
 
 //    static Schedule schedule;
 
-    public static void main(String[] args) {
+    /**
+     * Prints a sample flight, or with "serve [port] [data directory]" starts the booking server on a demo schedule,
+     * persisting orders and the event log in the data directory if one is given
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("serve")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+            OrderRepository repository = args.length > 2
+                    ? new OrderRepository.Builder().directory(Paths.get(args[2])).open()
+                    : null;
+            EventLog eventLog = null;
+            SeatHoldManager.Builder holds = new SeatHoldManager.Builder();
+            if (repository != null) {
+                holds.onExpiry(repository::saveExpired);
+                eventLog = new EventLog.Builder().directory(Paths.get(args[2])).open();
+                Events.setSink(eventLog);
+            }
+            SeatHoldManager seatHolds = holds.build().start();
+            BookingServer server = new BookingServer(demoSchedule(), new InetSocketAddress(port), seatHolds, repository);
+            Runtime.getRuntime().addShutdownHook(new Thread(shutdown(server, seatHolds, repository, eventLog), "shutdown"));
+            server.start();
+            MetricsRegistry.getDefault().exportTo(ManagementFactory.getPlatformMBeanServer());
+            new MetricsReporter.Builder().build().start();
+            System.out.println("Booking server listening on port " + server.getPort());
+            return;
+        }
         Flight flight = new Flight.Builder().aircraft(aircrafts.get(0)).arrival(airports.get(0)).departure(airports.get(1)).number(1).build();
         System.out.println(flight);
     }
+
+    // Stops taking requests, then writes the pending orders and the events they caused before the JVM exits
+    private static Runnable shutdown(BookingServer server, SeatHoldManager seatHolds, OrderRepository repository,
+                                     EventLog eventLog) {
+        return () -> {
+            server.close();
+            seatHolds.close();
+            // the event log last, so events emitted while the orders are written still reach it
+            for (AutoCloseable resource : Arrays.asList(repository, eventLog)) {
+                if (resource == null) {
+                    continue;
+                }
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    System.err.println("Shutdown failed: " + e.getMessage());
+                }
+            }
+        };
+    }
+
+    // Schedules every demo route daily for the next week, starting tomorrow at midnight UTC
+    private static ShardedSchedule demoSchedule() {
+        int[][] routes = {{0, 1, 0}, {1, 2, 1}, {2, 4, 2}, {3, 2, 3}, {4, 2, 4}, {5, 7, 5}};
+        // one shard per core, so flights leaving different airports are scheduled in parallel
+        ShardedSchedule schedule = new ShardedSchedule(Runtime.getRuntime().availableProcessors());
+        // fares rise as flights fill up
+        schedule.setFarePolicy(new LoadFactorFarePolicy.Builder()
+                .loadFactorBucket(0.5, 1.25)
+                .loadFactorBucket(0.8, 1.5)
+                .build());
+        Instant firstDay = Instant.now().truncatedTo(ChronoUnit.DAYS).plus(1, ChronoUnit.DAYS);
+        for (int i = 0; i < routes.length; i++) {
+            Flight flight = new Flight.Builder()
+                    .number(i + 1)
+                    .departure(airports.get(routes[i][0]))
+                    .arrival(airports.get(routes[i][1]))
+                    .aircraft(aircrafts.get(routes[i][2]))
+                    .build();
+            for (int day = 0; day < 7; day++) {
+                schedule.scheduleFlight(flight, Date.from(firstDay.plus(day, ChronoUnit.DAYS).plus(8 + i, ChronoUnit.HOURS)));
+            }
+        }
+        return schedule;
+    }
 }
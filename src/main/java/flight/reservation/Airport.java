@@ -2,29 +2,38 @@ package flight.reservation;
 
 import flight.reservation.flight.Flight;
 import flight.reservation.plane.Aircraft;
+import flight.reservation.plane.AircraftCatalog;
+import flight.reservation.plane.AircraftModels;
 
 import java.util.List;
 
 public class Airport {
+    // every model of the aircraft catalog is allowed unless an airport restricts it
+    private static final String[] DEFAULT_ALLOWED_AIRCRAFTS = AircraftCatalog.getDefault().getModelNames();
+    // shared by all airports using the default list
+    private static final long[] DEFAULT_ALLOWED_MODELS = AircraftModels.bitsetOf(DEFAULT_ALLOWED_AIRCRAFTS);
 
     private final String name;
     private final String code;
     private final String location;
     private List<Flight> flights;
-    private String[] allowedAircrafts;
+    private final String[] allowedAircrafts;
+    private final long[] allowedModels;
 
     public Airport(String name, String code, String location) {
         this.name = name;
         this.code = code;
         this.location = location;
-        this.allowedAircrafts = new String[]{"A380", "A350", "Embraer 190", "Antonov AN2", "H1", "H2", "HypaHype"};
+        this.allowedAircrafts = DEFAULT_ALLOWED_AIRCRAFTS;
+        this.allowedModels = DEFAULT_ALLOWED_MODELS;
     }
 
     public Airport(String name, String code, String location, String[] allowedAircrafts) {
         this.name = name;
         this.code = code;
         this.location = location;
-        this.allowedAircrafts = allowedAircrafts;
+        this.allowedAircrafts = allowedAircrafts.clone();
+        this.allowedModels = AircraftModels.bitsetOf(allowedAircrafts);
     }
 
     public String getName() {
@@ -48,6 +57,23 @@ public class Airport {
     }
 
     public String[] getAllowedAircrafts() {
-        return allowedAircrafts;
+        return allowedAircrafts.clone();
+    }
+
+    /**
+     * Checks whether an aircraft may operate at this airport
+     * @param aircraft the aircraft
+     * @return true if the aircraft's model is allowed here
+     */
+    public boolean allowsAircraft(Aircraft aircraft) {
+        return allowsModel(aircraft.getModelId());
+    }
+
+    /**
+     * @param modelId an id from {@link AircraftModels#idOf(String)}
+     * @return true if the model is allowed here
+     */
+    public boolean allowsModel(int modelId) {
+        return AircraftModels.contains(allowedModels, modelId);
     }
 }
@@ -1,15 +1,25 @@
 package flight.reservation;
 
+import flight.reservation.events.EventType;
+import flight.reservation.events.Events;
+import flight.reservation.flight.ItineraryBooking;
 import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.metrics.Counter;
+import flight.reservation.metrics.LatencyHistogram;
+import flight.reservation.metrics.MetricsRegistry;
 import flight.reservation.order.FlightOrder;
 import flight.reservation.order.Order;
+import flight.reservation.screening.ScreeningService;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 
 public class Customer {
+    private static final LatencyHistogram BOOKING_LATENCY = MetricsRegistry.getDefault().histogram("booking.createOrder");
+    private static final LatencyHistogram VALIDATION_LATENCY = MetricsRegistry.getDefault().histogram("booking.validation");
+    private static final Counter REJECTED_ORDERS = MetricsRegistry.getDefault().counter("booking.rejected");
 
     private String email;
     private String name;
@@ -18,35 +28,61 @@ public class Customer {
     public Customer(String name, String email) {
         this.name = name;
         this.email = email;
-        this.orders = new ArrayList<>();
+        // read far more often than appended to, and appended to concurrently by the booking server
+        this.orders = new CopyOnWriteArrayList<>();
     }
 
     public FlightOrder createOrder(List<String> passengerNames, List<ScheduledFlight> flights, double price) {
-        if (!isOrderValid(passengerNames, flights)) {
-            throw new IllegalStateException("Order is not valid");
-        }
-        FlightOrder order = new FlightOrder(flights, this);
-        order.setPrice(price);
-        List<Passenger> passengers = passengerNames
-                .stream()
-                .map(Passenger::new)
-                .collect(Collectors.toList());
-        order.setPassengers(passengers);
-        flights.forEach(scheduledFlight -> scheduledFlight.addPassengers(passengers));
-        orders.add(order);
-        return order;
+        return createOrder(passengerNames, flights, Money.of(price));
+    }
+
+    /**
+     * Books an order charged at the current fare of every flight, see {@link ItineraryBooking#quote}
+     * @param passengerNames names of the passengers
+     * @param flights the flights to book
+     * @return the booked order
+     * @throws IllegalStateException if the order fails screening or the flights are full
+     */
+    public FlightOrder createOrder(List<String> passengerNames, List<ScheduledFlight> flights) {
+        return createOrder(passengerNames, flights, ItineraryBooking.quote(flights, passengerNames.size()));
     }
 
-    private boolean isOrderValid(List<String> passengerNames, List<ScheduledFlight> flights) {
-        if (FlightOrder.getNoFlyList().contains(this.getName())) {
-            return false;
+    public FlightOrder createOrder(List<String> passengerNames, List<ScheduledFlight> flights, Money price) {
+        long start = System.nanoTime();
+        try {
+            if (!isOrderValid(passengerNames)) {
+                REJECTED_ORDERS.increment();
+                Events.emit(EventType.ORDER_REJECTED, email, passengerNames.size(), "no-fly list");
+                throw new IllegalStateException("Order is not valid");
+            }
+            FlightOrder order = new FlightOrder(flights, this);
+            order.setPrice(price);
+            List<Passenger> passengers = passengerNames
+                    .stream()
+                    .map(Passenger::new)
+                    .collect(Collectors.toList());
+            order.setPassengers(passengers);
+            ItineraryBooking.book(flights, passengers);
+            orders.add(order);
+            Events.emit(EventType.ORDER_BOOKED, email, passengers.size(), null);
+            return order;
+        } finally {
+            BOOKING_LATENCY.recordSince(start);
         }
-        if (passengerNames.stream().anyMatch(FlightOrder.getNoFlyList()::contains)) {
-            return false;
+    }
+
+    // Capacity is checked atomically by ItineraryBooking when the seats are reserved
+    private boolean isOrderValid(List<String> passengerNames) {
+        long start = System.nanoTime();
+        try {
+            ScreeningService screening = FlightOrder.getScreeningService();
+            if (screening.isOnNoFlyList(this.getName())) {
+                return false;
+            }
+            return passengerNames.stream().noneMatch(screening::isOnNoFlyList);
+        } finally {
+            VALIDATION_LATENCY.recordSince(start);
         }
-        return flights.stream().allMatch(scheduledFlight -> {
-            return scheduledFlight.getAvailableCapacity() >= passengerNames.size();
-        });
     }
 
     public String getEmail() {
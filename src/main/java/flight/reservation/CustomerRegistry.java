@@ -0,0 +1,126 @@
+package flight.reservation;
+
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.order.FlightOrder;
+import flight.reservation.order.Order;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent store of customers keyed by normalized email, with an index of all their orders by id.
+ * Looking up a customer, an order by its booking reference or a customer's orders takes constant time
+ * and never blocks, even while other threads place orders.
+ */
+public class CustomerRegistry {
+    private final Map<String, Customer> customersByEmail = new ConcurrentHashMap<>();
+    private final Map<UUID, FlightOrder> ordersById = new ConcurrentHashMap<>();
+
+    /**
+     * Normalizes an email address for lookups, so " Amanda@Ya.com" and "amanda@ya.com" name the same customer
+     * @param email the email address
+     * @return the trimmed, lower case address
+     */
+    public static String normalizeEmail(String email) {
+        Objects.requireNonNull(email, "Email cannot be null");
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("Email cannot be empty");
+        }
+        return normalized;
+    }
+
+    /**
+     * Returns the customer with the given email, registering a new one if there is none yet
+     * @param name name of a new customer; an existing customer keeps its name
+     * @param email email address of the customer
+     * @return the registered customer
+     */
+    public Customer register(String name, String email) {
+        return customersByEmail.computeIfAbsent(normalizeEmail(email), key -> new Customer(name, email.trim()));
+    }
+
+    /**
+     * Books an order for the customer with the given email, registering the customer if needed
+     * @param name name of the customer, used if it is not registered yet
+     * @param email email address of the customer
+     * @param passengerNames names of the passengers
+     * @param flights the flights to book
+     * @param price price of the order
+     * @return the booked order
+     * @throws IllegalStateException if the order fails screening or the flights are full
+     */
+    public FlightOrder createOrder(String name, String email, List<String> passengerNames,
+                                   List<ScheduledFlight> flights, Money price) {
+        FlightOrder order = register(name, email).createOrder(passengerNames, flights, price);
+        ordersById.put(order.getId(), order);
+        return order;
+    }
+
+    /**
+     * Books an order charged at the current fare of every flight, registering the customer if needed
+     * @param name name of the customer, used if it is not registered yet
+     * @param email email address of the customer
+     * @param passengerNames names of the passengers
+     * @param flights the flights to book
+     * @return the booked order
+     * @throws IllegalStateException if the order fails screening or the flights are full
+     */
+    public FlightOrder createOrder(String name, String email, List<String> passengerNames,
+                                   List<ScheduledFlight> flights) {
+        FlightOrder order = register(name, email).createOrder(passengerNames, flights);
+        ordersById.put(order.getId(), order);
+        return order;
+    }
+
+    /**
+     * Adds an order that was created elsewhere, e.g. restored from storage, registering its customer if needed
+     * @param order the order
+     */
+    public void addOrder(FlightOrder order) {
+        Objects.requireNonNull(order, "Order cannot be null");
+        Customer customer = order.getCustomer();
+        Customer registered = customersByEmail.putIfAbsent(normalizeEmail(customer.getEmail()), customer);
+        if (registered != null && registered != customer) {
+            registered.getOrders().add(order);
+        }
+        ordersById.put(order.getId(), order);
+    }
+
+    public Optional<Customer> findCustomer(String email) {
+        return Optional.ofNullable(customersByEmail.get(normalizeEmail(email)));
+    }
+
+    /**
+     * Finds an order by its booking reference
+     * @param id the order id
+     * @return the order, or empty if there is none with this id
+     */
+    public Optional<FlightOrder> findOrder(UUID id) {
+        return Optional.ofNullable(ordersById.get(id));
+    }
+
+    /**
+     * Returns the orders of a customer in booking order
+     * @param email email address of the customer
+     * @return an unmodifiable view of the customer's orders, empty if the customer is unknown
+     */
+    public List<Order> getOrders(String email) {
+        Customer customer = customersByEmail.get(normalizeEmail(email));
+        return customer == null ? Collections.emptyList() : Collections.unmodifiableList(customer.getOrders());
+    }
+
+    public int getCustomerCount() {
+        return customersByEmail.size();
+    }
+
+    public int getOrderCount() {
+        return ordersById.size();
+    }
+}
@@ -0,0 +1,139 @@
+package flight.reservation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * An exact amount of money, stored as a long of minor units (e.g. cents) of its currency.
+ * Arithmetic is exact and fails with an {@link ArithmeticException} on overflow instead of drifting like double.
+ */
+public final class Money implements Comparable<Money> {
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("USD");
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1000, 10000};
+
+    private final long minorUnits;
+    private final Currency currency;
+
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
+        this.currency = Objects.requireNonNull(currency, "Currency cannot be null");
+    }
+
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return new Money(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    /**
+     * Converts a decimal amount, rounding half-even to the currency's minor unit
+     * @param amount amount in major units, e.g. 12.34
+     * @param currency the currency
+     * @return the money amount
+     */
+    public static Money of(double amount, Currency currency) {
+        BigDecimal scaled = BigDecimal.valueOf(amount).setScale(fractionDigits(currency), RoundingMode.HALF_EVEN);
+        return new Money(scaled.unscaledValue().longValueExact(), currency);
+    }
+
+    public static Money of(double amount) {
+        return of(amount, DEFAULT_CURRENCY);
+    }
+
+    public static Money zero(Currency currency) {
+        return new Money(0, currency);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    /**
+     * @return the amount in major units; only meant for display and interop, not for arithmetic
+     */
+    public double toDouble() {
+        return (double) minorUnits / scale(currency);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long factor) {
+        return new Money(Math.multiplyExact(minorUnits, factor), currency);
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public void requireSameCurrency(Money other) {
+        requireCurrency(other.currency);
+    }
+
+    public void requireCurrency(Currency expected) {
+        if (!currency.equals(expected)) {
+            throw new IllegalArgumentException(
+                    String.format("Currency mismatch: %s and %s", currency.getCurrencyCode(), expected.getCurrencyCode()));
+        }
+    }
+
+    public static long scale(Currency currency) {
+        return POWERS_OF_TEN[fractionDigits(currency)];
+    }
+
+    private static int fractionDigits(Currency currency) {
+        int digits = currency.getDefaultFractionDigits();
+        return digits < 0 ? 0 : digits;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        long scale = scale(currency);
+        StringBuilder text = new StringBuilder();
+        if (minorUnits < 0) {
+            text.append('-');
+        }
+        long absolute = Math.abs(minorUnits);
+        text.append(absolute / scale);
+        if (scale > 1) {
+            String fraction = Long.toString(absolute % scale + scale);
+            text.append('.').append(fraction, 1, fraction.length());
+        }
+        return text.append(' ').append(currency.getCurrencyCode()).toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Money money = (Money) o;
+        return minorUnits == money.minorUnits && currency.equals(money.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minorUnits) + currency.hashCode();
+    }
+}
@@ -0,0 +1,346 @@
+package flight.reservation.events;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit log writing one JSON object per line, e.g.
+ * {@code {"time":"2025-05-01T08:00:00.123Z","type":"PAYMENT_SUCCEEDED","subject":"credit card","value":8999,"detail":"EUR"}}.
+ * <p>
+ * Emitting threads claim a slot of a preallocated ring buffer with a compare-and-set, fill it in place and
+ * publish it; they never lock, never touch the file and allocate nothing. A single writer thread formats
+ * the published slots in order and writes them in batches. When the file reaches its maximum size it is
+ * renamed to {@code <name>.1} (older files shifting up to {@code <name>.<maxFiles - 1>}) and a new one started.
+ * <p>
+ * If the writer falls behind and the ring is full, new events are either dropped and counted, or the emitting
+ * thread waits for a free slot, depending on the {@link OverflowPolicy}.
+ */
+public class EventLog implements EventSink, AutoCloseable {
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FULL_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    // set in claimed by close(), so no sequence can be claimed after the writer learned the last one
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    public enum OverflowPolicy {
+        // the event is discarded and counted, the caller never waits
+        DROP,
+        // the caller waits until the writer has freed a slot
+        BLOCK
+    }
+
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final OverflowPolicy overflowPolicy;
+    private final Slot[] ring;
+    private final int mask;
+    // next sequence to be claimed by an emitting thread, with the CLOSED bit once closed
+    private final AtomicLong claimed = new AtomicLong();
+    // slots of all sequences below are free again
+    private volatile long consumed;
+    // events below this sequence are written or, after a failure, dropped
+    private volatile long flushed;
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong written = new AtomicLong();
+    private final Thread writer;
+    private volatile IOException failure;
+    // owned by the writer thread
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private final StringBuilder line = new StringBuilder(256);
+    private FileChannel channel;
+    private long fileBytes;
+
+    private static final class Slot {
+        private volatile long sequence = -1;
+        private long timeMillis;
+        private EventType type;
+        private String subject;
+        private long value;
+        private String detail;
+    }
+
+    private EventLog(Builder builder) throws IOException {
+        Objects.requireNonNull(builder.directory, "Directory cannot be null");
+        Objects.requireNonNull(builder.fileName, "File name cannot be null");
+        this.overflowPolicy = Objects.requireNonNull(builder.overflowPolicy, "Overflow policy cannot be null");
+        if (builder.bufferSize <= 0 || builder.maxFileBytes <= 0 || builder.maxFiles <= 0) {
+            throw new IllegalArgumentException("Buffer size, file size and file count must be positive");
+        }
+        int capacity = Integer.highestOneBit(builder.bufferSize - 1) << 1;
+        this.ring = new Slot[Math.max(2, capacity)];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = new Slot();
+        }
+        this.mask = ring.length - 1;
+        this.maxFileBytes = builder.maxFileBytes;
+        this.maxFiles = builder.maxFiles;
+        Files.createDirectories(builder.directory);
+        this.file = builder.directory.resolve(builder.fileName);
+        openFile();
+        this.writer = new Thread(this::write, "event-log-writer-" + INSTANCES.incrementAndGet());
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public static class Builder {
+        private Path directory;
+        private String fileName = "events.log";
+        private int bufferSize = 8192;
+        private long maxFileBytes = 64L * 1024 * 1024;
+        private int maxFiles = 5;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+        public Builder directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        public Builder fileName(String fileName) {
+            this.fileName = fileName;
+            return this;
+        }
+
+        // Number of events buffered between emitting threads and the writer, rounded up to a power of two
+        public Builder bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        // Size after which the file is rotated; a batch is never split, so files may slightly exceed it
+        public Builder maxFileBytes(long maxFileBytes) {
+            this.maxFileBytes = maxFileBytes;
+            return this;
+        }
+
+        // Number of files kept including the current one
+        public Builder maxFiles(int maxFiles) {
+            this.maxFiles = maxFiles;
+            return this;
+        }
+
+        public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /**
+         * Opens the log, appending to an existing file, and starts its writer thread
+         * @return the log
+         * @throws IOException if the file cannot be opened
+         */
+        public EventLog open() throws IOException {
+            return new EventLog(this);
+        }
+    }
+
+    @Override
+    public boolean emit(EventType type, String subject, long value, String detail) {
+        Objects.requireNonNull(type, "Event type cannot be null");
+        long sequence;
+        while (true) {
+            sequence = claimed.get();
+            if ((sequence & CLOSED) != 0 || failure != null) {
+                dropped.increment();
+                return false;
+            }
+            if (sequence - consumed >= ring.length) {
+                if (overflowPolicy == OverflowPolicy.DROP) {
+                    dropped.increment();
+                    return false;
+                }
+                LockSupport.parkNanos(FULL_WAIT_NANOS);
+            } else if (claimed.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        Slot slot = ring[(int) sequence & mask];
+        slot.timeMillis = System.currentTimeMillis();
+        slot.type = type;
+        slot.subject = subject;
+        slot.value = value;
+        slot.detail = detail;
+        slot.sequence = sequence;
+        return true;
+    }
+
+    /**
+     * Waits until every event accepted before this call is written to the file
+     * @throws IOException if writing failed
+     */
+    public void flush() throws IOException {
+        long target = claimed.get() & ~CLOSED;
+        while (flushed < target && writer.isAlive()) {
+            LockSupport.parkNanos(FULL_WAIT_NANOS);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Writes all accepted events, stops the writer and closes the file; later events are dropped
+     * @throws IOException if writing or closing failed
+     */
+    @Override
+    public void close() throws IOException {
+        claimed.getAndUpdate(sequence -> sequence | CLOSED);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void write() {
+        long cursor = 0;
+        while (true) {
+            long end = claimed.get();
+            // events claimed before close() are still written, including those not yet published
+            if ((end & CLOSED) != 0 && cursor == (end & ~CLOSED)) {
+                break;
+            }
+            long batchStart = cursor;
+            Slot slot = ring[(int) cursor & mask];
+            while (slot.sequence == cursor && cursor - batchStart < ring.length) {
+                format(slot);
+                slot.subject = null;
+                slot.detail = null;
+                consumed = ++cursor;
+                slot = ring[(int) cursor & mask];
+            }
+            if (cursor == batchStart) {
+                LockSupport.parkNanos(IDLE_NANOS);
+                continue;
+            }
+            writeBuffer();
+            if (failure == null) {
+                written.addAndGet(cursor - batchStart);
+            } else {
+                dropped.add(cursor - batchStart);
+            }
+            flushed = cursor;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+    }
+
+    private void format(Slot slot) {
+        line.setLength(0);
+        line.append("{\"time\":\"").append(Instant.ofEpochMilli(slot.timeMillis))
+                .append("\",\"type\":\"").append(slot.type.name()).append("\",\"subject\":");
+        appendString(slot.subject);
+        line.append(",\"value\":").append(slot.value).append(",\"detail\":");
+        appendString(slot.detail);
+        line.append("}\n");
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > buffer.remaining()) {
+            writeBuffer();
+        }
+        if (bytes.length > buffer.remaining()) {
+            // longer than the whole buffer, written on its own
+            writeFully(ByteBuffer.wrap(bytes));
+        } else {
+            buffer.put(bytes);
+        }
+    }
+
+    private void appendString(String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    private void writeBuffer() {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) {
+        if (failure != null) {
+            return;
+        }
+        try {
+            if (fileBytes > 0 && fileBytes + bytes.remaining() > maxFileBytes) {
+                rotate();
+            }
+            while (bytes.hasRemaining()) {
+                fileBytes += channel.write(bytes);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    private void rotate() throws IOException {
+        channel.close();
+        Files.deleteIfExists(rotated(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            if (Files.exists(rotated(i))) {
+                Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+        openFile();
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void openFile() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+    }
+}
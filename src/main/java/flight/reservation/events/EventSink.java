@@ -0,0 +1,20 @@
+package flight.reservation.events;
+
+/**
+ * Receiver of audit events. Implementations must be thread-safe and must not block the caller for long,
+ * since events are emitted from the booking and payment paths.
+ */
+@FunctionalInterface
+public interface EventSink {
+    EventSink DISCARD = (type, subject, value, detail) -> false;
+
+    /**
+     * Records one event
+     * @param type kind of the event
+     * @param subject what the event is about, e.g. a customer email or payment method; may be null
+     * @param value numeric payload, see {@link EventType}
+     * @param detail additional text, see {@link EventType}; may be null
+     * @return true if the event was accepted, false if it was dropped
+     */
+    boolean emit(EventType type, String subject, long value, String detail);
+}
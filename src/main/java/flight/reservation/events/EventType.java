@@ -0,0 +1,20 @@
+package flight.reservation.events;
+
+/**
+ * Kinds of audit events emitted by the booking, validation and payment paths.
+ */
+public enum EventType {
+    // an order was created and its seats reserved; value is the number of passengers
+    ORDER_BOOKED,
+    // an order failed validation, e.g. a passenger is on the no-fly list
+    ORDER_REJECTED,
+    // a leg had not enough seats left; value is the flight number
+    SEATS_SOLD_OUT,
+    // value is the amount in minor units, detail the currency
+    PAYMENT_SUCCEEDED,
+    // value is the amount in minor units, detail the reason
+    PAYMENT_DECLINED,
+    // a stored order could not be booked again on start; subject is the order id, value the number of
+    // passengers, detail the reason
+    ORDER_NOT_RESTORED
+}
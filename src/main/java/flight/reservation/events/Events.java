@@ -0,0 +1,30 @@
+package flight.reservation.events;
+
+import java.util.Objects;
+
+/**
+ * Process-wide sink the application classes emit their audit events into. Events are discarded until a sink,
+ * typically an {@link EventLog}, is installed.
+ */
+public final class Events {
+    private static volatile EventSink sink = EventSink.DISCARD;
+
+    private Events() {
+    }
+
+    public static EventSink getSink() {
+        return sink;
+    }
+
+    public static void setSink(EventSink sink) {
+        Events.sink = Objects.requireNonNull(sink, "Event sink cannot be null");
+    }
+
+    /**
+     * Emits an event into the installed sink
+     * @return true if the event was accepted
+     */
+    public static boolean emit(EventType type, String subject, long value, String detail) {
+        return sink.emit(type, subject, value, detail);
+    }
+}
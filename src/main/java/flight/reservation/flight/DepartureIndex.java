@@ -0,0 +1,29 @@
+package flight.reservation.flight;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Scheduled flights indexed by departure airport and time, the graph walked by an itinerary search.
+ * Implemented by {@link ScheduleView} and by the schedules that publish views.
+ */
+public interface DepartureIndex {
+
+    /**
+     * Returns all scheduled flights leaving the given airport within [from, to), ordered by departure time
+     * @param departureCode Code of the departure airport, e.g. BER
+     * @param from Earliest departure time (inclusive)
+     * @param to Latest departure time (exclusive)
+     * @return List of matching scheduled flights, empty if none
+     * @throws NullPointerException if any argument is null
+     */
+    List<ScheduledFlight> searchDepartures(String departureCode, Date from, Date to);
+
+    /**
+     * Returns an index that keeps answering from the current version, so several searches see the same flights
+     * @return this index if it never changes, otherwise its current version
+     */
+    default DepartureIndex snapshot() {
+        return this;
+    }
+}
@@ -0,0 +1,16 @@
+package flight.reservation.flight;
+
+/**
+ * Computes the current fare of a scheduled flight from its base fare and booking state.
+ * Implementations are called on every seat change and must be cheap and side-effect free.
+ */
+public interface FarePolicy {
+    /**
+     * @param baseFareMinorUnits base fare in minor units of the flight's currency
+     * @param bookedSeats seats booked so far
+     * @param capacity passenger capacity of the flight
+     * @param millisToDeparture time left until departure, negative once departed
+     * @return the fare in minor units
+     */
+    long fare(long baseFareMinorUnits, int bookedSeats, int capacity, long millisToDeparture);
+}
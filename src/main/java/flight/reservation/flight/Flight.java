@@ -3,7 +3,6 @@ package flight.reservation.flight;
 import flight.reservation.Airport;
 import flight.reservation.plane.Aircraft;
 
-import java.util.Arrays;
 import java.util.Objects;
 
 public class Flight {
@@ -66,7 +65,8 @@ public class Flight {
             throw new IllegalArgumentException("Departure and arrival airports cannot be the same");
         }
 
-        if (!isAircraftValidForAirport(departure) || !isAircraftValidForAirport(arrival)) {
+        int modelId = aircraft.getModelId();
+        if (!departure.allowsModel(modelId) || !arrival.allowsModel(modelId)) {
             throw new IllegalArgumentException(
                     String.format("Aircraft %s is not valid for the route %s-%s",
                             aircraft.getModelName(),
@@ -76,11 +76,6 @@ public class Flight {
         }
     }
 
-    private boolean isAircraftValidForAirport(Airport airport) {
-        return Arrays.stream(airport.getAllowedAircrafts())
-                .anyMatch(allowedModel -> allowedModel.equals(aircraft.getModelName()));
-    }
-
     public Aircraft getAircraft() {
         return aircraft;
     }
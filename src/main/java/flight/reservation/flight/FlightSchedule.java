@@ -0,0 +1,47 @@
+package flight.reservation.flight;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The searches and change notifications a booking front-end needs, implemented by a single {@link Schedule}
+ * and by a {@link ShardedSchedule}.
+ */
+public interface FlightSchedule extends DepartureIndex {
+
+    /**
+     * Registers a listener for flights being scheduled, removed or changing seats or price
+     * @param listener the listener
+     */
+    void addListener(ScheduleListener listener);
+
+    void removeListener(ScheduleListener listener);
+
+    /**
+     * Searches for a scheduled flight by flight number
+     * @param flightNumber The flight number to search for
+     * @return Optional containing the first flight scheduled with this number, or empty if not found
+     */
+    Optional<ScheduledFlight> searchScheduledFlight(int flightNumber);
+
+    /**
+     * Returns all scheduled flights with the given flight number, in scheduling order
+     * @param flightNumber The flight number to search for
+     * @return List of matching scheduled flights, empty if none
+     */
+    List<ScheduledFlight> searchScheduledFlights(int flightNumber);
+
+    /**
+     * Returns all scheduled flights on the given route departing within [from, to), ordered by departure time
+     * @param departureCode Code of the departure airport, e.g. BER
+     * @param arrivalCode Code of the arrival airport, e.g. FRA
+     * @param from Earliest departure time (inclusive)
+     * @param to Latest departure time (exclusive)
+     * @return List of matching scheduled flights, empty if none
+     * @throws NullPointerException if any argument is null
+     */
+    List<ScheduledFlight> searchScheduledFlights(String departureCode, String arrivalCode, Date from, Date to);
+
+    int size();
+}
@@ -0,0 +1,103 @@
+package flight.reservation.flight;
+
+import flight.reservation.Money;
+import flight.reservation.Passenger;
+import flight.reservation.events.EventType;
+import flight.reservation.events.Events;
+import flight.reservation.metrics.Counter;
+import flight.reservation.metrics.LatencyHistogram;
+import flight.reservation.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * All-or-nothing booking of the same passengers on several scheduled flights, e.g. a connecting itinerary.
+ * Seats are reserved optimistically leg by leg, in the seat count and on the leg's seat map, and rolled back
+ * if any leg is sold out, so no global lock is needed and itineraries that share no legs never contend with
+ * each other.
+ */
+public final class ItineraryBooking {
+    private static final LatencyHistogram RESERVATION_LATENCY = MetricsRegistry.getDefault().histogram("booking.reserveSeats");
+    private static final Counter SOLD_OUT = MetricsRegistry.getDefault().counter("booking.soldOut");
+
+    private ItineraryBooking() {
+    }
+
+    /**
+     * Books all passengers on every given flight, or on none of them, assigning each passenger a seat per leg
+     * @param flights legs of the itinerary
+     * @param passengers passengers to book
+     * @throws IllegalStateException if any leg does not have enough seats; no leg is changed in that case
+     */
+    public static void book(List<ScheduledFlight> flights, List<Passenger> passengers) {
+        book(flights, passengers, Collections.emptyList());
+    }
+
+    /**
+     * Books like {@link #book(List, List)}, keeping requested seats where they are still free, e.g. when
+     * stored bookings are restored
+     * @param flights legs of the itinerary
+     * @param passengers passengers to book
+     * @param seats per leg, the requested seat of every passenger in passenger order; legs without an entry
+     *              get new seats
+     * @throws IllegalStateException if any leg does not have enough seats; no leg is changed in that case
+     */
+    public static void book(List<ScheduledFlight> flights, List<Passenger> passengers, List<List<String>> seats) {
+        Objects.requireNonNull(flights, "Flights list cannot be null");
+        Objects.requireNonNull(passengers, "Passengers list cannot be null");
+        Objects.requireNonNull(seats, "Seats list cannot be null");
+        long start = System.nanoTime();
+        try {
+            int count = passengers.size();
+            List<List<String>> assigned = new ArrayList<>(flights.size());
+            for (int i = 0; i < flights.size(); i++) {
+                ScheduledFlight flight = flights.get(i);
+                List<String> legSeats = flight.tryReserveSeats(count,
+                        i < seats.size() ? seats.get(i) : Collections.<String>emptyList());
+                if (legSeats == null) {
+                    rollback(flights, assigned);
+                    SOLD_OUT.increment();
+                    Events.emit(EventType.SEATS_SOLD_OUT, null, flight.getNumber(), null);
+                    throw new IllegalStateException(
+                            String.format("Cannot add %d passengers to flight %d. Only %d seats available",
+                                    count, flight.getNumber(), flight.getAvailableCapacity())
+                    );
+                }
+                assigned.add(legSeats);
+            }
+            for (int i = 0; i < flights.size(); i++) {
+                flights.get(i).commitPassengers(passengers, assigned.get(i));
+            }
+        } finally {
+            RESERVATION_LATENCY.recordSince(start);
+        }
+    }
+
+    /**
+     * Returns the current price of booking a number of passengers on every given flight
+     * @param flights legs of the itinerary
+     * @param passengers number of passengers
+     * @return the sum of every leg's current price times the number of passengers
+     * @throws IllegalArgumentException if there is no leg or the legs are priced in different currencies
+     */
+    public static Money quote(List<ScheduledFlight> flights, int passengers) {
+        Objects.requireNonNull(flights, "Flights list cannot be null");
+        if (flights.isEmpty()) {
+            throw new IllegalArgumentException("At least one flight is required");
+        }
+        Money total = Money.zero(flights.get(0).getCurrency());
+        for (ScheduledFlight flight : flights) {
+            total = total.plus(flight.getCurrentPrice().times(passengers));
+        }
+        return total;
+    }
+
+    private static void rollback(List<ScheduledFlight> flights, List<List<String>> assigned) {
+        for (int i = 0; i < assigned.size(); i++) {
+            flights.get(i).releaseSeats(assigned.get(i));
+        }
+    }
+}
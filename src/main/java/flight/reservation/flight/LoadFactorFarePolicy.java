@@ -0,0 +1,103 @@
+package flight.reservation.flight;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Fare buckets keyed by load factor (booked seats / capacity) and time to departure.
+ * <p>
+ * The load-factor buckets are expanded into a lookup table with one entry per percent of load factor
+ * when the policy is built, so a fare is computed with one table lookup, a short scan over the
+ * time buckets and integer arithmetic.
+ */
+public class LoadFactorFarePolicy implements FarePolicy {
+    private static final int BASIS_POINTS = 10_000;
+
+    // multiplier in basis points per load factor percent, 0..100
+    private final int[] loadMultipliers;
+    // sorted by ascending time to departure
+    private final long[] timeThresholdsMillis;
+    private final int[] timeMultipliers;
+
+    private LoadFactorFarePolicy(Builder builder) {
+        this.loadMultipliers = new int[101];
+        List<double[]> loadBuckets = new ArrayList<>(builder.loadBuckets);
+        loadBuckets.sort(Comparator.comparingDouble(bucket -> bucket[0]));
+        for (int percent = 0; percent <= 100; percent++) {
+            int multiplier = BASIS_POINTS;
+            for (double[] bucket : loadBuckets) {
+                if (percent >= Math.round(bucket[0] * 100)) {
+                    multiplier = (int) Math.round(bucket[1] * BASIS_POINTS);
+                }
+            }
+            loadMultipliers[percent] = multiplier;
+        }
+        List<long[]> timeBuckets = new ArrayList<>(builder.timeBuckets);
+        timeBuckets.sort(Comparator.comparingLong(bucket -> bucket[0]));
+        this.timeThresholdsMillis = new long[timeBuckets.size()];
+        this.timeMultipliers = new int[timeBuckets.size()];
+        for (int i = 0; i < timeBuckets.size(); i++) {
+            timeThresholdsMillis[i] = timeBuckets.get(i)[0];
+            timeMultipliers[i] = (int) timeBuckets.get(i)[1];
+        }
+    }
+
+    public static class Builder {
+        private final List<double[]> loadBuckets = new ArrayList<>();
+        private final List<long[]> timeBuckets = new ArrayList<>();
+
+        /**
+         * Applies the multiplier from the given load factor upwards, until the next higher bucket
+         * @param minLoadFactor load factor between 0 and 1 where the bucket starts
+         * @param multiplier fare multiplier, e.g. 1.25
+         */
+        public Builder loadFactorBucket(double minLoadFactor, double multiplier) {
+            if (minLoadFactor < 0 || minLoadFactor > 1) {
+                throw new IllegalArgumentException("Load factor must be between 0 and 1");
+            }
+            requirePositive(multiplier);
+            loadBuckets.add(new double[]{minLoadFactor, multiplier});
+            return this;
+        }
+
+        /**
+         * Applies the multiplier when departure is at most the given time away, unless a closer bucket matches
+         * @param withinDeparture time to departure where the bucket starts
+         * @param multiplier fare multiplier, e.g. 1.5
+         */
+        public Builder timeToDepartureBucket(Duration withinDeparture, double multiplier) {
+            requirePositive(multiplier);
+            timeBuckets.add(new long[]{withinDeparture.toMillis(), Math.round(multiplier * BASIS_POINTS)});
+            return this;
+        }
+
+        public LoadFactorFarePolicy build() {
+            return new LoadFactorFarePolicy(this);
+        }
+
+        private static void requirePositive(double multiplier) {
+            if (multiplier <= 0) {
+                throw new IllegalArgumentException("Fare multiplier must be positive");
+            }
+        }
+    }
+
+    @Override
+    public long fare(long baseFareMinorUnits, int bookedSeats, int capacity, long millisToDeparture) {
+        int loadPercent = capacity <= 0 ? 100 : (int) ((long) bookedSeats * 100 / capacity);
+        long fare = scale(baseFareMinorUnits, loadMultipliers[Math.min(100, Math.max(0, loadPercent))]);
+        for (int i = 0; i < timeThresholdsMillis.length; i++) {
+            if (millisToDeparture <= timeThresholdsMillis[i]) {
+                return scale(fare, timeMultipliers[i]);
+            }
+        }
+        return fare;
+    }
+
+    // rounds half up to the nearest minor unit
+    private static long scale(long amount, int multiplierBasisPoints) {
+        return (Math.multiplyExact(amount, multiplierBasisPoints) + BASIS_POINTS / 2) / BASIS_POINTS;
+    }
+}
@@ -0,0 +1,207 @@
+package flight.reservation.flight;
+
+import java.util.Arrays;
+
+/**
+ * Immutable hash map keyed by primitive {@code int}s, implemented as a hash array mapped trie (HAMT):
+ * every level consumes five bits of the key and stores up to 32 entries or subtries in compact arrays
+ * indexed by a bitmap. A lookup touches at most seven nodes without boxing the key, and an update copies
+ * only the nodes on the path to the key, sharing everything else with the previous version.
+ * <p>
+ * Updates take an edit token like {@link PersistentTreap}; nodes created under the same token are changed
+ * in place by later updates of that edit, so an owned node never shares its value or child array with a node
+ * of another edit. A token must not be reused once the result has been published.
+ * @param <V> value type
+ */
+final class PersistentIntMap<V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(new Node(0, 0, new int[0], new Object[0], new Node[0], null));
+
+    private final Node root;
+
+    // Entries are stored inline where their key chunk is unique, subtries where several keys share it
+    private static final class Node {
+        private final int dataMap;
+        private final int nodeMap;
+        private final int[] keys;
+        private final Object[] values;
+        private final Node[] children;
+        private final Object edit;
+
+        private Node(int dataMap, int nodeMap, int[] keys, Object[] values, Node[] children, Object edit) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.keys = keys;
+            this.values = values;
+            this.children = children;
+            this.edit = edit;
+        }
+
+        private boolean isSingleEntry() {
+            return nodeMap == 0 && keys.length == 1;
+        }
+    }
+
+    private PersistentIntMap(Node root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> PersistentIntMap<V> empty() {
+        return (PersistentIntMap<V>) EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        Node node = root;
+        for (int shift = 0; ; shift += BITS) {
+            int bit = bit(key, shift);
+            if ((node.dataMap & bit) != 0) {
+                int index = index(node.dataMap, bit);
+                return node.keys[index] == key ? (V) node.values[index] : null;
+            }
+            if ((node.nodeMap & bit) == 0) {
+                return null;
+            }
+            node = node.children[index(node.nodeMap, bit)];
+        }
+    }
+
+    /**
+     * Returns a version with the entry added, or its value replaced if the key is present
+     * @param key the key
+     * @param value the value, not null
+     * @param edit token of the current edit
+     * @return the new version
+     */
+    PersistentIntMap<V> put(int key, V value, Object edit) {
+        Node updated = put(root, key, value, 0, edit);
+        return updated == root ? this : new PersistentIntMap<>(updated);
+    }
+
+    /**
+     * Returns a version without the given key
+     * @param key the key
+     * @param edit token of the current edit
+     * @return the new version, or this one if the key is absent
+     */
+    PersistentIntMap<V> remove(int key, Object edit) {
+        if (get(key) == null) {
+            return this;
+        }
+        return new PersistentIntMap<>(remove(root, key, 0, edit));
+    }
+
+    private static Node put(Node node, int key, Object value, int shift, Object edit) {
+        int bit = bit(key, shift);
+        if ((node.dataMap & bit) != 0) {
+            int index = index(node.dataMap, bit);
+            if (node.keys[index] == key) {
+                if (node.edit == edit) {
+                    node.values[index] = value;
+                    return node;
+                }
+                Object[] values = node.values.clone();
+                values[index] = value;
+                return new Node(node.dataMap, node.nodeMap, node.keys, values, node.children.clone(), edit);
+            }
+            // two keys share this chunk: move the existing entry and the new one into a subtrie
+            Node child = pair(node.keys[index], node.values[index], key, value, shift + BITS, edit);
+            int childIndex = index(node.nodeMap, bit);
+            return new Node(node.dataMap ^ bit, node.nodeMap | bit, removeAt(node.keys, index),
+                    removeAt(node.values, index), insertAt(node.children, childIndex, child), edit);
+        }
+        if ((node.nodeMap & bit) != 0) {
+            int index = index(node.nodeMap, bit);
+            Node child = node.children[index];
+            Node updated = put(child, key, value, shift + BITS, edit);
+            return replaceChild(node, index, child, updated, edit);
+        }
+        int index = index(node.dataMap, bit);
+        return new Node(node.dataMap | bit, node.nodeMap, insertAt(node.keys, index, key),
+                insertAt(node.values, index, value), node.children.clone(), edit);
+    }
+
+    private static Node remove(Node node, int key, int shift, Object edit) {
+        int bit = bit(key, shift);
+        if ((node.dataMap & bit) != 0) {
+            int index = index(node.dataMap, bit);
+            return new Node(node.dataMap ^ bit, node.nodeMap, removeAt(node.keys, index),
+                    removeAt(node.values, index), node.children.clone(), edit);
+        }
+        int index = index(node.nodeMap, bit);
+        Node child = node.children[index];
+        Node updated = remove(child, key, shift + BITS, edit);
+        if (updated.isSingleEntry()) {
+            // pull a lone remaining entry back up, so every trie has a single shape per content
+            int dataIndex = index(node.dataMap, bit);
+            return new Node(node.dataMap | bit, node.nodeMap ^ bit, insertAt(node.keys, dataIndex, updated.keys[0]),
+                    insertAt(node.values, dataIndex, updated.values[0]), removeAt(node.children, index), edit);
+        }
+        return replaceChild(node, index, child, updated, edit);
+    }
+
+    private static Node replaceChild(Node node, int index, Node child, Node updated, Object edit) {
+        if (updated == child) {
+            return node;
+        }
+        if (node.edit == edit) {
+            node.children[index] = updated;
+            return node;
+        }
+        Node[] children = node.children.clone();
+        children[index] = updated;
+        return new Node(node.dataMap, node.nodeMap, node.keys, node.values.clone(), children, edit);
+    }
+
+    private static Node pair(int key1, Object value1, int key2, Object value2, int shift, Object edit) {
+        int bit1 = bit(key1, shift);
+        int bit2 = bit(key2, shift);
+        if (bit1 == bit2) {
+            return new Node(0, bit1, new int[0], new Object[0],
+                    new Node[]{pair(key1, value1, key2, value2, shift + BITS, edit)}, edit);
+        }
+        boolean firstLower = Integer.compareUnsigned(bit1, bit2) < 0;
+        return new Node(bit1 | bit2, 0,
+                firstLower ? new int[]{key1, key2} : new int[]{key2, key1},
+                firstLower ? new Object[]{value1, value2} : new Object[]{value2, value1},
+                new Node[0], edit);
+    }
+
+    private static int bit(int key, int shift) {
+        return 1 << ((key >>> shift) & MASK);
+    }
+
+    private static int index(int bitmap, int bit) {
+        return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    private static int[] insertAt(int[] array, int index, int value) {
+        int[] copy = new int[array.length + 1];
+        System.arraycopy(array, 0, copy, 0, index);
+        copy[index] = value;
+        System.arraycopy(array, index, copy, index + 1, array.length - index);
+        return copy;
+    }
+
+    private static <T> T[] insertAt(T[] array, int index, T value) {
+        T[] copy = Arrays.copyOf(array, array.length + 1);
+        System.arraycopy(array, index, copy, index + 1, array.length - index);
+        copy[index] = value;
+        return copy;
+    }
+
+    private static int[] removeAt(int[] array, int index) {
+        int[] copy = new int[array.length - 1];
+        System.arraycopy(array, 0, copy, 0, index);
+        System.arraycopy(array, index + 1, copy, index, array.length - index - 1);
+        return copy;
+    }
+
+    private static <T> T[] removeAt(T[] array, int index) {
+        T[] copy = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, index + 1, copy, index, array.length - index - 1);
+        return copy;
+    }
+}
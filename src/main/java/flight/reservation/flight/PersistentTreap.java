@@ -0,0 +1,265 @@
+package flight.reservation.flight;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable sorted map implemented as a treap with path copying: an update copies only the O(log n) nodes
+ * on the path to the changed key and shares every other node with the previous version, so old versions stay
+ * valid and can be read without locking while new ones are built.
+ * <p>
+ * Updates take an edit token. Nodes created under the same token are owned by that edit and are changed in
+ * place instead of being copied again, which keeps bulk updates as cheap as on a mutable tree. A token must
+ * not be reused once the resulting version has been published to other threads.
+ * <p>
+ * Nodes carry subtree sizes, so the i-th entry is found in O(log n).
+ * @param <K> key type, unique per entry
+ * @param <V> value type
+ */
+final class PersistentTreap<K extends Comparable<? super K>, V> implements Iterable<V> {
+    private static final PersistentTreap<?, ?> EMPTY = new PersistentTreap<>(null);
+
+    private final Node<K, V> root;
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final int priority;
+        private final Object edit;
+        private Node<K, V> left;
+        private Node<K, V> right;
+        private int size;
+
+        private Node(K key, V value, int priority, Object edit, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.priority = priority;
+            this.edit = edit;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + size(left) + size(right);
+        }
+
+        // Returns this node if the edit owns it, otherwise a copy owned by the edit
+        private Node<K, V> editable(Object edit) {
+            return this.edit == edit ? this : new Node<>(key, value, priority, edit, left, right);
+        }
+
+        private Node<K, V> update() {
+            size = 1 + size(left) + size(right);
+            return this;
+        }
+    }
+
+    private PersistentTreap(Node<K, V> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K extends Comparable<? super K>, V> PersistentTreap<K, V> empty() {
+        return (PersistentTreap<K, V>) EMPTY;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Returns a version with the entry added, or its value replaced if the key is present
+     * @param key the key
+     * @param value the value
+     * @param priority heap priority; should be uniformly distributed and fixed per key
+     * @param edit token of the current edit
+     * @return the new version
+     */
+    PersistentTreap<K, V> insert(K key, V value, int priority, Object edit) {
+        return new PersistentTreap<>(insert(root, key, value, priority, edit));
+    }
+
+    /**
+     * Returns a version without the given key
+     * @param key the key
+     * @param edit token of the current edit
+     * @return the new version, or this one if the key is absent
+     */
+    PersistentTreap<K, V> remove(K key, Object edit) {
+        if (get(key) == null) {
+            return this;
+        }
+        return new PersistentTreap<>(remove(root, key, edit));
+    }
+
+    V get(K key) {
+        Node<K, V> node = root;
+        while (node != null) {
+            int comparison = key.compareTo(node.key);
+            if (comparison == 0) {
+                return node.value;
+            }
+            node = comparison < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value at a position in key order
+     * @param index zero-based position
+     * @return the value
+     * @throws IndexOutOfBoundsException if the index is not within [0, size)
+     */
+    V get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(String.format("Index %d out of bounds for size %d", index, size()));
+        }
+        Node<K, V> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.value;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Passes every entry with a key in [from, to) to the consumer, in key order
+     * @param from lowest key (inclusive)
+     * @param to highest key (exclusive)
+     * @param consumer receives key and value of each entry
+     */
+    void forEachInRange(K from, K to, BiConsumer<? super K, ? super V> consumer) {
+        forEachInRange(root, from, to, consumer);
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<V>() {
+            private final ArrayDeque<Node<K, V>> path = new ArrayDeque<>();
+
+            {
+                pushLeft(root);
+            }
+
+            private void pushLeft(Node<K, V> node) {
+                for (; node != null; node = node.left) {
+                    path.push(node);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            public V next() {
+                if (path.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node<K, V> node = path.pop();
+                pushLeft(node.right);
+                return node.value;
+            }
+        };
+    }
+
+    private static int size(Node<?, ?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static <K extends Comparable<? super K>, V> Node<K, V> insert(Node<K, V> node, K key, V value,
+                                                                         int priority, Object edit) {
+        if (node == null) {
+            return new Node<>(key, value, priority, edit, null, null);
+        }
+        int comparison = key.compareTo(node.key);
+        if (comparison == 0) {
+            return new Node<>(key, value, node.priority, edit, node.left, node.right);
+        }
+        Node<K, V> copy = node.editable(edit);
+        if (comparison < 0) {
+            copy.left = insert(copy.left, key, value, priority, edit);
+            if (copy.left.priority > copy.priority) {
+                return rotateRight(copy);
+            }
+        } else {
+            copy.right = insert(copy.right, key, value, priority, edit);
+            if (copy.right.priority > copy.priority) {
+                return rotateLeft(copy);
+            }
+        }
+        return copy.update();
+    }
+
+    // Both rotations only touch nodes the current edit already owns
+    private static <K, V> Node<K, V> rotateRight(Node<K, V> node) {
+        Node<K, V> left = node.left;
+        node.left = left.right;
+        left.right = node.update();
+        return left.update();
+    }
+
+    private static <K, V> Node<K, V> rotateLeft(Node<K, V> node) {
+        Node<K, V> right = node.right;
+        node.right = right.left;
+        right.left = node.update();
+        return right.update();
+    }
+
+    private static <K extends Comparable<? super K>, V> Node<K, V> remove(Node<K, V> node, K key, Object edit) {
+        int comparison = key.compareTo(node.key);
+        if (comparison == 0) {
+            return merge(node.left, node.right, edit);
+        }
+        Node<K, V> copy = node.editable(edit);
+        if (comparison < 0) {
+            copy.left = remove(copy.left, key, edit);
+        } else {
+            copy.right = remove(copy.right, key, edit);
+        }
+        return copy.update();
+    }
+
+    // Joins two treaps where every key of the left one is smaller than every key of the right one
+    private static <K, V> Node<K, V> merge(Node<K, V> left, Node<K, V> right, Object edit) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            Node<K, V> copy = left.editable(edit);
+            copy.right = merge(copy.right, right, edit);
+            return copy.update();
+        }
+        Node<K, V> copy = right.editable(edit);
+        copy.left = merge(left, copy.left, edit);
+        return copy.update();
+    }
+
+    private static <K extends Comparable<? super K>, V> void forEachInRange(Node<K, V> node, K from, K to,
+                                                                           BiConsumer<? super K, ? super V> consumer) {
+        while (node != null) {
+            boolean afterFrom = node.key.compareTo(from) >= 0;
+            boolean beforeTo = node.key.compareTo(to) < 0;
+            if (afterFrom && beforeTo) {
+                forEachInRange(node.left, from, to, consumer);
+                consumer.accept(node.key, node.value);
+                node = node.right;
+            } else {
+                node = afterFrom ? node.left : node.right;
+            }
+        }
+    }
+}
@@ -1,25 +1,74 @@
 package flight.reservation.flight;
 
+import flight.reservation.metrics.LatencyHistogram;
+import flight.reservation.metrics.MetricsRegistry;
+
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds all scheduled flights together with secondary indexes on flight number,
+ * route and departure time, so lookups do not have to scan the whole schedule.
+ * <p>
+ * The flights and indexes form an immutable {@link ScheduleView}; every change builds the next version,
+ * sharing the unchanged parts of the previous one, and publishes it atomically. Searches therefore never
+ * lock and never see a half-applied change, and {@link #snapshot()} gives a consistent view for several
+ * queries in a row. Changes are serialized among each other.
+ */
+public class Schedule implements FlightSchedule {
+    private static final LatencyHistogram ROUTE_SEARCH_LATENCY = MetricsRegistry.getDefault().histogram("search.route");
 
-public class Schedule {
-    private final List<ScheduledFlight> scheduledFlights;
+    private volatile ScheduleView view = ScheduleView.EMPTY;
+    private volatile FarePolicy farePolicy;
+    private final List<ScheduleListener> listeners = new CopyOnWriteArrayList<>();
+    // installed on every flight of this schedule, forwarding its seat and price changes
+    private final ScheduleListener flightListener = this::fireFlightChanged;
+    // shared by the shards of a ShardedSchedule, so scheduling order is comparable across shards
+    private final AtomicLong sequences;
 
     public Schedule() {
-        this.scheduledFlights = new ArrayList<>();
+        this(null);
+    }
+
+    Schedule(AtomicLong sequences) {
+        this.sequences = sequences;
+    }
+
+    /**
+     * Registers a listener for flights being scheduled, removed or changing seats or price
+     * @param listener the listener
+     */
+    @Override
+    public void addListener(ScheduleListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+    }
+
+    @Override
+    public void removeListener(ScheduleListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the current version of the schedule; it does not change when flights are added or removed later
+     * @return the current view
+     */
+    @Override
+    public ScheduleView snapshot() {
+        return view;
     }
 
     /**
-     * Returns an unmodifiable view of the scheduled flights list
+     * Returns an unmodifiable list of the scheduled flights of the current version
      * @return List of scheduled flights
      */
     public List<ScheduledFlight> getScheduledFlights() {
-        return Collections.unmodifiableList(scheduledFlights);
+        return view.getScheduledFlights();
     }
 
     /**
@@ -30,6 +79,18 @@ public class Schedule {
      * @throws NullPointerException if flight or departureTime is null
      */
     public ScheduledFlight scheduleFlight(Flight flight, Date departureTime) {
+        return scheduleFlight(flight, departureTime, null);
+    }
+
+    /**
+     * Creates and adds a new scheduled flight based on a Flight object, departure and arrival time
+     * @param flight The base flight information
+     * @param departureTime The scheduled departure time
+     * @param arrivalTime The scheduled arrival time, or null if unknown
+     * @return The created ScheduledFlight
+     * @throws NullPointerException if flight or departureTime is null
+     */
+    public synchronized ScheduledFlight scheduleFlight(Flight flight, Date departureTime, Date arrivalTime) {
         Objects.requireNonNull(flight, "Flight cannot be null");
         Objects.requireNonNull(departureTime, "Departure time cannot be null");
 
@@ -39,27 +100,66 @@ public class Schedule {
                 .arrival(flight.getArrival())
                 .aircraft(flight.getAircraft())
                 .departureTime(departureTime)
+                .arrivalTime(arrivalTime)
+                .farePolicy(farePolicy)
                 .build();
 
-        scheduledFlights.add(scheduledFlight);
+        view = with(List.of(scheduledFlight));
+        added(scheduledFlight);
         return scheduledFlight;
     }
 
+    /**
+     * Adds already built scheduled flights as one new version, e.g. when loading a stored timetable
+     * @param flights the flights to add
+     * @throws NullPointerException if flights or any of its elements is null
+     */
+    public synchronized void scheduleFlights(Collection<ScheduledFlight> flights) {
+        Objects.requireNonNull(flights, "Flights cannot be null");
+        for (ScheduledFlight scheduledFlight : flights) {
+            Objects.requireNonNull(scheduledFlight, "Scheduled flight cannot be null");
+        }
+        view = with(flights);
+        for (ScheduledFlight scheduledFlight : flights) {
+            added(scheduledFlight);
+        }
+    }
+
+    /**
+     * Sets the fare policy applied to flights scheduled from now on
+     * @param farePolicy the policy, or null for fixed prices
+     */
+    public void setFarePolicy(FarePolicy farePolicy) {
+        this.farePolicy = farePolicy;
+    }
+
+    public FarePolicy getFarePolicy() {
+        return farePolicy;
+    }
+
     /**
      * Removes all scheduled flights matching the given flight's core attributes
      * @param flight The flight to remove
      * @return true if any flights were removed, false otherwise
      * @throws NullPointerException if flight is null
      */
-    public boolean removeFlight(Flight flight) {
+    public synchronized boolean removeFlight(Flight flight) {
         Objects.requireNonNull(flight, "Flight cannot be null");
 
-        return scheduledFlights.removeIf(sf ->
-                sf.getNumber() == flight.getNumber() &&
-                        sf.getDeparture().equals(flight.getDeparture()) &&
-                        sf.getArrival().equals(flight.getArrival()) &&
-                        sf.getAircraft().equals(flight.getAircraft())
-        );
+        List<ScheduledFlight> removed = new ArrayList<>();
+        for (ScheduledFlight sf : view.searchScheduledFlights(flight.getNumber())) {
+            if (sf.getDeparture().equals(flight.getDeparture()) &&
+                    sf.getArrival().equals(flight.getArrival()) &&
+                    sf.getAircraft().equals(flight.getAircraft())) {
+                removed.add(sf);
+            }
+        }
+        if (removed.isEmpty()) {
+            return false;
+        }
+        view = view.without(removed, new Object());
+        removed.forEach(this::removed);
+        return true;
     }
 
     /**
@@ -68,41 +168,134 @@ public class Schedule {
      * @return true if the flight was removed, false if it wasn't in the schedule
      * @throws NullPointerException if scheduledFlight is null
      */
-    public boolean removeScheduledFlight(ScheduledFlight scheduledFlight) {
+    public synchronized boolean removeScheduledFlight(ScheduledFlight scheduledFlight) {
         Objects.requireNonNull(scheduledFlight, "Scheduled flight cannot be null");
-        return scheduledFlights.remove(scheduledFlight);
+
+        ScheduledFlight match = null;
+        for (ScheduledFlight sf : view.searchScheduledFlights(scheduledFlight.getNumber())) {
+            if (sf == scheduledFlight) {
+                match = sf;
+                break;
+            }
+            if (match == null && sf.equals(scheduledFlight)) {
+                match = sf;
+            }
+        }
+        if (match == null) {
+            return false;
+        }
+        view = view.without(List.of(match), new Object());
+        removed(match);
+        return true;
     }
 
     /**
      * Searches for a scheduled flight by flight number
      * @param flightNumber The flight number to search for
-     * @return Optional containing the found ScheduledFlight, or empty if not found
+     * @return Optional containing the first flight scheduled with this number, or empty if not found
      */
+    @Override
     public Optional<ScheduledFlight> searchScheduledFlight(int flightNumber) {
-        return scheduledFlights.stream()
-                .filter(f -> f.getNumber() == flightNumber)
-                .findFirst();
+        return view.searchScheduledFlight(flightNumber);
+    }
+
+    /**
+     * Returns all scheduled flights with the given flight number, in scheduling order
+     * @param flightNumber The flight number to search for
+     * @return List of matching scheduled flights, empty if none
+     */
+    @Override
+    public List<ScheduledFlight> searchScheduledFlights(int flightNumber) {
+        return view.searchScheduledFlights(flightNumber);
+    }
+
+    /**
+     * Returns all scheduled flights on the given route departing within [from, to), ordered by departure time
+     * @param departureCode Code of the departure airport, e.g. BER
+     * @param arrivalCode Code of the arrival airport, e.g. FRA
+     * @param from Earliest departure time (inclusive)
+     * @param to Latest departure time (exclusive)
+     * @return List of matching scheduled flights, empty if none
+     * @throws NullPointerException if any argument is null
+     */
+    @Override
+    public List<ScheduledFlight> searchScheduledFlights(String departureCode, String arrivalCode, Date from, Date to) {
+        long start = System.nanoTime();
+        try {
+            return view.searchScheduledFlights(departureCode, arrivalCode, from, to);
+        } finally {
+            ROUTE_SEARCH_LATENCY.recordSince(start);
+        }
+    }
+
+    /**
+     * Returns all scheduled flights departing within [from, to), ordered by departure time
+     * @param from Earliest departure time (inclusive)
+     * @param to Latest departure time (exclusive)
+     * @return List of matching scheduled flights, empty if none
+     * @throws NullPointerException if from or to is null
+     */
+    public List<ScheduledFlight> searchScheduledFlights(Date from, Date to) {
+        return view.searchScheduledFlights(from, to);
+    }
+
+    /**
+     * Returns all scheduled flights leaving the given airport within [from, to), ordered by departure time
+     * @param departureCode Code of the departure airport, e.g. BER
+     * @param from Earliest departure time (inclusive)
+     * @param to Latest departure time (exclusive)
+     * @return List of matching scheduled flights, empty if none
+     * @throws NullPointerException if any argument is null
+     */
+    @Override
+    public List<ScheduledFlight> searchDepartures(String departureCode, Date from, Date to) {
+        return view.searchDepartures(departureCode, from, to);
     }
 
     /**
      * Clears all scheduled flights
      */
-    public void clear() {
-        scheduledFlights.clear();
+    public synchronized void clear() {
+        ScheduleView cleared = view;
+        view = view.cleared();
+        cleared.getScheduledFlights().forEach(this::removed);
     }
 
     /**
      * Returns the number of scheduled flights
      * @return size of the schedule
      */
+    @Override
     public int size() {
-        return scheduledFlights.size();
+        return view.size();
+    }
+
+    private ScheduleView with(Collection<ScheduledFlight> flights) {
+        // one edit for the whole batch, so index nodes created by it are updated in place
+        Object edit = new Object();
+        return sequences == null ? view.with(flights, edit) : view.with(flights, sequences.getAndAdd(flights.size()), edit);
+    }
+
+    private void added(ScheduledFlight scheduledFlight) {
+        scheduledFlight.setChangeListener(flightListener);
+        fireFlightChanged(scheduledFlight);
+    }
+
+    private void removed(ScheduledFlight scheduledFlight) {
+        scheduledFlight.setChangeListener(null);
+        fireFlightChanged(scheduledFlight);
+    }
+
+    private void fireFlightChanged(ScheduledFlight scheduledFlight) {
+        for (ScheduleListener listener : listeners) {
+            listener.flightChanged(scheduledFlight);
+        }
     }
 
     @Override
     public String toString() {
         return "Schedule{" +
-                "scheduledFlightsCount=" + scheduledFlights.size() +
+                "scheduledFlightsCount=" + size() +
                 '}';
     }
 
@@ -111,11 +304,11 @@ public class Schedule {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Schedule schedule = (Schedule) o;
-        return scheduledFlights.equals(schedule.scheduledFlights);
+        return getScheduledFlights().equals(schedule.getScheduledFlights());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(scheduledFlights);
+        return Objects.hash(getScheduledFlights());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package flight.reservation.flight;
+
+/**
+ * Receives changes of the flights of a {@link Schedule}, e.g. to invalidate cached search results.
+ * Called on the thread making the change, so implementations should return quickly.
+ */
+@FunctionalInterface
+public interface ScheduleListener {
+
+    /**
+     * Called after a flight was scheduled or removed, or its seats or price changed
+     * @param flight the changed flight
+     */
+    void flightChanged(ScheduledFlight flight);
+}
@@ -0,0 +1,363 @@
+package flight.reservation.flight;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Immutable point-in-time version of a {@link Schedule}. Every change to a schedule publishes a new view
+ * that shares all unchanged index nodes with the previous one, so a view can be searched by any number of
+ * threads without locking and always shows the flights of exactly one version.
+ * <p>
+ * Obtain the current view with {@link Schedule#snapshot()} to run several queries against the same version.
+ */
+public final class ScheduleView implements DepartureIndex {
+    static final ScheduleView EMPTY = new ScheduleView(0, 0,
+            PersistentTreap.empty(), PersistentIntMap.empty(), PersistentIntMap.empty(), PersistentTreap.empty(),
+            PersistentTreap.empty(), PersistentTreap.empty());
+
+    private static final String NONE = "";
+
+    private final long version;
+    private final long nextSequence;
+    // every index is keyed by FlightKey; the sequence number keeps keys unique and equal times in scheduling order
+    private final PersistentTreap<FlightKey, ScheduledFlight> bySequence;
+    // hash indexes, so number lookups and removals do not walk a tree or scan flights sharing a number
+    private final PersistentIntMap<NumberEntry> byNumber;
+    private final PersistentIntMap<SequenceEntry> byIdentity;
+    private final PersistentTreap<FlightKey, ScheduledFlight> byDepartureTime;
+    private final PersistentTreap<FlightKey, ScheduledFlight> byRoute;
+    private final PersistentTreap<FlightKey, ScheduledFlight> byDepartureAirport;
+
+    private ScheduleView(long version, long nextSequence,
+                         PersistentTreap<FlightKey, ScheduledFlight> bySequence,
+                         PersistentIntMap<NumberEntry> byNumber,
+                         PersistentIntMap<SequenceEntry> byIdentity,
+                         PersistentTreap<FlightKey, ScheduledFlight> byDepartureTime,
+                         PersistentTreap<FlightKey, ScheduledFlight> byRoute,
+                         PersistentTreap<FlightKey, ScheduledFlight> byDepartureAirport) {
+        this.version = version;
+        this.nextSequence = nextSequence;
+        this.bySequence = bySequence;
+        this.byNumber = byNumber;
+        this.byIdentity = byIdentity;
+        this.byDepartureTime = byDepartureTime;
+        this.byRoute = byRoute;
+        this.byDepartureAirport = byDepartureAirport;
+    }
+
+    // Index key ordered by first, second, value and finally the scheduling sequence number
+    private static final class FlightKey implements Comparable<FlightKey> {
+        private final String first;
+        private final String second;
+        private final long value;
+        private final long sequence;
+
+        private FlightKey(String first, String second, long value, long sequence) {
+            this.first = first;
+            this.second = second;
+            this.value = value;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(FlightKey other) {
+            int comparison = first.compareTo(other.first);
+            if (comparison == 0) {
+                comparison = second.compareTo(other.second);
+            }
+            if (comparison == 0) {
+                comparison = Long.compare(value, other.value);
+            }
+            return comparison != 0 ? comparison : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    // Flights sharing a flight number keyed by sequence, and the one scheduled first
+    private static final class NumberEntry {
+        private final PersistentTreap<FlightKey, ScheduledFlight> flights;
+        private final ScheduledFlight first;
+
+        private NumberEntry(PersistentTreap<FlightKey, ScheduledFlight> flights, ScheduledFlight first) {
+            this.flights = flights;
+            this.first = first;
+        }
+    }
+
+    // Sequence numbers of the flights sharing an identity hash code, newest first
+    private static final class SequenceEntry {
+        private final ScheduledFlight flight;
+        private final long sequence;
+        private final SequenceEntry next;
+
+        private SequenceEntry(ScheduledFlight flight, long sequence, SequenceEntry next) {
+            this.flight = flight;
+            this.sequence = sequence;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Returns the version number; it grows by one with every change to the schedule
+     * @return the version of this view
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the scheduled flights in scheduling order
+     * @return an immutable list of the flights of this version
+     */
+    public List<ScheduledFlight> getScheduledFlights() {
+        return new AbstractList<ScheduledFlight>() {
+            @Override
+            public ScheduledFlight get(int index) {
+                return bySequence.get(index);
+            }
+
+            @Override
+            public Iterator<ScheduledFlight> iterator() {
+                return bySequence.iterator();
+            }
+
+            @Override
+            public int size() {
+                return bySequence.size();
+            }
+        };
+    }
+
+    public int size() {
+        return bySequence.size();
+    }
+
+    /**
+     * Searches for a scheduled flight by flight number
+     * @param flightNumber The flight number to search for
+     * @return Optional containing the first flight scheduled with this number, or empty if not found
+     */
+    public Optional<ScheduledFlight> searchScheduledFlight(int flightNumber) {
+        NumberEntry entry = byNumber.get(flightNumber);
+        return entry == null ? Optional.empty() : Optional.of(entry.first);
+    }
+
+    /**
+     * Returns all scheduled flights with the given flight number, in scheduling order
+     * @param flightNumber The flight number to search for
+     * @return List of matching scheduled flights, empty if none
+     */
+    public List<ScheduledFlight> searchScheduledFlights(int flightNumber) {
+        NumberEntry entry = byNumber.get(flightNumber);
+        if (entry == null) {
+            return Collections.emptyList();
+        }
+        List<ScheduledFlight> result = new ArrayList<>(entry.flights.size());
+        entry.flights.iterator().forEachRemaining(result::add);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Returns all scheduled flights on the given route departing within [from, to), ordered by departure time
+     * @param departureCode Code of the departure airport, e.g. BER
+     * @param arrivalCode Code of the arrival airport, e.g. FRA
+     * @param from Earliest departure time (inclusive)
+     * @param to Latest departure time (exclusive)
+     * @return List of matching scheduled flights, empty if none
+     * @throws NullPointerException if any argument is null
+     */
+    public List<ScheduledFlight> searchScheduledFlights(String departureCode, String arrivalCode, Date from, Date to) {
+        Objects.requireNonNull(departureCode, "Departure code cannot be null");
+        Objects.requireNonNull(arrivalCode, "Arrival code cannot be null");
+        return collectRange(byRoute, departureCode, arrivalCode, from, to);
+    }
+
+    /**
+     * Returns all scheduled flights departing within [from, to), ordered by departure time
+     * @param from Earliest departure time (inclusive)
+     * @param to Latest departure time (exclusive)
+     * @return List of matching scheduled flights, empty if none
+     * @throws NullPointerException if from or to is null
+     */
+    public List<ScheduledFlight> searchScheduledFlights(Date from, Date to) {
+        return collectRange(byDepartureTime, NONE, NONE, from, to);
+    }
+
+    /**
+     * Returns all scheduled flights leaving the given airport within [from, to), ordered by departure time
+     * @param departureCode Code of the departure airport, e.g. BER
+     * @param from Earliest departure time (inclusive)
+     * @param to Latest departure time (exclusive)
+     * @return List of matching scheduled flights, empty if none
+     * @throws NullPointerException if any argument is null
+     */
+    @Override
+    public List<ScheduledFlight> searchDepartures(String departureCode, Date from, Date to) {
+        Objects.requireNonNull(departureCode, "Departure code cannot be null");
+        return collectRange(byDepartureAirport, departureCode, NONE, from, to);
+    }
+
+    /**
+     * Returns the next version with the given flights added
+     * @param flights flights to add
+     * @param edit token owned by this change only
+     */
+    ScheduleView with(Iterable<ScheduledFlight> flights, Object edit) {
+        return with(flights, nextSequence, edit);
+    }
+
+    /**
+     * Returns the next version with the given flights added, numbered from the given sequence on
+     * @param flights flights to add
+     * @param firstSequence sequence number of the first flight, not below that of any earlier flight
+     * @param edit token owned by this change only
+     */
+    ScheduleView with(Iterable<ScheduledFlight> flights, long firstSequence, Object edit) {
+        if (firstSequence < nextSequence) {
+            throw new IllegalArgumentException("Sequence numbers must grow");
+        }
+        long sequence = firstSequence;
+        PersistentTreap<FlightKey, ScheduledFlight> bySequence = this.bySequence;
+        PersistentIntMap<NumberEntry> byNumber = this.byNumber;
+        PersistentIntMap<SequenceEntry> byIdentity = this.byIdentity;
+        PersistentTreap<FlightKey, ScheduledFlight> byDepartureTime = this.byDepartureTime;
+        PersistentTreap<FlightKey, ScheduledFlight> byRoute = this.byRoute;
+        PersistentTreap<FlightKey, ScheduledFlight> byDepartureAirport = this.byDepartureAirport;
+        for (ScheduledFlight flight : flights) {
+            int priority = priority(sequence);
+            long departure = flight.getDepartureTimeMillis();
+            String departureCode = flight.getDeparture().getCode();
+            bySequence = bySequence.insert(new FlightKey(NONE, NONE, 0, sequence), flight, priority, edit);
+            FlightKey sequenceKey = new FlightKey(NONE, NONE, 0, sequence);
+            NumberEntry entry = byNumber.get(flight.getNumber());
+            // a new sequence is the highest so far, so the first flight of an existing number stays first
+            byNumber = byNumber.put(flight.getNumber(), entry == null
+                    ? new NumberEntry(PersistentTreap.<FlightKey, ScheduledFlight>empty().insert(sequenceKey, flight, priority, edit), flight)
+                    : new NumberEntry(entry.flights.insert(sequenceKey, flight, priority, edit), entry.first), edit);
+            int identity = System.identityHashCode(flight);
+            byIdentity = byIdentity.put(identity, new SequenceEntry(flight, sequence, byIdentity.get(identity)), edit);
+            byDepartureTime = byDepartureTime.insert(new FlightKey(NONE, NONE, departure, sequence), flight, priority, edit);
+            byRoute = byRoute.insert(new FlightKey(departureCode, flight.getArrival().getCode(), departure, sequence),
+                    flight, priority, edit);
+            byDepartureAirport = byDepartureAirport.insert(new FlightKey(departureCode, NONE, departure, sequence),
+                    flight, priority, edit);
+            sequence++;
+        }
+        return new ScheduleView(version + 1, sequence, bySequence, byNumber, byIdentity, byDepartureTime, byRoute,
+                byDepartureAirport);
+    }
+
+    /**
+     * Returns the scheduling sequence number of a flight, ordering flights across views sharing a sequence
+     * @param flight a flight of this version, matched by identity
+     * @return the sequence number of its earliest scheduling, or -1 if it is not in this version
+     */
+    long sequenceOf(ScheduledFlight flight) {
+        SequenceEntry entry = firstScheduled(byIdentity.get(System.identityHashCode(flight)), flight);
+        return entry == null ? -1 : entry.sequence;
+    }
+
+    /**
+     * Returns the next version without the given flights, matched by identity
+     * @param flights flights to remove; flights not in this version are ignored
+     * @param edit token owned by this change only
+     */
+    ScheduleView without(List<ScheduledFlight> flights, Object edit) {
+        PersistentTreap<FlightKey, ScheduledFlight> bySequence = this.bySequence;
+        PersistentIntMap<NumberEntry> byNumber = this.byNumber;
+        PersistentIntMap<SequenceEntry> byIdentity = this.byIdentity;
+        PersistentTreap<FlightKey, ScheduledFlight> byDepartureTime = this.byDepartureTime;
+        PersistentTreap<FlightKey, ScheduledFlight> byRoute = this.byRoute;
+        PersistentTreap<FlightKey, ScheduledFlight> byDepartureAirport = this.byDepartureAirport;
+        for (ScheduledFlight flight : flights) {
+            int identity = System.identityHashCode(flight);
+            SequenceEntry sequences = byIdentity.get(identity);
+            SequenceEntry found = firstScheduled(sequences, flight);
+            if (found == null) {
+                continue;
+            }
+            long sequence = found.sequence;
+            SequenceEntry remaining = without(sequences, found);
+            byIdentity = remaining == null ? byIdentity.remove(identity, edit) : byIdentity.put(identity, remaining, edit);
+            FlightKey sequenceKey = new FlightKey(NONE, NONE, 0, sequence);
+            NumberEntry entry = byNumber.get(flight.getNumber());
+            PersistentTreap<FlightKey, ScheduledFlight> numbered = entry.flights.remove(sequenceKey, edit);
+            byNumber = numbered.isEmpty() ? byNumber.remove(flight.getNumber(), edit)
+                    : byNumber.put(flight.getNumber(), new NumberEntry(numbered, numbered.get(0)), edit);
+            long departure = flight.getDepartureTimeMillis();
+            String departureCode = flight.getDeparture().getCode();
+            bySequence = bySequence.remove(sequenceKey, edit);
+            byDepartureTime = byDepartureTime.remove(new FlightKey(NONE, NONE, departure, sequence), edit);
+            byRoute = byRoute.remove(new FlightKey(departureCode, flight.getArrival().getCode(), departure, sequence), edit);
+            byDepartureAirport = byDepartureAirport.remove(new FlightKey(departureCode, NONE, departure, sequence), edit);
+        }
+        return new ScheduleView(version + 1, nextSequence, bySequence, byNumber, byIdentity, byDepartureTime, byRoute,
+                byDepartureAirport);
+    }
+
+    /**
+     * Returns the next version without any flights
+     */
+    ScheduleView cleared() {
+        return new ScheduleView(version + 1, nextSequence, PersistentTreap.empty(), PersistentIntMap.empty(),
+                PersistentIntMap.empty(), PersistentTreap.empty(), PersistentTreap.empty(), PersistentTreap.empty());
+    }
+
+    // Finds the earliest scheduled entry of this exact flight instance, or null if it is not in the chain
+    private static SequenceEntry firstScheduled(SequenceEntry sequences, ScheduledFlight flight) {
+        SequenceEntry found = null;
+        for (SequenceEntry entry = sequences; entry != null; entry = entry.next) {
+            if (entry.flight == flight) {
+                found = entry;
+            }
+        }
+        return found;
+    }
+
+    // Copies the chain up to the removed entry and shares the rest
+    private static SequenceEntry without(SequenceEntry sequences, SequenceEntry removed) {
+        if (sequences == removed) {
+            return removed.next;
+        }
+        return new SequenceEntry(sequences.flight, sequences.sequence, without(sequences.next, removed));
+    }
+
+    // Spreads sequence numbers over the int range (SplitMix64 finalizer) so the treaps stay balanced
+    private static int priority(long sequence) {
+        long z = sequence + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (int) (z ^ (z >>> 31));
+    }
+
+    private static List<ScheduledFlight> collectRange(PersistentTreap<FlightKey, ScheduledFlight> index,
+                                                      String first, String second, Date from, Date to) {
+        Objects.requireNonNull(from, "From time cannot be null");
+        Objects.requireNonNull(to, "To time cannot be null");
+        if (!from.before(to)) {
+            return Collections.emptyList();
+        }
+        return collect(index, first, second, from.getTime(), to.getTime());
+    }
+
+    private static List<ScheduledFlight> collect(PersistentTreap<FlightKey, ScheduledFlight> index,
+                                                 String first, String second, long from, long to) {
+        List<ScheduledFlight> result = new ArrayList<>();
+        index.forEachInRange(new FlightKey(first, second, from, Long.MIN_VALUE),
+                new FlightKey(first, second, to, Long.MIN_VALUE), (key, flight) -> result.add(flight));
+        return result.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduleView{" +
+                "version=" + version +
+                ", scheduledFlightsCount=" + size() +
+                '}';
+    }
+}
@@ -1,44 +1,84 @@
 package flight.reservation.flight;
 
 import flight.reservation.Airport;
+import flight.reservation.Money;
 import flight.reservation.Passenger;
 import flight.reservation.plane.Aircraft;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Currency;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class ScheduledFlight extends Flight {
     private final Date departureTime;
-    private final List<Passenger> passengers;
-    private double currentPrice;
+    private final Date arrivalTime;
+    private final Queue<Passenger> passengers;
+    private final SeatInventory seatInventory;
+    private final Currency currency;
+    private final FarePolicy farePolicy;
+    private volatile long baseFareMinorUnits;
+    // cached result of the fare policy, recomputed on every seat change
+    private volatile long currentPriceMinorUnits;
+    // created on first use, so schedules with many flights only pay for the seat maps they need
+    private volatile SeatMap seatMap;
+    // seat of every booked passenger on the seat map
+    private final Map<Passenger, String> seats = new ConcurrentHashMap<>();
+    // notified after every seat or price change; set by the schedule holding this flight
+    private volatile ScheduleListener changeListener;
 
     // Private constructor used by builder
     private ScheduledFlight(Builder builder) {
         super(builder);
         this.departureTime = builder.departureTime;
-        this.passengers = new ArrayList<>();
-        this.currentPrice = builder.currentPrice;
+        this.arrivalTime = builder.arrivalTime == null ? builder.departureTime : builder.arrivalTime;
+        this.passengers = new ConcurrentLinkedQueue<>();
+        this.seatInventory = new SeatInventory(getAircraft().getPassengerCapacity());
+        Objects.requireNonNull(builder.currentPrice, "Current price cannot be null");
+        this.currency = builder.currentPrice.getCurrency();
+        this.baseFareMinorUnits = builder.currentPrice.getMinorUnits();
+        this.farePolicy = builder.farePolicy;
         validateScheduledFlight();
+        reprice();
     }
 
     // Builder class
     public static class Builder extends Flight.Builder {
         private Date departureTime;
-        private double currentPrice = 100.0;
+        private Date arrivalTime;
+        private Money currentPrice = Money.of(100.0);
+        private FarePolicy farePolicy;
 
         public Builder departureTime(Date departureTime) {
             this.departureTime = departureTime;
             return this;
         }
 
-        public Builder currentPrice(double currentPrice) {
+        // Optional, defaults to the departure time
+        public Builder arrivalTime(Date arrivalTime) {
+            this.arrivalTime = arrivalTime;
+            return this;
+        }
+
+        // Base fare; the current price equals it unless a fare policy is set
+        public Builder currentPrice(Money currentPrice) {
             this.currentPrice = currentPrice;
             return this;
         }
 
+        public Builder farePolicy(FarePolicy farePolicy) {
+            this.farePolicy = farePolicy;
+            return this;
+        }
+
         @Override
         public Builder number(int number) {
             super.number(number);
@@ -70,26 +110,185 @@ public class ScheduledFlight extends Flight {
 
     private void validateScheduledFlight() {
         Objects.requireNonNull(departureTime, "Departure time cannot be null");
-        if (currentPrice < 0) {
+        if (arrivalTime.before(departureTime)) {
+            throw new IllegalArgumentException("Arrival time cannot be before departure time");
+        }
+        if (baseFareMinorUnits < 0) {
             throw new IllegalArgumentException("Current price cannot be negative");
         }
     }
 
+    /**
+     * Recomputes the current price from the fare policy. Called on every seat change; call it
+     * periodically as well if the policy depends on the time to departure.
+     */
+    public void reprice() {
+        if (farePolicy == null) {
+            currentPriceMinorUnits = baseFareMinorUnits;
+        } else {
+            // A concurrent seat change may publish its price first; recompute until the
+            // price we wrote matches the seat count it was computed from.
+            while (true) {
+                int booked = seatInventory.getReserved();
+                long base = baseFareMinorUnits;
+                currentPriceMinorUnits = farePolicy.fare(base, booked, seatInventory.getCapacity(),
+                        departureTime.getTime() - System.currentTimeMillis());
+                if (booked == seatInventory.getReserved() && base == baseFareMinorUnits) {
+                    break;
+                }
+            }
+        }
+        ScheduleListener listener = changeListener;
+        if (listener != null) {
+            listener.flightChanged(this);
+        }
+    }
+
+    void setChangeListener(ScheduleListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Books the given passengers on this flight and assigns each a seat. Seats are reserved atomically,
+     * so concurrent callers can never exceed the passenger capacity.
+     * @param passengersToAdd passengers to book
+     * @throws IllegalStateException if not enough seats are available
+     */
     public void addPassengers(List<Passenger> passengersToAdd) {
         Objects.requireNonNull(passengersToAdd, "Passengers list cannot be null");
-        int availableCapacity = getAircraft().getPassengerCapacity() - passengers.size();
-        if (passengersToAdd.size() > availableCapacity) {
+        List<String> assigned = tryReserveSeats(passengersToAdd.size());
+        if (assigned == null) {
             throw new IllegalStateException(
                     String.format("Cannot add %d passengers. Only %d seats available",
-                            passengersToAdd.size(), availableCapacity)
+                            passengersToAdd.size(), seatInventory.getAvailable())
             );
         }
-        this.passengers.addAll(passengersToAdd);
+        commitPassengers(passengersToAdd, assigned);
+    }
+
+    /**
+     * Reserves seats in the seat count and on the seat map, next to each other if possible
+     * @param count number of seats
+     * @return the held seats, or null if not enough are free; nothing is reserved in that case
+     */
+    List<String> tryReserveSeats(int count) {
+        return tryReserveSeats(count, Collections.emptyList());
+    }
+
+    /**
+     * Reserves seats like {@link #tryReserveSeats(int)}, holding the requested seats where they are still free
+     * @param count number of seats
+     * @param requested requested seat per position, e.g. from a stored booking; missing, empty, unknown or taken
+     *                  seats are replaced by free ones
+     * @return the held seats, in the order of the requested ones, or null if not enough are free
+     */
+    List<String> tryReserveSeats(int count, List<String> requested) {
+        if (!seatInventory.tryReserve(count)) {
+            return null;
+        }
+        List<String> assigned = requested.isEmpty() ? holdSeats(count) : holdSeats(count, requested);
+        if (assigned == null) {
+            seatInventory.release(count);
+            return null;
+        }
+        reprice();
+        return assigned;
+    }
+
+    void releaseSeats(List<String> assigned) {
+        SeatMap map = getSeatMap();
+        assigned.forEach(map::release);
+        seatInventory.release(assigned.size());
+        reprice();
+    }
+
+    // Only valid after the matching seats were reserved with tryReserveSeats, one seat per passenger
+    void commitPassengers(List<Passenger> reservedPassengers, List<String> assigned) {
+        for (int i = 0; i < reservedPassengers.size(); i++) {
+            seats.put(reservedPassengers.get(i), assigned.get(i));
+        }
+        this.passengers.addAll(reservedPassengers);
     }
 
+    /**
+     * Removes booked passengers, returning their seats to the seat count and the seat map
+     * @param passengersToRemove passengers to remove; passengers not booked on this flight are ignored
+     */
     public void removePassengers(List<Passenger> passengersToRemove) {
         Objects.requireNonNull(passengersToRemove, "Passengers list cannot be null");
-        this.passengers.removeAll(passengersToRemove);
+        SeatMap map = getSeatMap();
+        int removed = 0;
+        for (Passenger passenger : passengersToRemove) {
+            if (this.passengers.remove(passenger)) {
+                removed++;
+                String seat = seats.remove(passenger);
+                if (seat != null) {
+                    map.release(seat);
+                }
+            }
+        }
+        seatInventory.release(removed);
+        reprice();
+    }
+
+    /**
+     * @param passenger a passenger booked on this flight
+     * @return the passenger's seat, e.g. "12C", or empty if the passenger is not booked
+     */
+    public Optional<String> getSeat(Passenger passenger) {
+        return Optional.ofNullable(seats.get(passenger));
+    }
+
+    // Prefers one adjacent group; otherwise takes the frontmost free seats one by one
+    private List<String> holdSeats(int count) {
+        SeatMap map = getSeatMap();
+        Optional<List<String>> adjacent = map.assignAdjacent(count);
+        if (adjacent.isPresent()) {
+            return adjacent.get();
+        }
+        List<String> assigned = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Optional<List<String>> seat = map.assignAdjacent(1);
+            if (seat.isEmpty()) {
+                assigned.forEach(map::release);
+                return null;
+            }
+            assigned.addAll(seat.get());
+        }
+        return assigned;
+    }
+
+    // Holds the requested seats that are free and fills the other positions with holdSeats
+    private List<String> holdSeats(int count, List<String> requested) {
+        SeatMap map = getSeatMap();
+        List<String> assigned = new ArrayList<>(count);
+        int missing = 0;
+        for (int i = 0; i < count; i++) {
+            String seat = i < requested.size() ? requested.get(i) : "";
+            if (!seat.isEmpty() && holdIfExists(map, seat)) {
+                assigned.add(seat);
+            } else {
+                assigned.add(null);
+                missing++;
+            }
+        }
+        List<String> others = missing == 0 ? Collections.emptyList() : holdSeats(missing);
+        if (others == null) {
+            assigned.stream().filter(Objects::nonNull).forEach(map::release);
+            return null;
+        }
+        Iterator<String> free = others.iterator();
+        assigned.replaceAll(seat -> seat != null ? seat : free.next());
+        return assigned;
+    }
+
+    // A stored seat may not exist any more, e.g. if the flight is now operated by another aircraft
+    private static boolean holdIfExists(SeatMap map, String seat) {
+        try {
+            return map.hold(seat);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
     }
 
     public int getPassengerCapacity() {
@@ -101,51 +300,107 @@ public class ScheduledFlight extends Flight {
     }
 
     public int getAvailableCapacity() {
-        return getPassengerCapacity() - passengers.size();
+        return seatInventory.getAvailable();
+    }
+
+    /**
+     * Returns the seat assignment of this flight, laid out like the aircraft's cabin.
+     * Every booked passenger holds one seat on it; seats held directly, e.g. blocked for crew, cannot be booked.
+     * @return the seat map
+     */
+    public SeatMap getSeatMap() {
+        SeatMap map = seatMap;
+        if (map == null) {
+            synchronized (this) {
+                map = seatMap;
+                if (map == null) {
+                    map = new SeatMap(getAircraft().getSeatLayout());
+                    seatMap = map;
+                }
+            }
+        }
+        return map;
     }
 
     public Date getDepartureTime() {
         return new Date(departureTime.getTime()); // Return defensive copy
     }
 
+    public Date getArrivalTime() {
+        return new Date(arrivalTime.getTime()); // Return defensive copy
+    }
+
+    public long getDepartureTimeMillis() {
+        return departureTime.getTime();
+    }
+
+    public long getArrivalTimeMillis() {
+        return arrivalTime.getTime();
+    }
+
     public List<Passenger> getPassengers() {
-        return Collections.unmodifiableList(passengers); // Return unmodifiable view
+        return Collections.unmodifiableList(new ArrayList<>(passengers)); // Return unmodifiable snapshot
+    }
+
+    public Money getCurrentPrice() {
+        return Money.ofMinor(currentPriceMinorUnits, currency);
     }
 
-    public double getCurrentPrice() {
-        return currentPrice;
+    // Allocation-free read of the current price, in minor units of getCurrency()
+    public long getCurrentPriceMinorUnits() {
+        return currentPriceMinorUnits;
     }
 
-    public void setCurrentPrice(double currentPrice) {
-        if (currentPrice < 0) {
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public Money getBaseFare() {
+        return Money.ofMinor(baseFareMinorUnits, currency);
+    }
+
+    /**
+     * Sets the base fare and reprices the flight
+     * @param currentPrice the new base fare, in the flight's currency
+     */
+    public void setCurrentPrice(Money currentPrice) {
+        Objects.requireNonNull(currentPrice, "Price cannot be null");
+        currentPrice.requireCurrency(currency);
+        if (currentPrice.isNegative()) {
             throw new IllegalArgumentException("Price cannot be negative");
         }
-        this.currentPrice = currentPrice;
+        this.baseFareMinorUnits = currentPrice.getMinorUnits();
+        reprice();
+    }
+
+    public FarePolicy getFarePolicy() {
+        return farePolicy;
     }
 
     @Override
     public String toString() {
-        return String.format("%s [Time: %s, Price: $%.2f, Passengers: %d/%d]",
+        return String.format("%s [Time: %s, Price: %s, Passengers: %d/%d]",
                 super.toString(),
                 departureTime,
-                currentPrice,
-                passengers.size(),
+                getCurrentPrice(),
+                seatInventory.getReserved(),
                 getPassengerCapacity());
     }
 
+    // Only immutable fields take part, so bookings and repricing never change a flight's hash code
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof ScheduledFlight)) return false;
         if (!super.equals(o)) return false;
         ScheduledFlight that = (ScheduledFlight) o;
-        return Double.compare(that.currentPrice, currentPrice) == 0 &&
+        return currency.equals(that.currency) &&
                 departureTime.equals(that.departureTime) &&
-                passengers.equals(that.passengers);
+                arrivalTime.equals(that.arrivalTime);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), departureTime, passengers, currentPrice);
+        return Objects.hash(super.hashCode(), departureTime, arrivalTime, currency);
     }
 }
\ No newline at end of file
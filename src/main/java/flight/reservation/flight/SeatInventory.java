@@ -0,0 +1,77 @@
+package flight.reservation.flight;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free seat counter for a single scheduled flight.
+ * Seats are reserved with a compare-and-set on the remaining capacity, so concurrent
+ * bookings never oversell and never block each other on a monitor.
+ */
+public class SeatInventory {
+    private final int capacity;
+    private final AtomicInteger remaining;
+
+    public SeatInventory(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        this.capacity = capacity;
+        this.remaining = new AtomicInteger(capacity);
+    }
+
+    /**
+     * Atomically reserves the given number of seats
+     * @param seats number of seats to reserve
+     * @return true if the seats were reserved, false if not enough seats are left
+     * @throws IllegalArgumentException if seats is negative
+     */
+    public boolean tryReserve(int seats) {
+        if (seats < 0) {
+            throw new IllegalArgumentException("Number of seats cannot be negative");
+        }
+        while (true) {
+            int current = remaining.get();
+            if (current < seats) {
+                return false;
+            }
+            if (remaining.compareAndSet(current, current - seats)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns previously reserved seats to the inventory
+     * @param seats number of seats to release
+     * @throws IllegalStateException if more seats are released than were reserved
+     */
+    public void release(int seats) {
+        if (seats < 0) {
+            throw new IllegalArgumentException("Number of seats cannot be negative");
+        }
+        while (true) {
+            int current = remaining.get();
+            if (current + seats > capacity) {
+                throw new IllegalStateException(
+                        String.format("Cannot release %d seats. Only %d seats are reserved",
+                                seats, capacity - current)
+                );
+            }
+            if (remaining.compareAndSet(current, current + seats)) {
+                return;
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getAvailable() {
+        return remaining.get();
+    }
+
+    public int getReserved() {
+        return capacity - remaining.get();
+    }
+}
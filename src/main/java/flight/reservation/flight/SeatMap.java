@@ -0,0 +1,201 @@
+package flight.reservation.flight;
+
+import flight.reservation.plane.SeatLayout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free seat assignment for a single scheduled flight.
+ * Every row is one long whose bits mark held seats, column 0 being the leftmost seat, so a 500 seat
+ * cabin needs 50 longs instead of one object per seat. Seats are held with a compare-and-set on their
+ * row, so concurrent assignments never give the same seat away twice.
+ * <p>
+ * Seats are named by row number and letter, e.g. "12C". Letters skip 'I' to avoid confusion with row 1.
+ */
+public class SeatMap {
+    private static final String SEAT_LETTERS = "ABCDEFGHJKLMNOPQRSTUVWXYZ";
+
+    private final SeatLayout layout;
+    private final int seatsPerRow;
+    private final long[] blockMasks;
+    private final AtomicLongArray rows;
+
+    public SeatMap(SeatLayout layout) {
+        if (layout.getSeatsPerRow() > SEAT_LETTERS.length()) {
+            throw new IllegalArgumentException(
+                    String.format("Seat maps support at most %d seats per row", SEAT_LETTERS.length()));
+        }
+        this.layout = layout;
+        this.seatsPerRow = layout.getSeatsPerRow();
+        int[] blocks = layout.getBlocks();
+        this.blockMasks = new long[blocks.length];
+        int column = 0;
+        for (int i = 0; i < blocks.length; i++) {
+            blockMasks[i] = ((1L << blocks[i]) - 1) << column;
+            column += blocks[i];
+        }
+        this.rows = new AtomicLongArray(layout.getRows());
+    }
+
+    /**
+     * Holds a specific seat
+     * @param seat the seat name, e.g. "12C"
+     * @return true if the seat was held, false if it is already taken
+     * @throws IllegalArgumentException if the seat does not exist
+     */
+    public boolean hold(String seat) {
+        int index = indexOf(seat);
+        int row = index / seatsPerRow;
+        long bit = 1L << (index % seatsPerRow);
+        while (true) {
+            long current = rows.get(row);
+            if ((current & bit) != 0) {
+                return false;
+            }
+            if (rows.compareAndSet(row, current, current | bit)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a held seat
+     * @param seat the seat name
+     * @throws IllegalStateException if the seat is not held
+     */
+    public void release(String seat) {
+        int index = indexOf(seat);
+        int row = index / seatsPerRow;
+        long bit = 1L << (index % seatsPerRow);
+        while (true) {
+            long current = rows.get(row);
+            if ((current & bit) == 0) {
+                throw new IllegalStateException(String.format("Seat %s is not held", seat));
+            }
+            if (rows.compareAndSet(row, current, current & ~bit)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Holds the frontmost group of seats sitting next to each other. A group within one block is preferred;
+     * only if no row has one, a group spanning an aisle is taken.
+     * @param count number of seats
+     * @return the held seats from left to right, or empty if no row has enough adjacent free seats
+     */
+    public Optional<List<String>> assignAdjacent(int count) {
+        if (count <= 0 || count > seatsPerRow) {
+            return count == 0 ? Optional.of(Collections.emptyList()) : Optional.empty();
+        }
+        Optional<List<String>> withinBlock = assignAdjacent(count, true);
+        return withinBlock.isPresent() ? withinBlock : assignAdjacent(count, false);
+    }
+
+    private Optional<List<String>> assignAdjacent(int count, boolean withinBlock) {
+        long runMask = (1L << count) - 1;
+        long starts = withinBlock ? blockStarts(count) : rowStarts(count);
+        for (int row = 0; row < rows.length(); row++) {
+            long usable = usableMask(row);
+            while (true) {
+                long current = rows.get(row);
+                long free = ~current & usable;
+                // bit i is set if seats i .. i + count - 1 are all free
+                long candidates = free & starts;
+                for (int shift = 1; shift < count && candidates != 0; shift++) {
+                    candidates &= free >>> shift;
+                }
+                if (candidates == 0) {
+                    break;
+                }
+                int start = Long.numberOfTrailingZeros(candidates);
+                if (rows.compareAndSet(row, current, current | (runMask << start))) {
+                    List<String> seats = new ArrayList<>(count);
+                    for (int column = start; column < start + count; column++) {
+                        seats.add(seatName(row, column));
+                    }
+                    return Optional.of(seats);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean isHeld(String seat) {
+        int index = indexOf(seat);
+        return (rows.get(index / seatsPerRow) & (1L << (index % seatsPerRow))) != 0;
+    }
+
+    public int getCapacity() {
+        return layout.getCapacity();
+    }
+
+    public int getAvailable() {
+        int held = 0;
+        for (int row = 0; row < rows.length(); row++) {
+            held += Long.bitCount(rows.get(row));
+        }
+        return layout.getCapacity() - held;
+    }
+
+    public SeatLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * @return the names of all seats that are still free, front to back
+     */
+    public List<String> getAvailableSeats() {
+        List<String> seats = new ArrayList<>();
+        for (int row = 0; row < rows.length(); row++) {
+            long free = ~rows.get(row) & usableMask(row);
+            while (free != 0) {
+                seats.add(seatName(row, Long.numberOfTrailingZeros(free)));
+                free &= free - 1;
+            }
+        }
+        return seats;
+    }
+
+    private long usableMask(int row) {
+        return (1L << layout.getSeatsInRow(row)) - 1;
+    }
+
+    // start columns from which count seats fit into a single block
+    private long blockStarts(int count) {
+        long starts = 0;
+        for (long block : blockMasks) {
+            starts |= block & (block >>> (count - 1));
+        }
+        return starts;
+    }
+
+    private long rowStarts(int count) {
+        return (1L << (seatsPerRow - count + 1)) - 1;
+    }
+
+    private static String seatName(int row, int column) {
+        return (row + 1) + String.valueOf(SEAT_LETTERS.charAt(column));
+    }
+
+    private int indexOf(String seat) {
+        if (seat == null || seat.length() < 2) {
+            throw new IllegalArgumentException(String.format("Seat '%s' does not exist", seat));
+        }
+        int column = SEAT_LETTERS.indexOf(Character.toUpperCase(seat.charAt(seat.length() - 1)));
+        int row;
+        try {
+            row = Integer.parseInt(seat.substring(0, seat.length() - 1)) - 1;
+        } catch (NumberFormatException e) {
+            row = -1;
+        }
+        if (row < 0 || row >= rows.length() || column < 0 || column >= layout.getSeatsInRow(row)) {
+            throw new IllegalArgumentException(String.format("Seat '%s' does not exist", seat));
+        }
+        return row * seatsPerRow + column;
+    }
+}
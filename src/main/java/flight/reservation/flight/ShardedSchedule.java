@@ -0,0 +1,288 @@
+package flight.reservation.flight;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schedule partitioned by departure airport into independent {@link Schedule} shards. Each shard serializes
+ * only its own changes, so flights leaving different airports are scheduled in parallel, and searches for
+ * one departure airport or route touch a single shard.
+ * <p>
+ * Searches that are not bound to a departure airport, by flight number or by departure time window, fan out
+ * to every shard and merge the results; all shards draw from one sequence counter, so flight number searches
+ * keep the scheduling order of a single schedule. Each shard's part of such a result comes from one version
+ * of that shard; shards are not versioned together. An itinerary search follows its connections from shard
+ * to shard through {@link #snapshot()}.
+ */
+public class ShardedSchedule implements FlightSchedule {
+    private final Schedule[] shards;
+
+    /**
+     * @param shardCount number of shards
+     * @throws IllegalArgumentException if the shard count is not positive
+     */
+    public ShardedSchedule(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        this.shards = new Schedule[shardCount];
+        AtomicLong sequences = new AtomicLong();
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Schedule(sequences);
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Returns the shard holding all flights that leave the given airport
+     * @param departureCode Code of the departure airport, e.g. BER
+     * @return the shard
+     */
+    public Schedule getShard(String departureCode) {
+        return shards[shardIndex(departureCode)];
+    }
+
+    /**
+     * Creates and adds a new scheduled flight on the shard of its departure airport
+     * @param flight The base flight information
+     * @param departureTime The scheduled departure time
+     * @param arrivalTime The scheduled arrival time, or null if unknown
+     * @return The created ScheduledFlight
+     * @throws NullPointerException if flight or departureTime is null
+     */
+    public ScheduledFlight scheduleFlight(Flight flight, Date departureTime, Date arrivalTime) {
+        Objects.requireNonNull(flight, "Flight cannot be null");
+        return shardOf(flight).scheduleFlight(flight, departureTime, arrivalTime);
+    }
+
+    public ScheduledFlight scheduleFlight(Flight flight, Date departureTime) {
+        return scheduleFlight(flight, departureTime, null);
+    }
+
+    /**
+     * Adds already built scheduled flights, as one change per shard
+     * @param flights the flights to add
+     * @throws NullPointerException if flights or any of its elements is null
+     */
+    public void scheduleFlights(Collection<ScheduledFlight> flights) {
+        Objects.requireNonNull(flights, "Flights cannot be null");
+        List<List<ScheduledFlight>> byShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            byShard.add(new ArrayList<>());
+        }
+        for (ScheduledFlight flight : flights) {
+            Objects.requireNonNull(flight, "Scheduled flight cannot be null");
+            byShard.get(shardIndex(flight.getDeparture().getCode())).add(flight);
+        }
+        for (int i = 0; i < shards.length; i++) {
+            if (!byShard.get(i).isEmpty()) {
+                shards[i].scheduleFlights(byShard.get(i));
+            }
+        }
+    }
+
+    /**
+     * Sets the fare policy of every shard
+     * @param farePolicy the policy, or null for fixed prices
+     */
+    public void setFarePolicy(FarePolicy farePolicy) {
+        for (Schedule shard : shards) {
+            shard.setFarePolicy(farePolicy);
+        }
+    }
+
+    /**
+     * Registers a listener with every shard
+     * @param listener the listener
+     */
+    @Override
+    public void addListener(ScheduleListener listener) {
+        for (Schedule shard : shards) {
+            shard.addListener(listener);
+        }
+    }
+
+    @Override
+    public void removeListener(ScheduleListener listener) {
+        for (Schedule shard : shards) {
+            shard.removeListener(listener);
+        }
+    }
+
+    public boolean removeFlight(Flight flight) {
+        Objects.requireNonNull(flight, "Flight cannot be null");
+        return shardOf(flight).removeFlight(flight);
+    }
+
+    public boolean removeScheduledFlight(ScheduledFlight scheduledFlight) {
+        Objects.requireNonNull(scheduledFlight, "Scheduled flight cannot be null");
+        return shardOf(scheduledFlight).removeScheduledFlight(scheduledFlight);
+    }
+
+    /**
+     * Searches all shards for a scheduled flight by flight number
+     * @param flightNumber The flight number to search for
+     * @return Optional containing the first flight scheduled with this number, or empty if not found
+     */
+    @Override
+    public Optional<ScheduledFlight> searchScheduledFlight(int flightNumber) {
+        ScheduledFlight first = null;
+        long firstSequence = Long.MAX_VALUE;
+        for (Schedule shard : shards) {
+            ScheduleView view = shard.snapshot();
+            Optional<ScheduledFlight> found = view.searchScheduledFlight(flightNumber);
+            if (found.isPresent() && view.sequenceOf(found.get()) < firstSequence) {
+                first = found.get();
+                firstSequence = view.sequenceOf(first);
+            }
+        }
+        return Optional.ofNullable(first);
+    }
+
+    /**
+     * Returns all scheduled flights with the given flight number from every shard
+     * @param flightNumber The flight number to search for
+     * @return List of matching scheduled flights in scheduling order, empty if none
+     */
+    @Override
+    public List<ScheduledFlight> searchScheduledFlights(int flightNumber) {
+        ScheduleView[] views = views();
+        List<ScheduledFlight> result = new ArrayList<>();
+        for (ScheduleView view : views) {
+            result.addAll(view.searchScheduledFlights(flightNumber));
+        }
+        result.sort(Comparator.comparingLong(flight -> views[shardIndex(flight.getDeparture().getCode())].sequenceOf(flight)));
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Returns all scheduled flights on the given route departing within [from, to), from the departure shard only
+     * @param departureCode Code of the departure airport, e.g. BER
+     * @param arrivalCode Code of the arrival airport, e.g. FRA
+     * @param from Earliest departure time (inclusive)
+     * @param to Latest departure time (exclusive)
+     * @return List of matching scheduled flights ordered by departure time, empty if none
+     * @throws NullPointerException if any argument is null
+     */
+    @Override
+    public List<ScheduledFlight> searchScheduledFlights(String departureCode, String arrivalCode, Date from, Date to) {
+        return getShard(departureCode).searchScheduledFlights(departureCode, arrivalCode, from, to);
+    }
+
+    /**
+     * Returns all scheduled flights leaving the given airport within [from, to), from its shard only
+     * @param departureCode Code of the departure airport, e.g. BER
+     * @param from Earliest departure time (inclusive)
+     * @param to Latest departure time (exclusive)
+     * @return List of matching scheduled flights ordered by departure time, empty if none
+     * @throws NullPointerException if any argument is null
+     */
+    @Override
+    public List<ScheduledFlight> searchDepartures(String departureCode, Date from, Date to) {
+        return getShard(departureCode).searchDepartures(departureCode, from, to);
+    }
+
+    /**
+     * Returns the current version of every shard as one departure index, e.g. for an itinerary search
+     * whose connections leave from airports on different shards
+     * @return departure searches routed to the shard versions current at this call
+     */
+    @Override
+    public DepartureIndex snapshot() {
+        ScheduleView[] views = views();
+        return (departureCode, from, to) -> views[shardIndex(departureCode)].searchDepartures(departureCode, from, to);
+    }
+
+    /**
+     * Returns all scheduled flights departing within [from, to) from every shard, merged by departure time
+     * @param from Earliest departure time (inclusive)
+     * @param to Latest departure time (exclusive)
+     * @return List of matching scheduled flights ordered by departure time, empty if none
+     * @throws NullPointerException if from or to is null
+     */
+    public List<ScheduledFlight> searchScheduledFlights(Date from, Date to) {
+        List<List<ScheduledFlight>> parts = new ArrayList<>(shards.length);
+        int total = 0;
+        for (Schedule shard : shards) {
+            List<ScheduledFlight> part = shard.searchScheduledFlights(from, to);
+            if (!part.isEmpty()) {
+                parts.add(part);
+                total += part.size();
+            }
+        }
+        if (parts.size() <= 1) {
+            return parts.isEmpty() ? Collections.emptyList() : parts.get(0);
+        }
+        return Collections.unmodifiableList(merge(parts, total));
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Schedule shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Schedule shard : shards) {
+            shard.clear();
+        }
+    }
+
+    private ScheduleView[] views() {
+        ScheduleView[] views = new ScheduleView[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            views[i] = shards[i].snapshot();
+        }
+        return views;
+    }
+
+    private Schedule shardOf(Flight flight) {
+        return getShard(flight.getDeparture().getCode());
+    }
+
+    private int shardIndex(String departureCode) {
+        Objects.requireNonNull(departureCode, "Departure code cannot be null");
+        return Math.floorMod(departureCode.hashCode(), shards.length);
+    }
+
+    // k-way merge of lists that are each sorted by departure time
+    private static List<ScheduledFlight> merge(List<List<ScheduledFlight>> parts, int total) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(parts.size(), Comparator.comparingLong(
+                (int[] head) -> parts.get(head[0]).get(head[1]).getDepartureTimeMillis()).thenComparingInt(head -> head[0]));
+        for (int i = 0; i < parts.size(); i++) {
+            heads.add(new int[]{i, 0});
+        }
+        List<ScheduledFlight> merged = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<ScheduledFlight> part = parts.get(head[0]);
+            merged.add(part.get(head[1]));
+            if (++head[1] < part.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedSchedule{" +
+                "shardCount=" + shards.length +
+                ", scheduledFlightsCount=" + size() +
+                '}';
+    }
+}
@@ -0,0 +1,37 @@
+package flight.reservation.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free event counter; concurrent increments go to separate cells instead of contending on one value.
+ */
+public final class Counter implements CounterMXBean {
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s count=%d", name, getCount());
+    }
+}
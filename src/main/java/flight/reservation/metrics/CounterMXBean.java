@@ -0,0 +1,9 @@
+package flight.reservation.metrics;
+
+/**
+ * JMX view of a {@link Counter}.
+ */
+public interface CounterMXBean {
+
+    long getCount();
+}
@@ -0,0 +1,21 @@
+package flight.reservation.metrics;
+
+/**
+ * JMX view of a {@link LatencyHistogram}; all latencies are in nanoseconds.
+ */
+public interface LatencyHistogramMXBean {
+
+    long getCount();
+
+    double getMeanNanos();
+
+    long getMaxNanos();
+
+    long getP50Nanos();
+
+    long getP90Nanos();
+
+    long getP99Nanos();
+
+    long getP999Nanos();
+}
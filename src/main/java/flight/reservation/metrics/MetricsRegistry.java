@@ -0,0 +1,150 @@
+package flight.reservation.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Named counters and latency histograms of the booking, search, validation and payment paths.
+ * <p>
+ * Instrumented classes look their metrics up once and keep them in static fields; recording is lock-free.
+ * Metrics are exported as MXBeans named {@code <domain>:type=Counter|Histogram,name=<name>} to every
+ * {@link MBeanServer} passed to {@link #exportTo}, including metrics created after the export.
+ */
+public class MetricsRegistry {
+    public static final String DEFAULT_DOMAIN = "flight.reservation";
+
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final List<Export> exports = new CopyOnWriteArrayList<>();
+
+    private static final class Export {
+        private final MBeanServer server;
+        private final String domain;
+
+        private Export(MBeanServer server, String domain) {
+            this.server = server;
+            this.domain = domain;
+        }
+    }
+
+    private static final class Holder {
+        private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+    }
+
+    /**
+     * Returns the registry the application classes record into
+     * @return the process-wide registry
+     */
+    public static MetricsRegistry getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * Returns the counter with the given name, creating it on first use
+     * @param name dot-separated metric name, e.g. "payment.failed"
+     * @return the counter
+     */
+    public Counter counter(String name) {
+        Counter counter = counters.get(validate(name));
+        if (counter != null) {
+            return counter;
+        }
+        Counter created = new Counter(name);
+        counter = counters.putIfAbsent(name, created);
+        if (counter != null) {
+            return counter;
+        }
+        for (Export export : exports) {
+            register(export, "Counter", name, created);
+        }
+        return created;
+    }
+
+    /**
+     * Returns the latency histogram with the given name, creating it on first use
+     * @param name dot-separated metric name, e.g. "booking.createOrder"
+     * @return the histogram
+     */
+    public LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(validate(name));
+        if (histogram != null) {
+            return histogram;
+        }
+        LatencyHistogram created = new LatencyHistogram(name);
+        histogram = histograms.putIfAbsent(name, created);
+        if (histogram != null) {
+            return histogram;
+        }
+        for (Export export : exports) {
+            register(export, "Histogram", name, created);
+        }
+        return created;
+    }
+
+    public Map<String, Counter> getCounters() {
+        return new TreeMap<>(counters);
+    }
+
+    public Map<String, LatencyHistogram> getHistograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    /**
+     * Registers all current and future metrics with an MBean server
+     * @param server e.g. {@link java.lang.management.ManagementFactory#getPlatformMBeanServer()}
+     * @param domain domain of the object names
+     */
+    public void exportTo(MBeanServer server, String domain) {
+        Export export = new Export(Objects.requireNonNull(server, "Server cannot be null"),
+                Objects.requireNonNull(domain, "Domain cannot be null"));
+        exports.add(export);
+        counters.forEach((name, counter) -> register(export, "Counter", name, counter));
+        histograms.forEach((name, histogram) -> register(export, "Histogram", name, histogram));
+    }
+
+    public void exportTo(MBeanServer server) {
+        exportTo(server, DEFAULT_DOMAIN);
+    }
+
+    /**
+     * Formats every metric on its own line, counters first, each group sorted by name
+     * @return the text report
+     */
+    public String dump() {
+        StringBuilder report = new StringBuilder();
+        for (Counter counter : getCounters().values()) {
+            report.append(counter).append(System.lineSeparator());
+        }
+        for (LatencyHistogram histogram : getHistograms().values()) {
+            report.append(histogram).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    private static void register(Export export, String type, String name, Object metric) {
+        try {
+            ObjectName objectName = new ObjectName(export.domain, new Hashtable<>(Map.of("type", type, "name", name)));
+            export.server.registerMBean(metric, objectName);
+        } catch (InstanceAlreadyExistsException e) {
+            // registered concurrently by exportTo and the creation of the metric
+        } catch (JMException e) {
+            throw new IllegalStateException(String.format("Cannot export metric %s", name), e);
+        }
+    }
+
+    private static String validate(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Metric name cannot be empty");
+        }
+        return name;
+    }
+}
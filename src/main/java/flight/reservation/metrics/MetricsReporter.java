@@ -0,0 +1,94 @@
+package flight.reservation.metrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Periodically writes the text dump of a {@link MetricsRegistry}, e.g. to the console of the booking server.
+ */
+public class MetricsReporter implements AutoCloseable {
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    private final MetricsRegistry registry;
+    private final long periodMillis;
+    private final Consumer<String> output;
+    private volatile Thread reporter;
+
+    private MetricsReporter(Builder builder) {
+        if (builder.period.isNegative() || builder.period.isZero()) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        this.registry = Objects.requireNonNull(builder.registry, "Registry cannot be null");
+        this.periodMillis = builder.period.toMillis();
+        this.output = Objects.requireNonNull(builder.output, "Output cannot be null");
+    }
+
+    public static class Builder {
+        private MetricsRegistry registry = MetricsRegistry.getDefault();
+        private Duration period = Duration.ofMinutes(1);
+        private Consumer<String> output = System.out::print;
+
+        public Builder registry(MetricsRegistry registry) {
+            this.registry = registry;
+            return this;
+        }
+
+        public Builder period(Duration period) {
+            this.period = period;
+            return this;
+        }
+
+        // Receives each report, a header line with the current time followed by one line per metric
+        public Builder output(Consumer<String> output) {
+            this.output = output;
+            return this;
+        }
+
+        public MetricsReporter build() {
+            return new MetricsReporter(this);
+        }
+    }
+
+    /**
+     * Writes one report now
+     */
+    public void report() {
+        output.accept(String.format("# metrics at %s%n%s", Instant.now(), registry.dump()));
+    }
+
+    /**
+     * Starts a daemon thread writing a report once per period
+     * @return this reporter
+     */
+    public synchronized MetricsReporter start() {
+        if (reporter == null) {
+            Thread thread = new Thread(this::run, "metrics-reporter-" + INSTANCES.incrementAndGet());
+            thread.setDaemon(true);
+            thread.start();
+            reporter = thread;
+        }
+        return this;
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(periodMillis);
+                report();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (reporter != null) {
+            reporter.interrupt();
+            reporter = null;
+        }
+    }
+}
@@ -1,31 +1,73 @@
 package flight.reservation.order;
 
 import flight.reservation.Customer;
+import flight.reservation.Passenger;
 import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.metrics.Counter;
+import flight.reservation.metrics.LatencyHistogram;
+import flight.reservation.metrics.MetricsRegistry;
+import flight.reservation.payment.AsyncPaymentStrategy;
 import flight.reservation.payment.PaymentStrategy;
+import flight.reservation.screening.NoFlyListScreening;
+import flight.reservation.screening.ScreeningService;
 
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public class FlightOrder extends Order {
+    private static final LatencyHistogram PAYMENT_LATENCY = MetricsRegistry.getDefault().histogram("payment.processOrder");
+    private static final Counter PAYMENTS_SUCCEEDED = MetricsRegistry.getDefault().counter("payment.succeeded");
+    private static final Counter PAYMENTS_FAILED = MetricsRegistry.getDefault().counter("payment.failed");
+
     private final List<ScheduledFlight> flights;
     private PaymentStrategy paymentStrategy;
     private Customer customer;
-    static List<String> noFlyList = Arrays.asList("Peter", "Johannes");
+    private static volatile ScreeningService screeningService = NoFlyListScreening.of("Peter", "Johannes");
+    // cancels the pending seat hold expiry, set by SeatHoldManager
+    private volatile Runnable seatHoldCancellation;
 
     public FlightOrder(List<ScheduledFlight> flights, Customer customer) {
         this.flights = flights;
         this.customer = customer;
     }
 
-    public static List<String> getNoFlyList() {
-        return noFlyList;
+    /**
+     * Recreates an order under a known id, e.g. when restoring persisted orders
+     * @param id the original order id
+     * @param flights the booked flights
+     * @param customer the customer who placed the order
+     */
+    public FlightOrder(UUID id, List<ScheduledFlight> flights, Customer customer) {
+        super(id);
+        this.flights = flights;
+        this.customer = customer;
+    }
+
+    public static ScreeningService getScreeningService() {
+        return screeningService;
+    }
+
+    public static void setScreeningService(ScreeningService screeningService) {
+        FlightOrder.screeningService = Objects.requireNonNull(screeningService, "Screening service cannot be null");
     }
 
     public void setPaymentStrategy(PaymentStrategy paymentStrategy) {
         this.paymentStrategy = paymentStrategy;
     }
 
+    public List<ScheduledFlight> getFlights() {
+        return Collections.unmodifiableList(flights);
+    }
+
+    /**
+     * Pays the order and closes it on success
+     * @return true if the order is paid
+     * @throws IllegalStateException if no payment strategy is set, the order is already being paid
+     * or its seat hold has expired
+     */
     public boolean processOrder() {
         if (isClosed()) {
             return true;
@@ -33,13 +75,99 @@ public class FlightOrder extends Order {
         if (paymentStrategy == null) {
             throw new IllegalStateException("Payment strategy not set.");
         }
-        boolean isPaid = paymentStrategy.pay(this.getPrice());
-        if (isPaid) {
-            this.setClosed();
+        if (!beginPayment()) {
+            return true;
+        }
+        boolean isPaid;
+        long start = System.nanoTime();
+        try {
+            isPaid = paymentStrategy.pay(this.getPrice());
+        } catch (RuntimeException e) {
+            finishPayment(false);
+            throw e;
+        } finally {
+            PAYMENT_LATENCY.recordSince(start);
         }
+        finishPayment(isPaid);
         return isPaid;
     }
 
+    /**
+     * Pays the order without blocking the caller. The order is closed once the payment succeeded.
+     * @param asyncPayment the asynchronous payment to use, e.g. from an AsyncPaymentProcessor
+     * @return future completing with true if the order is paid
+     */
+    public CompletableFuture<Boolean> processOrderAsync(AsyncPaymentStrategy asyncPayment) {
+        if (isClosed()) {
+            return CompletableFuture.completedFuture(true);
+        }
+        Objects.requireNonNull(asyncPayment, "Payment strategy cannot be null");
+        if (!beginPayment()) {
+            return CompletableFuture.completedFuture(true);
+        }
+        CompletableFuture<Boolean> payment;
+        try {
+            payment = asyncPayment.payAsync(this.getPrice());
+        } catch (RuntimeException e) {
+            finishPayment(false);
+            throw e;
+        }
+        return payment.whenComplete((isPaid, error) -> finishPayment(error == null && isPaid));
+    }
+
+    // Moves the order to PAYING; returns false if it is already closed
+    private boolean beginPayment() {
+        while (true) {
+            switch (getState()) {
+                case OPEN:
+                    if (transition(OrderState.OPEN, OrderState.PAYING)) {
+                        return true;
+                    }
+                    break;
+                case CLOSED:
+                    return false;
+                case PAYING:
+                    throw new IllegalStateException("Order is already being paid.");
+                case EXPIRED:
+                default:
+                    throw new IllegalStateException("Order has expired and its seats were released.");
+            }
+        }
+    }
+
+    private void finishPayment(boolean isPaid) {
+        if (isPaid) {
+            PAYMENTS_SUCCEEDED.increment();
+            transition(OrderState.PAYING, OrderState.CLOSED);
+            Runnable cancellation = seatHoldCancellation;
+            if (cancellation != null) {
+                cancellation.run();
+            }
+        } else {
+            PAYMENTS_FAILED.increment();
+            transition(OrderState.PAYING, OrderState.OPEN);
+        }
+    }
+
+    void setSeatHoldCancellation(Runnable seatHoldCancellation) {
+        this.seatHoldCancellation = seatHoldCancellation;
+    }
+
+    /**
+     * Expires an unpaid order and returns its passengers' seats to the flights
+     * @return true if the order was open and has expired, false if it is being paid or already closed
+     */
+    boolean expire() {
+        if (!transition(OrderState.OPEN, OrderState.EXPIRED)) {
+            return false;
+        }
+        List<Passenger> passengers = getPassengers();
+        if (passengers != null) {
+            flights.forEach(flight -> flight.removePassengers(passengers));
+        }
+        return true;
+    }
+
     public Customer getCustomer() {
         return customer;
     }
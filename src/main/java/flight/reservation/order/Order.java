@@ -1,33 +1,75 @@
 package flight.reservation.order;
 
 import flight.reservation.Customer;
+import flight.reservation.Money;
 import flight.reservation.Passenger;
 
+import java.util.Currency;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 public class Order {
+    private static final AtomicReferenceFieldUpdater<Order, OrderState> STATE =
+            AtomicReferenceFieldUpdater.newUpdater(Order.class, OrderState.class, "state");
 
     private final UUID id;
-    private double price;
-    private boolean isClosed = false;
+    private long priceMinorUnits;
+    private Currency currency = Money.DEFAULT_CURRENCY;
+    private volatile OrderState state = OrderState.OPEN;
     private Customer customer;
     private List<Passenger> passengers;
 
     public Order() {
-        this.id = UUID.randomUUID();
+        this(UUID.randomUUID());
+    }
+
+    // Used to restore a persisted order under its original id
+    protected Order(UUID id) {
+        this.id = Objects.requireNonNull(id, "Order id cannot be null");
     }
 
     public UUID getId() {
         return id;
     }
 
-    public double getPrice() {
-        return price;
+    public Money getPrice() {
+        return Money.ofMinor(priceMinorUnits, currency);
+    }
+
+    public void setPrice(Money price) {
+        Objects.requireNonNull(price, "Price cannot be null");
+        this.priceMinorUnits = price.getMinorUnits();
+        this.currency = price.getCurrency();
+    }
+
+    public long getPriceMinorUnits() {
+        return priceMinorUnits;
     }
 
-    public void setPrice(double price) {
-        this.price = price;
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Sums the prices of the given orders without allocating per order
+     * @param orders orders to sum up
+     * @param currency currency all orders must be priced in
+     * @return the exact total revenue
+     * @throws IllegalArgumentException if an order is priced in another currency
+     * @throws ArithmeticException if the total overflows
+     */
+    public static Money totalRevenue(Iterable<? extends Order> orders, Currency currency) {
+        long total = 0;
+        for (Order order : orders) {
+            if (!order.currency.equals(currency)) {
+                throw new IllegalArgumentException(
+                        String.format("Order %s is priced in %s, expected %s", order.id, order.currency, currency));
+            }
+            total = Math.addExact(total, order.priceMinorUnits);
+        }
+        return Money.ofMinor(total, currency);
     }
 
     public Customer getCustomer() {
@@ -47,11 +89,25 @@ public class Order {
     }
 
     public boolean isClosed() {
-        return isClosed;
+        return state == OrderState.CLOSED;
     }
 
     public void setClosed() {
-        isClosed = true;
+        state = OrderState.CLOSED;
+    }
+
+    public OrderState getState() {
+        return state;
+    }
+
+    /**
+     * Atomically moves the order from one state to another
+     * @param expected the state the order must currently be in
+     * @param next the new state
+     * @return true if the order was in the expected state and has been moved
+     */
+    protected boolean transition(OrderState expected, OrderState next) {
+        return STATE.compareAndSet(this, expected, next);
     }
 
 }
@@ -0,0 +1,12 @@
+package flight.reservation.order;
+
+/**
+ * Lifecycle of an order. An order starts OPEN, is PAYING while a payment is in flight and ends either
+ * CLOSED once paid or EXPIRED when its seat hold ran out first.
+ */
+public enum OrderState {
+    OPEN,
+    PAYING,
+    CLOSED,
+    EXPIRED
+}
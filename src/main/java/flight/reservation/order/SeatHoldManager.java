@@ -0,0 +1,168 @@
+package flight.reservation.order;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds the seats of new orders for a limited time. An order that is not paid before its hold runs out
+ * expires and its passengers are removed from the flights, returning the seats to sale.
+ * <p>
+ * Pending holds live in a {@link TimingWheel}, so each hold costs one small node and O(1) work to add,
+ * cancel or expire, instead of a scheduled task per order. Expiry runs on a daemon thread once
+ * {@link #start()} is called, or on demand through {@link #expireHolds()}.
+ */
+public class SeatHoldManager implements AutoCloseable {
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    private final long holdMillis;
+    private final long tickMillis;
+    private final LongSupplier clock;
+    private final Consumer<FlightOrder> expiryListener;
+    private final TimingWheel<FlightOrder> wheel;
+    private final AtomicLong expiredOrders = new AtomicLong();
+    private volatile Thread ticker;
+
+    private SeatHoldManager(Builder builder) {
+        Objects.requireNonNull(builder.clock, "Clock cannot be null");
+        if (builder.holdTime.isNegative() || builder.holdTime.isZero() || builder.tick.isNegative() || builder.tick.isZero()) {
+            throw new IllegalArgumentException("Hold time and tick must be positive");
+        }
+        this.holdMillis = builder.holdTime.toMillis();
+        this.tickMillis = builder.tick.toMillis();
+        this.clock = builder.clock;
+        this.expiryListener = Objects.requireNonNull(builder.expiryListener, "Expiry listener cannot be null");
+        this.wheel = new TimingWheel<>(tickMillis, clock.getAsLong());
+    }
+
+    public static class Builder {
+        private Duration holdTime = Duration.ofMinutes(15);
+        private Duration tick = Duration.ofMillis(100);
+        private LongSupplier clock = System::currentTimeMillis;
+        private Consumer<FlightOrder> expiryListener = order -> {
+        };
+
+        public Builder holdTime(Duration holdTime) {
+            this.holdTime = holdTime;
+            return this;
+        }
+
+        // Granularity of expiry; holds expire at most one tick late
+        public Builder tick(Duration tick) {
+            this.tick = tick;
+            return this;
+        }
+
+        // Source of the current time in epoch milliseconds
+        public Builder clock(LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        // Called after an order expired and its seats were released, e.g. to persist the change
+        public Builder onExpiry(Consumer<FlightOrder> expiryListener) {
+            this.expiryListener = expiryListener;
+            return this;
+        }
+
+        public SeatHoldManager build() {
+            return new SeatHoldManager(this);
+        }
+    }
+
+    /**
+     * Starts holding the seats of an order; the hold is released when the order is paid
+     * @param order a newly created order
+     */
+    public void hold(FlightOrder order) {
+        Objects.requireNonNull(order, "Order cannot be null");
+        schedule(order, clock.getAsLong() + holdMillis);
+    }
+
+    private void schedule(FlightOrder order, long deadlineMillis) {
+        TimingWheel.Timeout<FlightOrder> timeout;
+        synchronized (wheel) {
+            timeout = wheel.add(order, deadlineMillis);
+        }
+        order.setSeatHoldCancellation(() -> {
+            synchronized (wheel) {
+                wheel.cancel(timeout);
+            }
+        });
+    }
+
+    /**
+     * Expires every order whose hold has run out
+     * @return number of orders that expired
+     */
+    public int expireHolds() {
+        long now = clock.getAsLong();
+        List<FlightOrder> due = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(now, due::add);
+        }
+        int expired = 0;
+        for (FlightOrder order : due) {
+            if (order.expire()) {
+                expired++;
+                expiryListener.accept(order);
+            } else if (order.getState() == OrderState.PAYING) {
+                // the payment may still fail, so check again one tick later
+                schedule(order, now + tickMillis);
+            }
+        }
+        expiredOrders.addAndGet(expired);
+        return expired;
+    }
+
+    public int getPendingHolds() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    public long getExpiredOrders() {
+        return expiredOrders.get();
+    }
+
+    /**
+     * Starts a daemon thread expiring holds once per tick
+     * @return this manager
+     */
+    public synchronized SeatHoldManager start() {
+        if (ticker == null) {
+            Thread thread = new Thread(this::tick, "seat-hold-expiry-" + INSTANCES.incrementAndGet());
+            thread.setDaemon(true);
+            thread.start();
+            ticker = thread;
+        }
+        return this;
+    }
+
+    private void tick() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(tickMillis);
+                expireHolds();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops the expiry thread; pending holds are kept and no longer expire automatically
+     */
+    @Override
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.interrupt();
+            ticker = null;
+        }
+    }
+}
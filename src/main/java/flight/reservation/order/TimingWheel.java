@@ -0,0 +1,172 @@
+package flight.reservation.order;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical hashed timing wheel. Level 0 has one slot per tick; every further level has slots spanning
+ * a whole rotation of the level below. Timeouts are inserted into the coarsest slot that fits and moved
+ * down a level when the wheel reaches that slot, so insertion, cancellation and expiry are O(1) per timeout
+ * no matter how many are pending.
+ * <p>
+ * Not thread-safe; callers synchronize.
+ */
+final class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final Timeout<T>[][] slots;
+    private long currentTick;
+    private int size;
+
+    /**
+     * A pending timeout, linked into the slot it is waiting in
+     */
+    static final class Timeout<T> {
+        private final T value;
+        private final long deadlineTick;
+        private Timeout<T>[] level;
+        private int slot = -1;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+
+        private Timeout(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+
+        T getValue() {
+            return value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = (Timeout<T>[][]) new Timeout<?>[LEVELS][SLOTS];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules a value to expire at the given time; times in the past expire on the next tick
+     * @param value the value handed to the expiry callback
+     * @param deadlineMillis expiry time in epoch milliseconds
+     * @return handle to cancel the timeout
+     */
+    Timeout<T> add(T value, long deadlineMillis) {
+        long deadlineTick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        Timeout<T> timeout = new Timeout<>(value, deadlineTick);
+        insert(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * @param timeout a handle returned by add
+     * @return true if the timeout was pending and is now cancelled
+     */
+    boolean cancel(Timeout<T> timeout) {
+        if (timeout.slot < 0) {
+            return false;
+        }
+        unlink(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward, expiring every timeout whose deadline has passed
+     * @param nowMillis the current time in epoch milliseconds
+     * @param expired receives the value of every expired timeout, in deadline order
+     */
+    void advance(long nowMillis, Consumer<T> expired) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                currentTick = targetTick;
+                return;
+            }
+            long tick = currentTick + 1;
+            // cascaded timeouts are placed relative to the tick being processed, so none lands back in
+            // the coarser slot that was just emptied
+            currentTick = tick;
+            // cascade coarser levels whose slot starts at this tick, coarsest first
+            for (int level = LEVELS - 1; level > 0; level--) {
+                long mask = (1L << (SLOT_BITS * level)) - 1;
+                if ((tick & mask) == 0) {
+                    Timeout<T> timeout = detachSlot(level, (int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1)));
+                    while (timeout != null) {
+                        Timeout<T> next = timeout.next;
+                        timeout.next = null;
+                        insert(timeout);
+                        timeout = next;
+                    }
+                }
+            }
+            Timeout<T> timeout = detachSlot(0, (int) (tick & (SLOTS - 1)));
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.next = null;
+                size--;
+                expired.accept(timeout.value);
+                timeout = next;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void insert(Timeout<T> timeout) {
+        // a cascaded timeout can be due at the current tick, which is processed right after cascading
+        long delta = Math.min(Math.max(timeout.deadlineTick - currentTick, 1), MAX_DELTA);
+        long tick = currentTick + delta;
+        int level = 0;
+        while (delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        if (timeout.deadlineTick - currentTick <= MAX_DELTA) {
+            tick = timeout.deadlineTick;
+        }
+        int slot = (int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1));
+        Timeout<T>[] wheel = slots[level];
+        timeout.level = wheel;
+        timeout.slot = slot;
+        timeout.previous = null;
+        timeout.next = wheel[slot];
+        if (wheel[slot] != null) {
+            wheel[slot].previous = timeout;
+        }
+        wheel[slot] = timeout;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            timeout.level[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.slot = -1;
+    }
+
+    private Timeout<T> detachSlot(int level, int slot) {
+        Timeout<T> head = slots[level][slot];
+        slots[level][slot] = null;
+        for (Timeout<T> timeout = head; timeout != null; timeout = timeout.next) {
+            timeout.previous = null;
+            timeout.slot = -1;
+        }
+        return head;
+    }
+}
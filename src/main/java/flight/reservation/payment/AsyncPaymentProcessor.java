@@ -0,0 +1,243 @@
+package flight.reservation.payment;
+
+import flight.reservation.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batching, asynchronous front of a {@link PaymentGateway}.
+ * <p>
+ * Payments are queued in a bounded queue and a dispatcher thread groups them into batches that are sent
+ * to the gateway on a fixed number of worker threads. When all workers are busy the queue fills up and
+ * further payments are rejected right away instead of piling up (backpressure). Every payment future
+ * fails with a {@link java.util.concurrent.TimeoutException} if the gateway has not started charging it
+ * in time. Such a payment is never charged later, and a payment the gateway has started charging waits
+ * for its answer, so a caller retrying after a failure cannot pay twice.
+ */
+public class AsyncPaymentProcessor implements AutoCloseable {
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    private final PaymentGateway gateway;
+    private final int maxBatchSize;
+    private final long batchDelayMillis;
+    private final long timeoutMillis;
+    private final BlockingQueue<PaymentRequest> queue;
+    private final Semaphore idleWorkers;
+    private final ExecutorService workers;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    private AsyncPaymentProcessor(Builder builder) {
+        this.gateway = Objects.requireNonNull(builder.gateway, "Payment gateway cannot be null");
+        if (builder.maxBatchSize <= 0 || builder.queueCapacity <= 0 || builder.workerThreads <= 0) {
+            throw new IllegalArgumentException("Batch size, queue capacity and worker threads must be positive");
+        }
+        if (builder.batchDelayMillis < 0 || builder.timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Batch delay cannot be negative and timeout must be positive");
+        }
+        this.maxBatchSize = builder.maxBatchSize;
+        this.batchDelayMillis = builder.batchDelayMillis;
+        this.timeoutMillis = builder.timeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(builder.queueCapacity);
+        this.idleWorkers = new Semaphore(builder.workerThreads);
+        int instance = INSTANCES.incrementAndGet();
+        AtomicInteger workerIds = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(builder.workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "payment-worker-" + instance + "-" + workerIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatch, "payment-dispatcher-" + instance);
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    public static class Builder {
+        private PaymentGateway gateway;
+        private int maxBatchSize = 32;
+        private long batchDelayMillis = 2;
+        private int queueCapacity = 1024;
+        private int workerThreads = 4;
+        private long timeoutMillis = 5000;
+
+        public Builder gateway(PaymentGateway gateway) {
+            this.gateway = gateway;
+            return this;
+        }
+
+        public Builder maxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        // How long the dispatcher waits for a batch to fill up before sending it
+        public Builder batchDelay(long batchDelay, TimeUnit unit) {
+            this.batchDelayMillis = unit.toMillis(batchDelay);
+            return this;
+        }
+
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public Builder workerThreads(int workerThreads) {
+            this.workerThreads = workerThreads;
+            return this;
+        }
+
+        public Builder timeout(long timeout, TimeUnit unit) {
+            this.timeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        public AsyncPaymentProcessor build() {
+            return new AsyncPaymentProcessor(this);
+        }
+    }
+
+    /**
+     * Queues a payment without blocking the caller
+     * @param strategy the strategy used to charge the payment
+     * @param amount the amount to pay
+     * @return future completing with the payment result, or exceptionally with a RejectedExecutionException
+     * if the queue is full or the processor is closed, or a TimeoutException if the gateway does not start
+     * charging it in time
+     */
+    public CompletableFuture<Boolean> submit(PaymentStrategy strategy, Money amount) {
+        Objects.requireNonNull(strategy, "Payment strategy cannot be null");
+        Objects.requireNonNull(amount, "Amount cannot be null");
+        PaymentRequest request = new PaymentRequest(strategy, amount);
+        CompletableFuture<Boolean> result = request.getResult();
+        if (!running) {
+            result.completeExceptionally(new RejectedExecutionException("Payment processor is closed"));
+        } else if (!queue.offer(request)) {
+            result.completeExceptionally(new RejectedExecutionException("Payment queue is full"));
+        }
+        if (!result.isDone()) {
+            CompletableFuture.delayedExecutor(timeoutMillis, TimeUnit.MILLISECONDS).execute(request::timeOut);
+        }
+        return result;
+    }
+
+    /**
+     * Wraps a blocking payment strategy so it is paid through this processor
+     * @param strategy the strategy used to charge the payment
+     * @return an asynchronous view of the strategy
+     */
+    public AsyncPaymentStrategy async(PaymentStrategy strategy) {
+        Objects.requireNonNull(strategy, "Payment strategy cannot be null");
+        return amount -> submit(strategy, amount);
+    }
+
+    public int getQueuedPayments() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting payments, fails all queued ones and waits for in-flight batches to finish
+     */
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        try {
+            dispatcher.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PaymentRequest> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        pending.forEach(request -> request.getResult().completeExceptionally(
+                new RejectedExecutionException("Payment processor is closed")));
+        workers.shutdown();
+        try {
+            workers.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatch() {
+        try {
+            while (running) {
+                // wait for a free worker first, so a saturated gateway makes the queue fill up
+                idleWorkers.acquire();
+                List<PaymentRequest> batch = nextBatch();
+                try {
+                    workers.execute(() -> send(batch));
+                } catch (RejectedExecutionException e) {
+                    idleWorkers.release();
+                    fail(batch, e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<PaymentRequest> nextBatch() throws InterruptedException {
+        List<PaymentRequest> batch = new ArrayList<>(maxBatchSize);
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchDelayMillis);
+        try {
+            while (batch.size() < maxBatchSize) {
+                if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                PaymentRequest next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (next == null) {
+                    break;
+                }
+                batch.add(next);
+            }
+        } catch (InterruptedException e) {
+            fail(batch, new RejectedExecutionException("Payment processor is closed"));
+            throw e;
+        }
+        return batch;
+    }
+
+    private void send(List<PaymentRequest> queued) {
+        // payments that timed out while queued are not sent at all
+        List<PaymentRequest> batch = new ArrayList<>(queued.size());
+        for (PaymentRequest request : queued) {
+            if (!request.getResult().isDone()) {
+                batch.add(request);
+            }
+        }
+        try {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Boolean> results = gateway.process(batch);
+            if (results.size() != batch.size()) {
+                throw new IllegalStateException(
+                        String.format("Gateway returned %d results for %d payments", results.size(), batch.size()));
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).getResult().complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            fail(batch, e);
+        } finally {
+            idleWorkers.release();
+        }
+    }
+
+    private static void fail(List<PaymentRequest> batch, Throwable cause) {
+        batch.forEach(request -> request.getResult().completeExceptionally(cause));
+    }
+}
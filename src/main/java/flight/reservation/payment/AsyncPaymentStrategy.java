@@ -0,0 +1,12 @@
+package flight.reservation.payment;
+
+import flight.reservation.Money;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variant of {@link PaymentStrategy}: the returned future completes once the payment was processed.
+ */
+public interface AsyncPaymentStrategy {
+    CompletableFuture<Boolean> payAsync(Money amount);
+}
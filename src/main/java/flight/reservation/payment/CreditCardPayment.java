@@ -1,43 +1,59 @@
 package flight.reservation.payment;
 
+import flight.reservation.Money;
+import flight.reservation.events.EventType;
+import flight.reservation.events.Events;
+
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 /**
  * Dummy credit card class.
+ * The balance is kept in cents of {@link Money#DEFAULT_CURRENCY} and debited with a compare-and-set,
+ * so concurrent payments with the same card can never overdraw it.
  */
 public class CreditCardPayment implements PaymentStrategy {
+    private static final AtomicLongFieldUpdater<CreditCardPayment> BALANCE_CENTS =
+            AtomicLongFieldUpdater.newUpdater(CreditCardPayment.class, "balanceCents");
+
     private final String number;
     private final Date expirationDate;
 
     public double getBalance() {
-        return balance;
+        return Money.ofMinor(balanceCents).toDouble();
     }
 
     public void setBalance(double balance) {
-        this.balance = balance;
+        BALANCE_CENTS.set(this, toCents(balance));
     }
 
     private final String cvv;
-    private double balance;
+    private volatile long balanceCents;
     private boolean valid;
 
     public CreditCardPayment(String number, Date expirationDate, String cvv, double balance) {
         this.number = number;
         this.expirationDate = expirationDate;
         this.cvv = cvv;
-        this.balance = 100000;
+        this.balanceCents = toCents(100000);
         this.setValid();
     }
 
     @Override
-    public boolean pay(double amount) {
-        if (balance >= amount) {
-            balance -= amount;
-            System.out.println("Paid " + amount + " using Credit Card.");
-            return true;
+    public boolean pay(Money amount) {
+        amount.requireCurrency(Money.DEFAULT_CURRENCY);
+        long amountCents = amount.getMinorUnits();
+        while (true) {
+            long current = balanceCents;
+            if (current < amountCents) {
+                Events.emit(EventType.PAYMENT_DECLINED, "credit card", amountCents, "insufficient balance");
+                return false;
+            }
+            if (BALANCE_CENTS.compareAndSet(this, current, current - amountCents)) {
+                Events.emit(EventType.PAYMENT_SUCCEEDED, "credit card", amountCents, amount.getCurrency().getCurrencyCode());
+                return true;
+            }
         }
-        System.out.println("Insufficient credit card balance.");
-        return false;
     }
     public boolean isValid() {
         return valid;
@@ -46,4 +62,8 @@ public class CreditCardPayment implements PaymentStrategy {
         // Dummy validation
         this.valid = number.length() > 0 && expirationDate.getTime() > System.currentTimeMillis() && !cvv.equals("000");
     }
-}
\ No newline at end of file
+
+    private static long toCents(double amount) {
+        return Money.of(amount).getMinorUnits();
+    }
+}
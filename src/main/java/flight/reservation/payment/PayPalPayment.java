@@ -1,5 +1,9 @@
 package flight.reservation.payment;
 
+import flight.reservation.Money;
+import flight.reservation.events.EventType;
+import flight.reservation.events.Events;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -18,12 +22,12 @@ public class PayPalPayment implements PaymentStrategy {
     }
 
     @Override
-    public boolean pay(double amount) {
+    public boolean pay(Money amount) {
         if (DATA_BASE.containsKey(password) && DATA_BASE.get(password).equals(email)) {
-            System.out.println("Paid " + amount + " using PayPal.");
+            Events.emit(EventType.PAYMENT_SUCCEEDED, "paypal", amount.getMinorUnits(), amount.getCurrency().getCurrencyCode());
             return true;
         }
-        System.out.println("Invalid PayPal credentials.");
+        Events.emit(EventType.PAYMENT_DECLINED, "paypal", amount.getMinorUnits(), "invalid credentials");
         return false;
     }
 }
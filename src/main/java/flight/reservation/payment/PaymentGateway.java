@@ -0,0 +1,15 @@
+package flight.reservation.payment;
+
+import java.util.List;
+
+/**
+ * Remote side of the payment pipeline. Processes a whole batch of payments in one round-trip.
+ */
+public interface PaymentGateway {
+    /**
+     * Processes the given payments, charging only those that {@link PaymentRequest#claim()} succeeds for
+     * @param batch payments to process
+     * @return one result per request, in the same order as the batch
+     */
+    List<Boolean> process(List<PaymentRequest> batch);
+}
@@ -0,0 +1,52 @@
+package flight.reservation.payment;
+
+import flight.reservation.Money;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A single payment waiting to be sent to a {@link PaymentGateway}.
+ */
+public final class PaymentRequest {
+    private final PaymentStrategy strategy;
+    private final Money amount;
+    private final CompletableFuture<Boolean> result;
+    // set once the payment is either being charged or has timed out, whichever happens first
+    private final AtomicBoolean decided = new AtomicBoolean();
+
+    PaymentRequest(PaymentStrategy strategy, Money amount) {
+        this.strategy = strategy;
+        this.amount = amount;
+        this.result = new CompletableFuture<>();
+    }
+
+    public PaymentStrategy getStrategy() {
+        return strategy;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    /**
+     * Claims the payment for charging. Gateways call this right before charging and skip the payment if it fails.
+     * @return true if the payment may be charged, false if it already timed out or failed; its caller then
+     * treats it as not paid
+     */
+    public boolean claim() {
+        return !result.isDone() && decided.compareAndSet(false, true);
+    }
+
+    CompletableFuture<Boolean> getResult() {
+        return result;
+    }
+
+    // Fails the payment unless a gateway already claimed it, in which case its result is awaited instead
+    void timeOut() {
+        if (decided.compareAndSet(false, true)) {
+            result.completeExceptionally(new TimeoutException("Payment was not charged in time"));
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package flight.reservation.payment;
 
+import flight.reservation.Money;
+
 public interface PaymentStrategy {
-    boolean pay(double amount);
+    boolean pay(Money amount);
 }
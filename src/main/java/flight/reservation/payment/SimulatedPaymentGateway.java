@@ -0,0 +1,41 @@
+package flight.reservation.payment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local stand-in for a payment provider. Every batch costs one simulated network round-trip,
+ * after which each payment is charged through its own strategy.
+ */
+public class SimulatedPaymentGateway implements PaymentGateway {
+    private final long latencyMillis;
+
+    public SimulatedPaymentGateway(long latencyMillis) {
+        if (latencyMillis < 0) {
+            throw new IllegalArgumentException("Latency cannot be negative");
+        }
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public List<Boolean> process(List<PaymentRequest> batch) {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Payment gateway was interrupted", e);
+            }
+        }
+        List<Boolean> results = new ArrayList<>(batch.size());
+        for (PaymentRequest request : batch) {
+            // a payment that timed out during the round-trip was already reported as failed
+            results.add(request.claim() && request.getStrategy().pay(request.getAmount()));
+        }
+        return results;
+    }
+
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+}
@@ -0,0 +1,88 @@
+package flight.reservation.persistence;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a {@link TimetableImporter} run: how many rows were imported or rejected, why, and how fast.
+ */
+public final class ImportReport {
+    private final long imported;
+    private final long rejectedCount;
+    private final List<RejectedRow> rejectedRows;
+    private final long elapsedNanos;
+
+    /**
+     * A timetable row that was not imported
+     */
+    public static final class RejectedRow {
+        private final int lineNumber;
+        private final String line;
+        private final String reason;
+
+        public RejectedRow(int lineNumber, String line, String reason) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.reason = reason;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getLine() {
+            return line;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Line %d: %s", lineNumber, reason);
+        }
+    }
+
+    ImportReport(long imported, long rejectedCount, List<RejectedRow> rejectedRows, long elapsedNanos) {
+        this.imported = imported;
+        this.rejectedCount = rejectedCount;
+        this.rejectedRows = Collections.unmodifiableList(rejectedRows);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Returns the rejected rows in file order, up to the importer's maximum number of reported rejections
+     * @return the rejected rows
+     */
+    public List<RejectedRow> getRejectedRows() {
+        return rejectedRows;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * Returns the number of rows, imported or rejected, processed per second
+     * @return import throughput
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : (imported + rejectedCount) * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %d flights, rejected %d rows in %d ms (%.0f rows/s)",
+                imported, rejectedCount, getElapsedMillis(), getRowsPerSecond());
+    }
+}
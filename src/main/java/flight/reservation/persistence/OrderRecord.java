@@ -0,0 +1,190 @@
+package flight.reservation.persistence;
+
+import flight.reservation.Money;
+import flight.reservation.Passenger;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.order.FlightOrder;
+import flight.reservation.order.OrderState;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Persistent form of a {@link FlightOrder}: the customer, price, passenger names and the booked flights,
+ * identified by flight number and departure time, with the seat of every passenger on each of them.
+ */
+public final class OrderRecord {
+    private final UUID id;
+    private final String customerName;
+    private final String customerEmail;
+    private final Money price;
+    private final List<String> passengerNames;
+    private final List<Leg> legs;
+    private final OrderState state;
+
+    /**
+     * A booked scheduled flight
+     */
+    public static final class Leg {
+        private final int flightNumber;
+        private final long departureMillis;
+        private final List<String> seats;
+
+        public Leg(int flightNumber, long departureMillis) {
+            this(flightNumber, departureMillis, Collections.emptyList());
+        }
+
+        /**
+         * @param seats seat of every passenger in passenger order, an empty string if a passenger had none
+         */
+        public Leg(int flightNumber, long departureMillis, List<String> seats) {
+            this.flightNumber = flightNumber;
+            this.departureMillis = departureMillis;
+            this.seats = Collections.unmodifiableList(new ArrayList<>(seats));
+        }
+
+        public int getFlightNumber() {
+            return flightNumber;
+        }
+
+        public long getDepartureMillis() {
+            return departureMillis;
+        }
+
+        public List<String> getSeats() {
+            return seats;
+        }
+    }
+
+    public OrderRecord(UUID id, String customerName, String customerEmail, Money price,
+                       List<String> passengerNames, List<Leg> legs, OrderState state) {
+        this.id = Objects.requireNonNull(id, "Order id cannot be null");
+        this.customerName = Objects.requireNonNull(customerName, "Customer name cannot be null");
+        this.customerEmail = Objects.requireNonNull(customerEmail, "Customer email cannot be null");
+        this.price = Objects.requireNonNull(price, "Price cannot be null");
+        this.passengerNames = Collections.unmodifiableList(new ArrayList<>(passengerNames));
+        this.legs = Collections.unmodifiableList(new ArrayList<>(legs));
+        this.state = Objects.requireNonNull(state, "State cannot be null");
+    }
+
+    public static OrderRecord of(FlightOrder order) {
+        List<String> passengerNames = new ArrayList<>(order.getPassengers().size());
+        for (Passenger passenger : order.getPassengers()) {
+            passengerNames.add(passenger.getName());
+        }
+        List<Leg> legs = new ArrayList<>(order.getFlights().size());
+        for (ScheduledFlight flight : order.getFlights()) {
+            List<String> seats = new ArrayList<>(order.getPassengers().size());
+            for (Passenger passenger : order.getPassengers()) {
+                seats.add(flight.getSeat(passenger).orElse(""));
+            }
+            legs.add(new Leg(flight.getNumber(), flight.getDepartureTimeMillis(), seats));
+        }
+        // an order being paid is stored as open; its payment is logged separately once it succeeds
+        OrderState state = order.getState() == OrderState.PAYING ? OrderState.OPEN : order.getState();
+        return new OrderRecord(order.getId(), order.getCustomer().getName(), order.getCustomer().getEmail(),
+                order.getPrice(), passengerNames, legs, state);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public Money getPrice() {
+        return price;
+    }
+
+    public List<String> getPassengerNames() {
+        return passengerNames;
+    }
+
+    public List<Leg> getLegs() {
+        return legs;
+    }
+
+    public OrderState getState() {
+        return state;
+    }
+
+    OrderRecord withState(OrderState state) {
+        return state == this.state ? this
+                : new OrderRecord(id, customerName, customerEmail, price, passengerNames, legs, state);
+    }
+
+    void write(DataOutput out) throws IOException {
+        writeId(id, out);
+        out.writeUTF(customerName);
+        out.writeUTF(customerEmail);
+        out.writeLong(price.getMinorUnits());
+        out.writeUTF(price.getCurrency().getCurrencyCode());
+        out.writeByte(state.ordinal());
+        out.writeInt(passengerNames.size());
+        for (String passengerName : passengerNames) {
+            out.writeUTF(passengerName);
+        }
+        out.writeInt(legs.size());
+        for (Leg leg : legs) {
+            out.writeInt(leg.flightNumber);
+            out.writeLong(leg.departureMillis);
+            out.writeInt(leg.seats.size());
+            for (String seat : leg.seats) {
+                out.writeUTF(seat);
+            }
+        }
+    }
+
+    /**
+     * @param withSeats false for records written before seats were stored
+     */
+    static OrderRecord read(DataInput in, boolean withSeats) throws IOException {
+        UUID id = readId(in);
+        String customerName = in.readUTF();
+        String customerEmail = in.readUTF();
+        long priceMinorUnits = in.readLong();
+        Currency currency = Currency.getInstance(in.readUTF());
+        OrderState state = OrderState.values()[in.readUnsignedByte()];
+        int passengerCount = in.readInt();
+        List<String> passengerNames = new ArrayList<>(passengerCount);
+        for (int i = 0; i < passengerCount; i++) {
+            passengerNames.add(in.readUTF());
+        }
+        int legCount = in.readInt();
+        List<Leg> legs = new ArrayList<>(legCount);
+        for (int i = 0; i < legCount; i++) {
+            int flightNumber = in.readInt();
+            long departureMillis = in.readLong();
+            int seatCount = withSeats ? in.readInt() : 0;
+            List<String> seats = new ArrayList<>(seatCount);
+            for (int j = 0; j < seatCount; j++) {
+                seats.add(in.readUTF());
+            }
+            legs.add(new Leg(flightNumber, departureMillis, seats));
+        }
+        return new OrderRecord(id, customerName, customerEmail, Money.ofMinor(priceMinorUnits, currency),
+                passengerNames, legs, state);
+    }
+
+    static void writeId(UUID id, DataOutput out) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    static UUID readId(DataInput in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
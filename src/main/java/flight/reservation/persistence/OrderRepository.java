@@ -0,0 +1,444 @@
+package flight.reservation.persistence;
+
+import flight.reservation.Customer;
+import flight.reservation.CustomerRegistry;
+import flight.reservation.Passenger;
+import flight.reservation.events.EventType;
+import flight.reservation.events.Events;
+import flight.reservation.flight.ItineraryBooking;
+import flight.reservation.flight.FlightSchedule;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.order.FlightOrder;
+import flight.reservation.order.OrderState;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Durable store of flight orders, made of a write-ahead log and a compact snapshot in one directory.
+ * <p>
+ * Every change is appended to the log by a single writer thread. Changes arriving while the disk is busy
+ * are written and forced to disk together (group commit), so one fsync covers a whole batch and the
+ * returned futures complete only once their change is durable. After a configurable number of changes,
+ * the live orders are written to a new snapshot and the log is emptied. On open, the snapshot is loaded
+ * and the log replayed on top of it; replaying is idempotent, so a crash between writing a snapshot and
+ * emptying the log loses nothing.
+ */
+public class OrderRepository implements AutoCloseable {
+    static final String LOG_FILE = "orders.wal";
+    static final String SNAPSHOT_FILE = "orders.snapshot";
+    private static final int SNAPSHOT_MAGIC = 0x4F524453;
+    private static final int SNAPSHOT_VERSION = 2;
+    // version 1 snapshots and BOOKED_V1 log entries were written before seats were stored
+    private static final int SNAPSHOT_VERSION_V1 = 1;
+    private static final byte BOOKED_V1 = 1;
+    private static final byte CLOSED = 2;
+    private static final byte EXPIRED = 3;
+    private static final byte SNAPSHOT = 4;
+    private static final byte BOOKED = 5;
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    private final Path directory;
+    private final int snapshotEvery;
+    private final int maxBatchSize;
+    private final boolean sync;
+    // owned by the writer thread once it is started
+    private final Map<UUID, OrderRecord> orders = new LinkedHashMap<>();
+    private final List<OrderRecord> recovered;
+    private final WriteAheadLog log;
+    private final BlockingQueue<Change> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    // guards running against enqueue, so no change is queued after close() stopped the writer
+    private final Object lifecycle = new Object();
+    private volatile boolean running = true;
+    private volatile IOException failure;
+    private int changesSinceSnapshot;
+
+    private OrderRepository(Builder builder) throws IOException {
+        this.directory = Objects.requireNonNull(builder.directory, "Directory cannot be null");
+        if (builder.snapshotEvery <= 0 || builder.maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Snapshot interval and batch size must be positive");
+        }
+        this.snapshotEvery = builder.snapshotEvery;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.sync = builder.sync;
+        Files.createDirectories(directory);
+        readSnapshot();
+        this.log = WriteAheadLog.open(directory.resolve(LOG_FILE), this::replay);
+        this.recovered = new ArrayList<>(orders.values());
+        this.writer = new Thread(this::write, "order-log-writer-" + INSTANCES.incrementAndGet());
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public static class Builder {
+        private Path directory;
+        private int snapshotEvery = 100_000;
+        private int maxBatchSize = 1024;
+        private boolean sync = true;
+
+        public Builder directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        // Number of logged changes after which a snapshot is written and the log emptied
+        public Builder snapshotEvery(int changes) {
+            this.snapshotEvery = changes;
+            return this;
+        }
+
+        public Builder maxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        // Whether commits wait for fsync; without it a crash of the machine can lose the latest commits
+        public Builder sync(boolean sync) {
+            this.sync = sync;
+            return this;
+        }
+
+        /**
+         * Opens the repository, recovering the orders stored in the directory
+         * @return the repository
+         * @throws IOException if the files cannot be read or the snapshot is corrupt
+         */
+        public OrderRepository open() throws IOException {
+            return new OrderRepository(this);
+        }
+    }
+
+    private static final class Change {
+        private final byte type;
+        private final UUID id;
+        private final OrderRecord record;
+        private final byte[] payload;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private Change(byte type, UUID id, OrderRecord record, byte[] payload) {
+            this.type = type;
+            this.id = id;
+            this.record = record;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Stores a new order
+     * @param order the booked order
+     * @return future completing once the order is durable
+     */
+    public CompletableFuture<Void> saveBooking(FlightOrder order) {
+        OrderRecord record = OrderRecord.of(order);
+        return submit(BOOKED, record.getId(), record);
+    }
+
+    /**
+     * Marks a stored order as paid
+     * @param order the closed order
+     * @return future completing once the change is durable
+     */
+    public CompletableFuture<Void> saveClosed(FlightOrder order) {
+        return submit(CLOSED, order.getId(), null);
+    }
+
+    /**
+     * Removes an order whose seats were released
+     * @param order the expired order
+     * @return future completing once the change is durable
+     */
+    public CompletableFuture<Void> saveExpired(FlightOrder order) {
+        return submit(EXPIRED, order.getId(), null);
+    }
+
+    /**
+     * Writes a snapshot of all live orders and empties the log
+     * @return future completing once the snapshot is durable
+     */
+    public CompletableFuture<Void> snapshot() {
+        return enqueue(new Change(SNAPSHOT, null, null, null));
+    }
+
+    /**
+     * @return the orders found when the repository was opened, in the order they were booked
+     */
+    public List<OrderRecord> getRecoveredOrders() {
+        return new ArrayList<>(recovered);
+    }
+
+    /**
+     * Rebuilds the recovered orders against a schedule, booking their passengers again on their stored seats.
+     * Orders whose flights are no longer scheduled or no longer have enough seats are skipped, reported as
+     * {@link EventType#ORDER_NOT_RESTORED} and left in the repository.
+     * @param schedule schedule containing the booked flights
+     * @return the restored orders, in the order they were booked
+     */
+    public List<FlightOrder> restore(FlightSchedule schedule) {
+        Map<String, Customer> customers = new HashMap<>();
+        List<FlightOrder> restored = new ArrayList<>(recovered.size());
+        for (OrderRecord record : recovered) {
+            if (record.getState() == OrderState.EXPIRED) {
+                continue;
+            }
+            try {
+                restored.add(restore(record, schedule, customers));
+            } catch (NoSuchElementException | IllegalStateException e) {
+                Events.emit(EventType.ORDER_NOT_RESTORED, record.getId().toString(), record.getPassengerNames().size(),
+                        e.getMessage());
+            }
+        }
+        return restored;
+    }
+
+    private static FlightOrder restore(OrderRecord record, FlightSchedule schedule, Map<String, Customer> customers) {
+        List<ScheduledFlight> flights = new ArrayList<>(record.getLegs().size());
+        List<List<String>> seats = new ArrayList<>(record.getLegs().size());
+        for (OrderRecord.Leg leg : record.getLegs()) {
+            flights.add(schedule.searchScheduledFlights(leg.getFlightNumber()).stream()
+                    .filter(flight -> flight.getDepartureTimeMillis() == leg.getDepartureMillis())
+                    .findFirst()
+                    .orElseThrow(() -> new NoSuchElementException(
+                            String.format("Scheduled flight %d of order %s not found", leg.getFlightNumber(), record.getId()))));
+            seats.add(leg.getSeats());
+        }
+        List<Passenger> passengers = record.getPassengerNames().stream().map(Passenger::new).collect(Collectors.toList());
+        ItineraryBooking.book(flights, passengers, seats);
+        Customer customer = customers.computeIfAbsent(CustomerRegistry.normalizeEmail(record.getCustomerEmail()),
+                email -> new Customer(record.getCustomerName(), record.getCustomerEmail()));
+        FlightOrder order = new FlightOrder(record.getId(), flights, customer);
+        order.setPrice(record.getPrice());
+        order.setPassengers(passengers);
+        if (record.getState() == OrderState.CLOSED) {
+            order.setClosed();
+        }
+        customer.getOrders().add(order);
+        return order;
+    }
+
+    /**
+     * Writes all pending changes and closes the log
+     * @throws IOException if the log cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lifecycle) {
+            running = false;
+        }
+        // not interrupted: an interrupt during file I/O would close the log channel and fail the pending changes;
+        // the writer sees running == false within one poll timeout and exits once the queue is empty
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+
+    private CompletableFuture<Void> submit(byte type, UUID id, OrderRecord record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(record == null ? 17 : 128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type);
+            if (record != null) {
+                record.write(out);
+            } else {
+                OrderRecord.writeId(id, out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return enqueue(new Change(type, id, record, bytes.toByteArray()));
+    }
+
+    private CompletableFuture<Void> enqueue(Change change) {
+        IOException error = failure;
+        if (error != null) {
+            change.result.completeExceptionally(new IllegalStateException("Order log has failed", error));
+            return change.result;
+        }
+        synchronized (lifecycle) {
+            if (running) {
+                queue.add(change);
+                return change.result;
+            }
+        }
+        change.result.completeExceptionally(new IllegalStateException("Order repository is closed"));
+        return change.result;
+    }
+
+    private void write() {
+        List<Change> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Change first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                // close() never interrupts; keep writing until the queue is drained
+                continue;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void commit(List<Change> batch) {
+        boolean snapshotRequested = false;
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            for (Change change : batch) {
+                if (change.type == SNAPSHOT) {
+                    snapshotRequested = true;
+                } else {
+                    log.append(change.payload);
+                    apply(change.type, change.id, change.record);
+                    changesSinceSnapshot++;
+                }
+            }
+            log.flush(sync);
+            if (snapshotRequested || changesSinceSnapshot >= snapshotEvery) {
+                writeSnapshot();
+                log.reset();
+                changesSinceSnapshot = 0;
+            }
+            batch.forEach(change -> change.result.complete(null));
+        } catch (IOException e) {
+            failure = e;
+            batch.forEach(change -> change.result.completeExceptionally(e));
+        }
+    }
+
+    private void apply(byte type, UUID id, OrderRecord record) {
+        switch (type) {
+            case BOOKED:
+                orders.put(id, record);
+                break;
+            case CLOSED:
+                orders.computeIfPresent(id, (key, current) -> current.withState(OrderState.CLOSED));
+                break;
+            case EXPIRED:
+                orders.remove(id);
+                break;
+            default:
+                throw new IllegalStateException("Unknown log entry type " + type);
+        }
+    }
+
+    private void replay(ByteBuffer entry) {
+        try (DataInputStream in = new DataInputStream(new ByteBufferInputStream(entry))) {
+            byte type = in.readByte();
+            if (type == BOOKED || type == BOOKED_V1) {
+                OrderRecord record = OrderRecord.read(in, type == BOOKED);
+                apply(BOOKED, record.getId(), record);
+            } else {
+                apply(type, OrderRecord.readId(in), null);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        Path target = directory.resolve(SNAPSHOT_FILE);
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CRC32C crc = new CRC32C();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), crc), 64 * 1024));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(orders.size());
+            for (OrderRecord record : orders.values()) {
+                record.write(out);
+            }
+            out.flush();
+            out.writeInt((int) crc.getValue());
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void readSnapshot() throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        CRC32C crc = new CRC32C();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 64 * 1024), crc))) {
+            int version = in.readInt() == SNAPSHOT_MAGIC ? in.readInt() : -1;
+            if (version != SNAPSHOT_VERSION && version != SNAPSHOT_VERSION_V1) {
+                throw new IOException("Unsupported order snapshot " + file);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                OrderRecord record = OrderRecord.read(in, version == SNAPSHOT_VERSION);
+                orders.put(record.getId(), record);
+            }
+            int expected = (int) crc.getValue();
+            if (in.readInt() != expected) {
+                throw new IOException("Order snapshot " + file + " is corrupt");
+            }
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+    }
+}
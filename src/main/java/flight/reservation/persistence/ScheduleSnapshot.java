@@ -0,0 +1,259 @@
+package flight.reservation.persistence;
+
+import flight.reservation.Airport;
+import flight.reservation.Money;
+import flight.reservation.flight.Schedule;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.plane.Aircraft;
+import flight.reservation.plane.AircraftCatalog;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary file format for the flights of a {@link Schedule}, read back through a memory mapping.
+ * <p>
+ * Airports, aircraft models and currencies are stored once in dictionaries; each flight is then a fixed
+ * size record of dictionary indexes, epoch millisecond times and the base fare in minor units:
+ * <pre>
+ * int magic, int version, int flightCount
+ * currencies: int count, then a string per currency code
+ * aircraft:   int count, then a string per model name
+ * airports:   int count, then name, code, location and allowed models (-1 for the catalog default)
+ * flights:    int number, char departure, char arrival, char aircraft, char currency,
+ *             long departureTime, long arrivalTime, long baseFare
+ * </pre>
+ * Strings are an unsigned short byte length followed by UTF-8. Passengers and seat holds are not part
+ * of the snapshot; they are kept by the {@link OrderRepository}.
+ */
+public final class ScheduleSnapshot {
+    private static final int MAGIC = 0x53434844;
+    private static final int VERSION = 1;
+    private static final int MAX_DICTIONARY_SIZE = Character.MAX_VALUE + 1;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private ScheduleSnapshot() {
+    }
+
+    /**
+     * Writes all flights of a schedule, sorted by departure time, replacing the file atomically
+     * @param schedule the schedule to store
+     * @param file the snapshot file
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the schedule uses more than 65536 airports, models or currencies
+     */
+    public static void write(Schedule schedule, Path file) throws IOException {
+        List<ScheduledFlight> flights = new ArrayList<>(schedule.getScheduledFlights());
+        flights.sort(Comparator.comparingLong(ScheduledFlight::getDepartureTimeMillis));
+
+        Map<Currency, Integer> currencies = new LinkedHashMap<>();
+        Map<String, Integer> models = new LinkedHashMap<>();
+        Map<Airport, Integer> airports = new IdentityHashMap<>();
+        List<Airport> airportList = new ArrayList<>();
+        for (ScheduledFlight flight : flights) {
+            currencies.putIfAbsent(flight.getCurrency(), currencies.size());
+            models.putIfAbsent(flight.getAircraft().getModelName(), models.size());
+            for (Airport airport : new Airport[]{flight.getDeparture(), flight.getArrival()}) {
+                if (airports.putIfAbsent(airport, airports.size()) == null) {
+                    airportList.add(airport);
+                }
+            }
+        }
+        if (currencies.size() > MAX_DICTIONARY_SIZE || models.size() > MAX_DICTIONARY_SIZE
+                || airports.size() > MAX_DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("Schedule uses too many distinct airports, aircraft or currencies");
+        }
+
+        String[] defaultModels = AircraftCatalog.getDefault().getModelNames();
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Output out = new Output(channel);
+            out.buffer(12).putInt(MAGIC).putInt(VERSION).putInt(flights.size());
+            out.buffer(4).putInt(currencies.size());
+            for (Currency currency : currencies.keySet()) {
+                out.putString(currency.getCurrencyCode());
+            }
+            out.buffer(4).putInt(models.size());
+            for (String model : models.keySet()) {
+                out.putString(model);
+            }
+            out.buffer(4).putInt(airportList.size());
+            for (Airport airport : airportList) {
+                out.putString(airport.getName());
+                out.putString(airport.getCode());
+                out.putString(airport.getLocation());
+                String[] allowed = airport.getAllowedAircrafts();
+                if (Arrays.equals(allowed, defaultModels)) {
+                    out.buffer(4).putInt(-1);
+                } else {
+                    out.buffer(4).putInt(allowed.length);
+                    for (String model : allowed) {
+                        out.putString(model);
+                    }
+                }
+            }
+            for (ScheduledFlight flight : flights) {
+                out.buffer(36)
+                        .putInt(flight.getNumber())
+                        .putChar((char) (int) airports.get(flight.getDeparture()))
+                        .putChar((char) (int) airports.get(flight.getArrival()))
+                        .putChar((char) (int) models.get(flight.getAircraft().getModelName()))
+                        .putChar((char) (int) currencies.get(flight.getCurrency()))
+                        .putLong(flight.getDepartureTimeMillis())
+                        .putLong(flight.getArrivalTimeMillis())
+                        .putLong(flight.getBaseFare().getMinorUnits());
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot into a new schedule
+     * @param file the snapshot file
+     * @return the schedule
+     * @throws IOException if the file cannot be read, is not a snapshot or refers to unknown aircraft
+     */
+    public static Schedule read(Path file) throws IOException {
+        Schedule schedule = new Schedule();
+        read(file, schedule);
+        return schedule;
+    }
+
+    /**
+     * Adds the flights of a snapshot to a schedule, priced with the schedule's fare policy
+     * @param file the snapshot file
+     * @param schedule the schedule to add the flights to
+     * @throws IOException if the file cannot be read, is not a snapshot or refers to unknown aircraft
+     */
+    public static void read(Path file, Schedule schedule) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Schedule snapshot " + file + " is too large to map");
+            }
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                schedule.scheduleFlights(readFlights(in, schedule));
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Schedule snapshot " + file + " is truncated", e);
+            }
+        }
+    }
+
+    private static List<ScheduledFlight> readFlights(ByteBuffer in, Schedule schedule) throws IOException {
+        if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+            throw new IOException("Not a schedule snapshot of version " + VERSION);
+        }
+        int flightCount = in.getInt();
+
+        Currency[] currencies = new Currency[in.getInt()];
+        for (int i = 0; i < currencies.length; i++) {
+            currencies[i] = Currency.getInstance(getString(in));
+        }
+        AircraftCatalog catalog = AircraftCatalog.getDefault();
+        Aircraft[] aircraft = new Aircraft[in.getInt()];
+        for (int i = 0; i < aircraft.length; i++) {
+            String model = getString(in);
+            aircraft[i] = catalog.find(model).orElseThrow(() ->
+                    new IOException(String.format("Aircraft model '%s' is not in the catalog", model)));
+        }
+        Airport[] airports = new Airport[in.getInt()];
+        for (int i = 0; i < airports.length; i++) {
+            String name = getString(in);
+            String code = getString(in);
+            String location = getString(in);
+            int allowedCount = in.getInt();
+            if (allowedCount < 0) {
+                airports[i] = new Airport(name, code, location);
+            } else {
+                String[] allowed = new String[allowedCount];
+                for (int j = 0; j < allowedCount; j++) {
+                    allowed[j] = getString(in);
+                }
+                airports[i] = new Airport(name, code, location, allowed);
+            }
+        }
+
+        List<ScheduledFlight> flights = new ArrayList<>(flightCount);
+        for (int i = 0; i < flightCount; i++) {
+            int number = in.getInt();
+            Airport departure = airports[in.getChar()];
+            Airport arrival = airports[in.getChar()];
+            Aircraft model = aircraft[in.getChar()];
+            Currency currency = currencies[in.getChar()];
+            long departureTime = in.getLong();
+            long arrivalTime = in.getLong();
+            long baseFare = in.getLong();
+            flights.add(new ScheduledFlight.Builder()
+                    .number(number)
+                    .departure(departure)
+                    .arrival(arrival)
+                    .aircraft(model)
+                    .departureTime(new Date(departureTime))
+                    .arrivalTime(arrivalTime == departureTime ? null : new Date(arrivalTime))
+                    .currentPrice(Money.ofMinor(baseFare, currency))
+                    .farePolicy(schedule.getFarePolicy())
+                    .build());
+        }
+        return flights;
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getChar()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Buffered sequential writer over a channel
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        private Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        // Returns the buffer with room for at least the given number of bytes
+        private ByteBuffer buffer(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            return buffer;
+        }
+
+        private void putString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > Character.MAX_VALUE) {
+                throw new IllegalArgumentException("String is too long for a schedule snapshot: " + value);
+            }
+            buffer(2 + bytes.length).putChar((char) bytes.length).put(bytes);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package flight.reservation.persistence;
+
+import flight.reservation.Airport;
+import flight.reservation.Money;
+import flight.reservation.flight.FarePolicy;
+import flight.reservation.flight.Schedule;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.plane.Aircraft;
+import flight.reservation.plane.AircraftCatalog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Streams a comma separated timetable into a {@link Schedule}. Each line is one scheduled flight with the
+ * columns {@code number,departure,arrival,aircraft,departureTime,arrivalTime,fare,currency}:
+ * <pre>
+ * 1,BER,FRA,A380,2025-05-01T08:00:00Z,2025-05-01T09:10:00Z,89.99,EUR
+ * </pre>
+ * Times are ISO-8601 instants; arrival time, fare and currency may be left empty for the defaults of
+ * {@link ScheduledFlight.Builder}. Blank lines and lines starting with '#' are ignored, so a header can be
+ * written as a comment. Quoted fields are not supported.
+ * <p>
+ * Lines are read in chunks and each chunk is parsed and validated as a task on a {@link ForkJoinPool}, with
+ * only a few chunks in flight at a time, so files of any size are imported in bounded memory. Valid flights
+ * are added to the schedule in file order; invalid rows are skipped and reported in the {@link ImportReport}.
+ */
+public class TimetableImporter {
+    private static final int COLUMNS = 8;
+
+    private final Map<String, Airport> airportsByCode;
+    private final AircraftCatalog catalog;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int maxReportedRejections;
+
+    private TimetableImporter(Builder builder) {
+        Objects.requireNonNull(builder.airports, "Airports cannot be null");
+        this.catalog = Objects.requireNonNull(builder.catalog, "Aircraft catalog cannot be null");
+        this.pool = Objects.requireNonNull(builder.pool, "Pool cannot be null");
+        if (builder.chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        if (builder.maxReportedRejections < 0) {
+            throw new IllegalArgumentException("Maximum number of reported rejections cannot be negative");
+        }
+        this.chunkSize = builder.chunkSize;
+        this.maxReportedRejections = builder.maxReportedRejections;
+        this.airportsByCode = new HashMap<>(builder.airports.size() * 2);
+        for (Airport airport : builder.airports) {
+            if (airportsByCode.putIfAbsent(airport.getCode(), airport) != null) {
+                throw new IllegalArgumentException(String.format("Airport code '%s' is defined twice", airport.getCode()));
+            }
+        }
+    }
+
+    public static class Builder {
+        private Collection<Airport> airports;
+        private AircraftCatalog catalog = AircraftCatalog.getDefault();
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+        private int chunkSize = 4096;
+        private int maxReportedRejections = 1000;
+
+        // Airports referenced by the timetable, looked up by code
+        public Builder airports(Collection<Airport> airports) {
+            this.airports = airports;
+            return this;
+        }
+
+        // Aircraft models referenced by the timetable
+        public Builder catalog(AircraftCatalog catalog) {
+            this.catalog = catalog;
+            return this;
+        }
+
+        public Builder pool(ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        // Lines parsed and validated per task
+        public Builder chunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        // Rejections beyond this number are counted but not kept in the report
+        public Builder maxReportedRejections(int maxReportedRejections) {
+            this.maxReportedRejections = maxReportedRejections;
+            return this;
+        }
+
+        public TimetableImporter build() {
+            return new TimetableImporter(this);
+        }
+    }
+
+    /**
+     * Imports a timetable file into a schedule
+     * @param file the timetable, UTF-8 encoded
+     * @param schedule the schedule to add the flights to; its fare policy prices them
+     * @return counts, rejected rows and throughput of the import
+     * @throws IOException if the file cannot be read
+     */
+    public ImportReport importFile(Path file, Schedule schedule) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(reader, schedule);
+        }
+    }
+
+    /**
+     * Imports a timetable from a reader into a schedule; the reader is not closed
+     * @param reader the timetable
+     * @param schedule the schedule to add the flights to; its fare policy prices them
+     * @return counts, rejected rows and throughput of the import
+     * @throws IOException if the reader fails
+     */
+    public ImportReport importFrom(Reader reader, Schedule schedule) throws IOException {
+        Objects.requireNonNull(reader, "Reader cannot be null");
+        Objects.requireNonNull(schedule, "Schedule cannot be null");
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        FarePolicy farePolicy = schedule.getFarePolicy();
+        // enough chunks in flight to keep every worker busy while the next one is read
+        int maxInFlight = pool.getParallelism() + 1;
+        ArrayDeque<ForkJoinTask<Chunk>> inFlight = new ArrayDeque<>(maxInFlight);
+        Result result = new Result();
+        long start = System.nanoTime();
+        try {
+            Chunk chunk = new Chunk(chunkSize);
+            String line;
+            int lineNumber = 0;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                chunk.add(lineNumber, line);
+                if (chunk.size() == chunkSize) {
+                    if (inFlight.size() == maxInFlight) {
+                        result.add(inFlight.poll().join(), schedule);
+                    }
+                    inFlight.add(submit(chunk, farePolicy));
+                    chunk = new Chunk(chunkSize);
+                }
+            }
+            if (chunk.size() > 0) {
+                inFlight.add(submit(chunk, farePolicy));
+            }
+            while (!inFlight.isEmpty()) {
+                result.add(inFlight.poll().join(), schedule);
+            }
+        } finally {
+            inFlight.forEach(task -> task.cancel(false));
+        }
+        return new ImportReport(result.imported, result.rejectedCount, result.rejected, System.nanoTime() - start);
+    }
+
+    private ForkJoinTask<Chunk> submit(Chunk chunk, FarePolicy farePolicy) {
+        return pool.submit(() -> {
+            chunk.parse(this, farePolicy);
+            return chunk;
+        });
+    }
+
+    private ScheduledFlight parse(String line, FarePolicy farePolicy) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != COLUMNS) {
+            throw new IllegalArgumentException(
+                    String.format("Expected %d columns but found %d", COLUMNS, columns.length));
+        }
+        ScheduledFlight.Builder builder = new ScheduledFlight.Builder()
+                .number(parseNumber(columns[0].trim()))
+                .departure(airport(columns[1].trim()))
+                .arrival(airport(columns[2].trim()))
+                .aircraft(aircraft(columns[3].trim()))
+                .departureTime(parseTime(columns[4].trim(), "departure"))
+                .farePolicy(farePolicy);
+        String arrivalTime = columns[5].trim();
+        if (!arrivalTime.isEmpty()) {
+            builder.arrivalTime(parseTime(arrivalTime, "arrival"));
+        }
+        String fare = columns[6].trim();
+        String currency = columns[7].trim();
+        if (!fare.isEmpty()) {
+            builder.currentPrice(parseFare(fare, currency));
+        } else if (!currency.isEmpty()) {
+            throw new IllegalArgumentException("Currency given without a fare");
+        }
+        // the flight constructors run the usual validation
+        return builder.build();
+    }
+
+    private Airport airport(String code) {
+        Airport airport = airportsByCode.get(code);
+        if (airport == null) {
+            throw new IllegalArgumentException(String.format("Unknown airport code '%s'", code));
+        }
+        return airport;
+    }
+
+    private Aircraft aircraft(String model) {
+        return catalog.find(model).orElseThrow(() ->
+                new IllegalArgumentException(String.format("Aircraft model '%s' is not in the catalog", model)));
+    }
+
+    private static int parseNumber(String number) {
+        try {
+            return Integer.parseInt(number);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Invalid flight number '%s'", number));
+        }
+    }
+
+    private static Date parseTime(String time, String kind) {
+        try {
+            return Date.from(Instant.parse(time));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(String.format("Invalid %s time '%s'", kind, time));
+        }
+    }
+
+    private static Money parseFare(String fare, String currencyCode) {
+        Currency currency;
+        try {
+            currency = currencyCode.isEmpty() ? Money.DEFAULT_CURRENCY : Currency.getInstance(currencyCode);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Unknown currency '%s'", currencyCode));
+        }
+        try {
+            return Money.of(Double.parseDouble(fare), currency);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Invalid fare '%s'", fare));
+        }
+    }
+
+    // Lines of one task; parse fills in a flight or a rejection reason per line
+    private static final class Chunk {
+        private final int[] lineNumbers;
+        private final String[] lines;
+        private final ScheduledFlight[] flights;
+        private final String[] reasons;
+        private int size;
+
+        private Chunk(int capacity) {
+            this.lineNumbers = new int[capacity];
+            this.lines = new String[capacity];
+            this.flights = new ScheduledFlight[capacity];
+            this.reasons = new String[capacity];
+        }
+
+        private void add(int lineNumber, String line) {
+            lineNumbers[size] = lineNumber;
+            lines[size++] = line;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void parse(TimetableImporter importer, FarePolicy farePolicy) {
+            for (int i = 0; i < size; i++) {
+                try {
+                    flights[i] = importer.parse(lines[i], farePolicy);
+                } catch (IllegalArgumentException | ArithmeticException e) {
+                    reasons[i] = e.getMessage();
+                }
+            }
+        }
+    }
+
+    // Collected on the reading thread, which also owns all writes to the schedule
+    private final class Result {
+        private final List<ImportReport.RejectedRow> rejected = new ArrayList<>();
+        private long imported;
+        private long rejectedCount;
+
+        private void add(Chunk chunk, Schedule schedule) {
+            List<ScheduledFlight> valid = new ArrayList<>(chunk.size);
+            for (int i = 0; i < chunk.size; i++) {
+                if (chunk.flights[i] != null) {
+                    valid.add(chunk.flights[i]);
+                } else {
+                    rejectedCount++;
+                    if (rejected.size() < maxReportedRejections) {
+                        rejected.add(new ImportReport.RejectedRow(chunk.lineNumbers[i], chunk.lines[i], chunk.reasons[i]));
+                    }
+                }
+            }
+            schedule.scheduleFlights(valid);
+            imported += valid.size();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package flight.reservation.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log file of length-prefixed, checksummed entries. A torn or corrupt tail left by a crash
+ * is detected on replay and cut off, so the log always ends after the last complete entry.
+ * <p>
+ * Frame layout: {@code int length, int crc32c, byte[length] payload}. Not thread-safe; the repository
+ * writes from a single thread.
+ */
+final class WriteAheadLog implements AutoCloseable {
+    private static final int HEADER_BYTES = 8;
+
+    private final FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private long size;
+
+    private WriteAheadLog(FileChannel channel, long size) {
+        this.channel = channel;
+        this.size = size;
+    }
+
+    /**
+     * Opens a log, passing every complete entry to the consumer and truncating anything after the last one
+     * @param file the log file, created if missing
+     * @param entries receives the payload of every entry in order
+     * @return the log, positioned for appending
+     * @throws IOException if the file cannot be read or written
+     */
+    static WriteAheadLog open(Path file, Consumer<ByteBuffer> entries) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long valid = replay(channel, entries);
+            if (valid < channel.size()) {
+                channel.truncate(valid);
+                channel.force(true);
+            }
+            channel.position(valid);
+            return new WriteAheadLog(channel, valid);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static long replay(FileChannel channel, Consumer<ByteBuffer> entries) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        long position = 0;
+        long end = channel.size();
+        CRC32C crc = new CRC32C();
+        while (position + HEADER_BYTES <= end) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length < 0 || position + HEADER_BYTES + length > end) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + HEADER_BYTES);
+            payload.flip();
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            entries.accept(payload);
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            if (channel.read(target, position + target.position()) < 0) {
+                throw new IOException("Unexpected end of log");
+            }
+        }
+    }
+
+    /**
+     * Buffers an entry; it is written by the next {@link #flush(boolean)}
+     * @param payload the entry
+     */
+    void append(byte[] payload) {
+        int needed = HEADER_BYTES + payload.length;
+        if (buffer.remaining() < needed) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+    }
+
+    /**
+     * Writes all buffered entries with as few system calls as possible
+     * @param sync whether to force them to disk before returning
+     * @throws IOException if writing fails
+     */
+    void flush(boolean sync) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            size += channel.write(buffer);
+        }
+        buffer.clear();
+        if (sync) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Discards all entries, e.g. once they are covered by a snapshot
+     * @throws IOException if the file cannot be truncated
+     */
+    void reset() throws IOException {
+        buffer.clear();
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+        size = 0;
+    }
+
+    long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -4,4 +4,18 @@ public interface Aircraft {
     String getModelName();
     int getPassengerCapacity();
     int getCrewCapacity();
+
+    /**
+     * @return the interned id of the model name, see {@link AircraftModels}
+     */
+    default int getModelId() {
+        return AircraftModels.idOf(getModelName());
+    }
+
+    /**
+     * @return the cabin layout; aircraft without a described cabin get one seat per row
+     */
+    default SeatLayout getSeatLayout() {
+        return SeatLayout.singleColumn(getPassengerCapacity());
+    }
 }
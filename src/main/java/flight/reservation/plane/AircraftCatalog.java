@@ -0,0 +1,169 @@
+package flight.reservation.plane;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Registry of all known aircraft models, loaded from a comma separated file with the columns
+ * {@code model,category,passengerCapacity,crewCapacity,seatLayout}. Blank lines and lines starting with '#'
+ * are ignored.
+ * <p>
+ * The default catalog is read once from the {@code aircraft-catalog.csv} resource, or from the file named by
+ * the {@value #CATALOG_PROPERTY} system property when it is set.
+ */
+public final class AircraftCatalog {
+    public static final String CATALOG_PROPERTY = "flight.reservation.aircraftCatalog";
+    private static final String CATALOG_RESOURCE = "/aircraft-catalog.csv";
+
+    private final List<AircraftType> types;
+    private final Map<String, AircraftType> typesByModel;
+
+    private AircraftCatalog(List<AircraftType> types) {
+        Map<String, AircraftType> typesByModel = new HashMap<>(types.size() * 2);
+        for (AircraftType type : types) {
+            if (typesByModel.putIfAbsent(type.getModelName(), type) != null) {
+                throw new IllegalArgumentException(String.format("Aircraft model '%s' is defined twice", type.getModelName()));
+            }
+        }
+        this.types = Collections.unmodifiableList(new ArrayList<>(types));
+        this.typesByModel = typesByModel;
+    }
+
+    private static final class DefaultHolder {
+        private static final AircraftCatalog INSTANCE = loadDefault();
+    }
+
+    public static AircraftCatalog getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    public static AircraftCatalog of(List<AircraftType> types) {
+        return new AircraftCatalog(types);
+    }
+
+    /**
+     * Loads a catalog from a file
+     * @param file path to the catalog file
+     * @return the catalog
+     * @throws IOException if the file cannot be read
+     */
+    public static AircraftCatalog fromFile(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    /**
+     * Loads a catalog from a stream, e.g. a classpath resource
+     * @param in the catalog contents
+     * @return the catalog
+     * @throws IOException if the stream cannot be read
+     */
+    public static AircraftCatalog fromStream(InputStream in) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return read(reader);
+        }
+    }
+
+    /**
+     * @param model the model name
+     * @return the aircraft type, if the model is known
+     */
+    public Optional<AircraftType> find(String model) {
+        return Optional.ofNullable(typesByModel.get(model));
+    }
+
+    /**
+     * Returns a model of the given category
+     * @param category the category, e.g. "plane"
+     * @param model the model name
+     * @return the aircraft type, or empty if the model is unknown or of another category
+     */
+    public Optional<AircraftType> find(String category, String model) {
+        AircraftType type = typesByModel.get(model);
+        return type != null && type.getCategory().equalsIgnoreCase(category) ? Optional.of(type) : Optional.empty();
+    }
+
+    /**
+     * @return all types, in the order of the catalog file
+     */
+    public List<AircraftType> getTypes() {
+        return types;
+    }
+
+    public Set<String> getCategories() {
+        Set<String> categories = new LinkedHashSet<>();
+        types.forEach(type -> categories.add(type.getCategory()));
+        return categories;
+    }
+
+    public String[] getModelNames() {
+        return types.stream().map(AircraftType::getModelName).toArray(String[]::new);
+    }
+
+    public int size() {
+        return types.size();
+    }
+
+    private static AircraftCatalog read(BufferedReader reader) throws IOException {
+        List<AircraftType> types = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            types.add(parse(line, lineNumber));
+        }
+        return new AircraftCatalog(types);
+    }
+
+    private static AircraftType parse(String line, int lineNumber) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != 5) {
+            throw new IllegalArgumentException(
+                    String.format("Line %d: expected 5 columns but found %d", lineNumber, columns.length));
+        }
+        try {
+            int passengerCapacity = Integer.parseInt(columns[2].trim());
+            return new AircraftType(columns[0].trim(), columns[1].trim().toLowerCase(Locale.ROOT),
+                    passengerCapacity, Integer.parseInt(columns[3].trim()),
+                    SeatLayout.parse(columns[4], passengerCapacity));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Line %d: %s", lineNumber, e.getMessage()), e);
+        }
+    }
+
+    private static AircraftCatalog loadDefault() {
+        try {
+            String file = System.getProperty(CATALOG_PROPERTY);
+            if (file != null) {
+                return fromFile(Paths.get(file));
+            }
+            InputStream in = AircraftCatalog.class.getResourceAsStream(CATALOG_RESOURCE);
+            if (in == null) {
+                throw new IllegalStateException("Aircraft catalog resource " + CATALOG_RESOURCE + " is missing");
+            }
+            return fromStream(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load the aircraft catalog", e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package flight.reservation.plane;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Interns aircraft model names to small, dense integer ids, so sets of models can be stored as bitsets
+ * and membership checked with a single bit test instead of string comparisons.
+ */
+public final class AircraftModels {
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final CopyOnWriteArrayList<String> NAMES = new CopyOnWriteArrayList<>();
+
+    private AircraftModels() {
+    }
+
+    /**
+     * Returns the id of a model name, assigning the next free id the first time a name is seen
+     * @param modelName the model name, e.g. "A380"
+     * @return the interned id
+     */
+    public static int idOf(String modelName) {
+        Integer id = IDS.get(modelName);
+        if (id != null) {
+            return id;
+        }
+        synchronized (NAMES) {
+            return IDS.computeIfAbsent(modelName, name -> {
+                NAMES.add(name);
+                return NAMES.size() - 1;
+            });
+        }
+    }
+
+    public static String nameOf(int id) {
+        return NAMES.get(id);
+    }
+
+    /**
+     * Builds a bitset with the ids of the given models set
+     * @param modelNames the model names
+     * @return the bitset, one bit per model id
+     */
+    public static long[] bitsetOf(String... modelNames) {
+        long[] bits = new long[0];
+        for (String modelName : modelNames) {
+            int id = idOf(modelName);
+            int word = id >>> 6;
+            if (word >= bits.length) {
+                bits = Arrays.copyOf(bits, word + 1);
+            }
+            bits[word] |= 1L << id;
+        }
+        return bits;
+    }
+
+    public static boolean contains(long[] bitset, int id) {
+        int word = id >>> 6;
+        return word < bitset.length && (bitset[word] & (1L << id)) != 0;
+    }
+}
@@ -0,0 +1,66 @@
+package flight.reservation.plane;
+
+import java.util.Objects;
+
+/**
+ * An aircraft model as described by the {@link AircraftCatalog}. Instances are immutable and shared by
+ * every flight operating the model.
+ */
+public final class AircraftType implements Aircraft {
+    private final String model;
+    private final String category;
+    private final int passengerCapacity;
+    private final int crewCapacity;
+    private final SeatLayout seatLayout;
+    private final int modelId;
+
+    public AircraftType(String model, String category, int passengerCapacity, int crewCapacity, SeatLayout seatLayout) {
+        this.model = Objects.requireNonNull(model, "Model cannot be null");
+        this.category = Objects.requireNonNull(category, "Category cannot be null");
+        this.seatLayout = Objects.requireNonNull(seatLayout, "Seat layout cannot be null");
+        if (passengerCapacity < 0 || crewCapacity < 0) {
+            throw new IllegalArgumentException("Capacities cannot be negative");
+        }
+        if (seatLayout.getCapacity() != passengerCapacity) {
+            throw new IllegalArgumentException(String.format(
+                    "Seat layout of %s has %d seats but %d passengers", model, seatLayout.getCapacity(), passengerCapacity));
+        }
+        this.passengerCapacity = passengerCapacity;
+        this.crewCapacity = crewCapacity;
+        this.modelId = AircraftModels.idOf(model);
+    }
+
+    @Override
+    public String getModelName() {
+        return model;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    @Override
+    public int getPassengerCapacity() {
+        return passengerCapacity;
+    }
+
+    @Override
+    public int getCrewCapacity() {
+        return crewCapacity;
+    }
+
+    @Override
+    public int getModelId() {
+        return modelId;
+    }
+
+    @Override
+    public SeatLayout getSeatLayout() {
+        return seatLayout;
+    }
+
+    @Override
+    public String toString() {
+        return model;
+    }
+}
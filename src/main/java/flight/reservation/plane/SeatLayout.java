@@ -0,0 +1,113 @@
+package flight.reservation.plane;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/**
+ * Cabin layout of an aircraft: every row has the same blocks of seats separated by aisles, and rows are
+ * filled front to back until the passenger capacity is reached, so the last row may be partially used.
+ */
+public final class SeatLayout {
+    private final int[] blocks;
+    private final int seatsPerRow;
+    private final int capacity;
+
+    private SeatLayout(int[] blocks, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Seat capacity cannot be negative");
+        }
+        int seats = 0;
+        for (int block : blocks) {
+            if (block <= 0) {
+                throw new IllegalArgumentException("Seat blocks must have at least one seat");
+            }
+            seats += block;
+        }
+        if (capacity > 0 && seats == 0) {
+            throw new IllegalArgumentException("Seats need a layout with at least one block");
+        }
+        this.blocks = blocks;
+        this.seatsPerRow = seats;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Parses a layout such as "3-4-3"
+     * @param layout seats per block separated by '-', or an empty string for no seats
+     * @param capacity number of seats
+     * @return the layout
+     */
+    public static SeatLayout parse(String layout, int capacity) {
+        String trimmed = layout.trim();
+        if (trimmed.isEmpty()) {
+            return new SeatLayout(new int[0], capacity);
+        }
+        String[] parts = trimmed.split("-");
+        int[] blocks = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                blocks[i] = Integer.parseInt(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(String.format("Invalid seat layout '%s'", layout));
+            }
+        }
+        return new SeatLayout(blocks, capacity);
+    }
+
+    // One seat per row, used for aircraft that do not describe their cabin
+    public static SeatLayout singleColumn(int capacity) {
+        return new SeatLayout(capacity == 0 ? new int[0] : new int[]{1}, capacity);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    public int getRows() {
+        return seatsPerRow == 0 ? 0 : (capacity + seatsPerRow - 1) / seatsPerRow;
+    }
+
+    /**
+     * @param row row index, starting at 0
+     * @return number of usable seats in the row
+     */
+    public int getSeatsInRow(int row) {
+        if (row < 0 || row >= getRows()) {
+            throw new IllegalArgumentException(String.format("Row %d does not exist", row));
+        }
+        return Math.min(seatsPerRow, capacity - row * seatsPerRow);
+    }
+
+    /**
+     * @return seats per block between aisles, left to right
+     */
+    public int[] getBlocks() {
+        return blocks.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner("-");
+        for (int block : blocks) {
+            joiner.add(Integer.toString(block));
+        }
+        return joiner.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SeatLayout that = (SeatLayout) o;
+        return capacity == that.capacity && Arrays.equals(blocks, that.blocks);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(blocks) + capacity;
+    }
+}
@@ -1,20 +1,34 @@
 package flight.reservation.plane.factories;
 
+import flight.reservation.plane.AircraftCatalog;
 import flight.reservation.plane.factories.drone.DroneFactory;
 import flight.reservation.plane.factories.helicopter.HelicopterFactory;
 import flight.reservation.plane.factories.plane.PlaneFactory;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 public class AircraftFactoryProvider {
+    // factories are stateless, so one instance per category of the catalog is shared by all callers
+    private static final Map<String, AircraftFactory> FACTORIES = createFactories(AircraftCatalog.getDefault());
+
     public static AircraftFactory getAircraftFactory(String aircraftFactoryType) {
-        switch (aircraftFactoryType.toLowerCase()){
-            case "plane":
-                return new PlaneFactory();
-            case "helicopter":
-                return new HelicopterFactory();
-            case "drone":
-                return new DroneFactory();
-            default:
-                throw new IllegalArgumentException(String.format("Aircraft type '%s' is not recognized", aircraftFactoryType));
+        AircraftFactory factory = FACTORIES.get(aircraftFactoryType.toLowerCase(Locale.ROOT));
+        if (factory == null) {
+            throw new IllegalArgumentException(String.format("Aircraft type '%s' is not recognized", aircraftFactoryType));
+        }
+        return factory;
+    }
+
+    private static Map<String, AircraftFactory> createFactories(AircraftCatalog catalog) {
+        Map<String, AircraftFactory> factories = new HashMap<>();
+        factories.put("plane", new PlaneFactory(catalog));
+        factories.put("helicopter", new HelicopterFactory(catalog));
+        factories.put("drone", new DroneFactory(catalog));
+        for (String category : catalog.getCategories()) {
+            factories.putIfAbsent(category, new CatalogAircraftFactory(catalog, category));
         }
+        return factories;
     }
 }
@@ -0,0 +1,34 @@
+package flight.reservation.plane.factories;
+
+import flight.reservation.plane.Aircraft;
+import flight.reservation.plane.AircraftCatalog;
+
+/**
+ * Creates the aircraft of one category of an {@link AircraftCatalog}. Every call for a model returns the
+ * catalog's shared, immutable instance.
+ */
+public class CatalogAircraftFactory implements AircraftFactory {
+    private final AircraftCatalog catalog;
+    private final String category;
+    private final String label;
+
+    public CatalogAircraftFactory(AircraftCatalog catalog, String category) {
+        this(catalog, category, Character.toUpperCase(category.charAt(0)) + category.substring(1));
+    }
+
+    protected CatalogAircraftFactory(AircraftCatalog catalog, String category, String label) {
+        this.catalog = catalog;
+        this.category = category;
+        this.label = label;
+    }
+
+    @Override
+    public Aircraft createAircraft(String model) {
+        return catalog.find(category, model).orElseThrow(() ->
+                new IllegalArgumentException(String.format("%s model '%s' is not recognized", label, model)));
+    }
+
+    public String getCategory() {
+        return category;
+    }
+}
@@ -1,17 +1,14 @@
 package flight.reservation.plane.factories.drone;
 
-import flight.reservation.plane.Aircraft;
-import flight.reservation.plane.products.drone.HypaHype;
-import flight.reservation.plane.factories.AircraftFactory;
+import flight.reservation.plane.AircraftCatalog;
+import flight.reservation.plane.factories.CatalogAircraftFactory;
 
-public class DroneFactory implements AircraftFactory {
-    @Override
-    public Aircraft createAircraft(String model) {
-        switch (model) {
-            case "HypaHype":
-                return new HypaHype();
-            default:
-                throw new IllegalArgumentException(String.format("Drone model '%s' is not recognized", model));
-        }
+public class DroneFactory extends CatalogAircraftFactory {
+    public DroneFactory() {
+        this(AircraftCatalog.getDefault());
+    }
+
+    public DroneFactory(AircraftCatalog catalog) {
+        super(catalog, "drone", "Drone");
     }
 }
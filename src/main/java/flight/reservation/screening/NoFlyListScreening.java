@@ -0,0 +1,109 @@
+package flight.reservation.screening;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Screens names against an in-memory no-fly list held as a hash set that is never mutated after publication.
+ * Reloading builds a complete new set and publishes it with a single volatile write,
+ * so booking threads keep screening against the previous list until the swap and never block.
+ */
+public class NoFlyListScreening implements ScreeningService {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private volatile Set<String> names;
+
+    public NoFlyListScreening(Collection<String> names) {
+        this.names = normalizeAll(names);
+    }
+
+    public static NoFlyListScreening of(String... names) {
+        return new NoFlyListScreening(Arrays.asList(names));
+    }
+
+    /**
+     * Loads a no-fly list from a UTF-8 file with one name per line. Blank lines and lines starting with # are ignored.
+     * @param file the file to load
+     * @return a screening service for the names in the file
+     * @throws IOException if the file cannot be read
+     */
+    public static NoFlyListScreening fromFile(Path file) throws IOException {
+        return new NoFlyListScreening(readNames(file));
+    }
+
+    @Override
+    public boolean isOnNoFlyList(String name) {
+        return name != null && names.contains(normalize(name));
+    }
+
+    /**
+     * Replaces the current list with the names in the given file. The current list stays active if reading fails.
+     * @param file the file to load
+     * @throws IOException if the file cannot be read
+     */
+    public void reload(Path file) throws IOException {
+        this.names = normalizeAll(readNames(file));
+    }
+
+    /**
+     * Replaces the current list with the given names
+     * @param names the new no-fly list
+     */
+    public void replace(Collection<String> names) {
+        this.names = normalizeAll(names);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Normalizes a name for matching: strips diacritics, lower-cases and collapses whitespace,
+     * so "  JOSÉ   Müller" matches "jose muller".
+     * @param name the name to normalize
+     * @return the normalized name
+     */
+    public static String normalize(String name) {
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(stripped.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> normalizeAll(Collection<String> names) {
+        Objects.requireNonNull(names, "Names cannot be null");
+        Set<String> normalized = new HashSet<>((int) (names.size() / 0.75f) + 1);
+        for (String name : names) {
+            String key = normalize(name);
+            if (!key.isEmpty()) {
+                normalized.add(key);
+            }
+        }
+        return normalized;
+    }
+
+    private static Collection<String> readNames(Path file) throws IOException {
+        Collection<String> lines = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    lines.add(line);
+                }
+            }
+        }
+        return lines;
+    }
+}
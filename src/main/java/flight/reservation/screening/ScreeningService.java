@@ -0,0 +1,8 @@
+package flight.reservation.screening;
+
+/**
+ * Decides whether a person may be booked on a flight.
+ */
+public interface ScreeningService {
+    boolean isOnNoFlyList(String name);
+}
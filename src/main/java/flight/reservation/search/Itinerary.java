@@ -0,0 +1,85 @@
+package flight.reservation.search;
+
+import flight.reservation.Airport;
+import flight.reservation.Money;
+import flight.reservation.flight.ScheduledFlight;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * A sequence of connecting scheduled flights from an origin to a destination.
+ */
+public final class Itinerary {
+    private final List<ScheduledFlight> legs;
+    private final Money totalPrice;
+
+    Itinerary(List<ScheduledFlight> legs) {
+        if (legs.isEmpty()) {
+            throw new IllegalArgumentException("Itinerary needs at least one leg");
+        }
+        this.legs = Collections.unmodifiableList(legs);
+        Money total = Money.zero(legs.get(0).getCurrency());
+        for (ScheduledFlight leg : legs) {
+            total = total.plus(leg.getCurrentPrice());
+        }
+        this.totalPrice = total;
+    }
+
+    /**
+     * @return the legs in travel order; can be passed to Customer.createOrder directly
+     */
+    public List<ScheduledFlight> getLegs() {
+        return legs;
+    }
+
+    public int getLegCount() {
+        return legs.size();
+    }
+
+    public Airport getOrigin() {
+        return legs.get(0).getDeparture();
+    }
+
+    public Airport getDestination() {
+        return legs.get(legs.size() - 1).getArrival();
+    }
+
+    public Date getDepartureTime() {
+        return legs.get(0).getDepartureTime();
+    }
+
+    public Date getArrivalTime() {
+        return legs.get(legs.size() - 1).getArrivalTime();
+    }
+
+    /**
+     * @return sum of the leg prices at the time the itinerary was found
+     */
+    public Money getTotalPrice() {
+        return totalPrice;
+    }
+
+    @Override
+    public String toString() {
+        return legs.stream()
+                .map(leg -> leg.getNumber() + ":" + leg.getDeparture().getCode() + "-" + leg.getArrival().getCode())
+                .collect(Collectors.joining(" > ", "Itinerary{", ", price=" + totalPrice + "}"));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Itinerary itinerary = (Itinerary) o;
+        return legs.equals(itinerary.legs);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(legs);
+    }
+}
@@ -0,0 +1,77 @@
+package flight.reservation.search;
+
+import flight.reservation.flight.ScheduledFlight;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalized key of a route search: departure and arrival airport and the UTC day of departure.
+ */
+public final class RouteDay {
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final String departureCode;
+    private final String arrivalCode;
+    private final long epochDay;
+
+    public RouteDay(String departureCode, String arrivalCode, long epochDay) {
+        this.departureCode = Objects.requireNonNull(departureCode, "Departure code cannot be null");
+        this.arrivalCode = Objects.requireNonNull(arrivalCode, "Arrival code cannot be null");
+        this.epochDay = epochDay;
+    }
+
+    /**
+     * Returns the key of the searches a flight shows up in
+     * @param flight the flight
+     * @return route and departure day of the flight
+     */
+    public static RouteDay of(ScheduledFlight flight) {
+        return new RouteDay(flight.getDeparture().getCode(), flight.getArrival().getCode(),
+                epochDay(flight.getDepartureTimeMillis()));
+    }
+
+    public static long epochDay(long epochMillis) {
+        return Math.floorDiv(epochMillis, DAY_MILLIS);
+    }
+
+    public String getDepartureCode() {
+        return departureCode;
+    }
+
+    public String getArrivalCode() {
+        return arrivalCode;
+    }
+
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    public long getStartMillis() {
+        return epochDay * DAY_MILLIS;
+    }
+
+    public long getEndMillis() {
+        return (epochDay + 1) * DAY_MILLIS;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RouteDay routeDay = (RouteDay) o;
+        return epochDay == routeDay.epochDay &&
+                departureCode.equals(routeDay.departureCode) &&
+                arrivalCode.equals(routeDay.arrivalCode);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(departureCode, arrivalCode, epochDay);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s-%s/%d", departureCode, arrivalCode, epochDay);
+    }
+}
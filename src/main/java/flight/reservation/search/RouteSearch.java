@@ -0,0 +1,207 @@
+package flight.reservation.search;
+
+import flight.reservation.flight.DepartureIndex;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.metrics.LatencyHistogram;
+import flight.reservation.metrics.MetricsRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Finds the k best itineraries between two airports over the time-dependent graph formed by a {@link DepartureIndex},
+ * e.g. a Schedule or a ShardedSchedule: airports are nodes and every scheduled flight is an edge usable only at its
+ * departure time.
+ * <p>
+ * The search is best-first over partial itineraries, expanding each one through the schedule's per-airport
+ * departure index, restricted to flights leaving within the allowed connection window. Every airport is
+ * expanded at most k times, so the result is exact unless that per-airport cap is reached; once it is, a
+ * pruned itinerary could still have reached better connections, as the connection window and the leg limit
+ * depend on how an airport was reached.
+ */
+public class RouteSearch {
+    private static final LatencyHistogram SEARCH_LATENCY = MetricsRegistry.getDefault().histogram("search.itineraries");
+
+    private final DepartureIndex schedule;
+    private final long minConnectionMillis;
+    private final long maxConnectionMillis;
+    private final int maxLegs;
+    private final Map<String, Long> minConnectionMillisByAirport;
+
+    private RouteSearch(Builder builder) {
+        this.schedule = Objects.requireNonNull(builder.schedule, "Schedule cannot be null");
+        if (builder.maxLegs <= 0) {
+            throw new IllegalArgumentException("Maximum number of legs must be positive");
+        }
+        if (builder.minConnection.isNegative() || builder.maxConnection.compareTo(builder.minConnection) < 0) {
+            throw new IllegalArgumentException("Connection times must satisfy 0 <= minimum <= maximum");
+        }
+        this.minConnectionMillis = builder.minConnection.toMillis();
+        this.maxConnectionMillis = builder.maxConnection.toMillis();
+        this.maxLegs = builder.maxLegs;
+        this.minConnectionMillisByAirport = new HashMap<>(builder.minConnectionByAirport);
+    }
+
+    public static class Builder {
+        private DepartureIndex schedule;
+        private Duration minConnection = Duration.ofMinutes(45);
+        private Duration maxConnection = Duration.ofHours(24);
+        private int maxLegs = 3;
+        private final Map<String, Long> minConnectionByAirport = new HashMap<>();
+
+        // The flights to search; every search runs against one snapshot of it
+        public Builder schedule(DepartureIndex schedule) {
+            this.schedule = schedule;
+            return this;
+        }
+
+        public Builder minConnectionTime(Duration minConnection) {
+            this.minConnection = minConnection;
+            return this;
+        }
+
+        // Overrides the minimum connection time at a single airport
+        public Builder minConnectionTime(String airportCode, Duration minConnection) {
+            this.minConnectionByAirport.put(airportCode, minConnection.toMillis());
+            return this;
+        }
+
+        public Builder maxConnectionTime(Duration maxConnection) {
+            this.maxConnection = maxConnection;
+            return this;
+        }
+
+        public Builder maxLegs(int maxLegs) {
+            this.maxLegs = maxLegs;
+            return this;
+        }
+
+        public RouteSearch build() {
+            return new RouteSearch(this);
+        }
+    }
+
+    // A partial itinerary, sharing its prefix with the label it was expanded from
+    private static final class Label {
+        private final ScheduledFlight leg;
+        private final Label previous;
+        private final int legCount;
+        private final long priceMinorUnits;
+
+        private Label(ScheduledFlight leg, Label previous) {
+            this.leg = leg;
+            this.previous = previous;
+            this.legCount = previous == null ? 1 : previous.legCount + 1;
+            this.priceMinorUnits = (previous == null ? 0 : previous.priceMinorUnits) + leg.getCurrentPriceMinorUnits();
+        }
+
+        private long arrival() {
+            return leg.getArrivalTimeMillis();
+        }
+
+        private boolean visits(String airportCode) {
+            for (Label label = this; label != null; label = label.previous) {
+                if (label.leg.getDeparture().getCode().equals(airportCode)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private List<ScheduledFlight> legs() {
+            List<ScheduledFlight> legs = new ArrayList<>(legCount);
+            for (Label label = this; label != null; label = label.previous) {
+                legs.add(label.leg);
+            }
+            Collections.reverse(legs);
+            return legs;
+        }
+    }
+
+    /**
+     * Searches the k best itineraries for the given number of passengers
+     * @param originCode code of the origin airport
+     * @param destinationCode code of the destination airport
+     * @param earliestDeparture earliest departure of the first leg (inclusive)
+     * @param latestDeparture latest departure of the first leg (exclusive)
+     * @param passengers number of seats every leg must still have available
+     * @param k maximum number of itineraries to return
+     * @param objective how itineraries are ranked
+     * @return up to k itineraries, best first
+     */
+    public List<Itinerary> search(String originCode, String destinationCode, Date earliestDeparture, Date latestDeparture,
+                                  int passengers, int k, SearchObjective objective) {
+        Objects.requireNonNull(originCode, "Origin cannot be null");
+        Objects.requireNonNull(destinationCode, "Destination cannot be null");
+        Objects.requireNonNull(objective, "Objective cannot be null");
+        if (k <= 0 || originCode.equals(destinationCode)) {
+            return Collections.emptyList();
+        }
+
+        long start = System.nanoTime();
+        try {
+            // every expansion reads the same version, even while flights are being scheduled
+            return search(schedule.snapshot(), originCode, destinationCode, earliestDeparture, latestDeparture,
+                    passengers, k, objective);
+        } finally {
+            SEARCH_LATENCY.recordSince(start);
+        }
+    }
+
+    private List<Itinerary> search(DepartureIndex view, String originCode, String destinationCode, Date earliestDeparture,
+                                   Date latestDeparture, int passengers, int k, SearchObjective objective) {
+        PriorityQueue<Label> queue = new PriorityQueue<>(comparator(objective));
+        for (ScheduledFlight leg : view.searchDepartures(originCode, earliestDeparture, latestDeparture)) {
+            if (leg.getAvailableCapacity() >= passengers) {
+                queue.add(new Label(leg, null));
+            }
+        }
+
+        List<Itinerary> result = new ArrayList<>(k);
+        Map<String, Integer> expansions = new HashMap<>();
+        while (!queue.isEmpty() && result.size() < k) {
+            Label label = queue.poll();
+            String airport = label.leg.getArrival().getCode();
+            if (airport.equals(destinationCode)) {
+                result.add(new Itinerary(label.legs()));
+                continue;
+            }
+            if (label.legCount >= maxLegs || expansions.merge(airport, 1, Integer::sum) > k) {
+                continue;
+            }
+            long connectFrom = label.arrival() + minConnectionMillisByAirport.getOrDefault(airport, minConnectionMillis);
+            long connectTo = label.arrival() + maxConnectionMillis;
+            for (ScheduledFlight next : view.searchDepartures(airport, new Date(connectFrom), new Date(connectTo + 1))) {
+                String nextArrival = next.getArrival().getCode();
+                if (next.getAvailableCapacity() >= passengers
+                        && next.getCurrency().equals(label.leg.getCurrency())
+                        && !label.visits(nextArrival)) {
+                    queue.add(new Label(next, label));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Comparator<Label> comparator(SearchObjective objective) {
+        Comparator<Label> byArrival = Comparator.comparingLong(Label::arrival);
+        Comparator<Label> byLegs = Comparator.comparingInt(label -> label.legCount);
+        switch (objective) {
+            case FEWEST_LEGS:
+                return byLegs.thenComparing(byArrival);
+            case CHEAPEST:
+                return Comparator.<Label>comparingLong(label -> label.priceMinorUnits).thenComparing(byArrival).thenComparing(byLegs);
+            case EARLIEST_ARRIVAL:
+            default:
+                return byArrival.thenComparing(byLegs);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package flight.reservation.search;
+
+import flight.reservation.flight.ScheduleListener;
+import flight.reservation.flight.ScheduledFlight;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of route search results, one entry per route and departure day.
+ * <p>
+ * Registered as a {@link ScheduleListener}, the cache drops exactly the entry of a flight's route and day
+ * whenever that flight is scheduled, removed, booked or repriced. Entries also expire after a fixed time.
+ * <p>
+ * Eviction follows W-TinyLFU: new entries enter a small LRU window; when it overflows, its oldest entry only
+ * replaces the least recently used entry of the main area if it was requested more often recently, as
+ * estimated by a {@link FrequencySketch}. One-off searches therefore do not push out popular routes.
+ * Hits are served from a concurrent map without locking; the eviction order is updated only when its lock
+ * is free, so reads never wait for each other.
+ * @param <V> type of the cached results
+ */
+public class SearchCache<V> implements ScheduleListener {
+    // invalidations are counted per stripe, so a load can tell whether its key was invalidated meanwhile
+    private static final int STRIPES = 1024;
+
+    private final int maximumSize;
+    private final int windowSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<RouteDay, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLongArray invalidationStamps = new AtomicLongArray(STRIPES);
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final LinkedHashMap<RouteDay, Entry<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<RouteDay, Entry<V>> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtMillis;
+
+        private Entry(V value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private SearchCache(Builder builder) {
+        if (builder.maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        if (builder.ttl.isNegative() || builder.ttl.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        this.maximumSize = builder.maximumSize;
+        this.windowSize = Math.max(1, builder.maximumSize / 100);
+        this.ttlMillis = builder.ttl.toMillis();
+        this.clock = Objects.requireNonNull(builder.clock, "Clock cannot be null");
+        this.sketch = new FrequencySketch(builder.maximumSize);
+    }
+
+    public static class Builder {
+        private int maximumSize = 10_000;
+        private Duration ttl = Duration.ofMinutes(1);
+        private LongSupplier clock = System::currentTimeMillis;
+
+        public Builder maximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        // Upper bound for how long a result is served, e.g. while prices drift towards departure
+        public Builder ttl(Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        // Source of the current time in epoch milliseconds
+        public Builder clock(LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public <V> SearchCache<V> build() {
+            return new SearchCache<>(this);
+        }
+    }
+
+    /**
+     * Returns the cached result for a route and day, loading and caching it on a miss
+     * @param key route and departure day
+     * @param loader computes the result from the schedule
+     * @return the result
+     */
+    public V get(RouteDay key, Function<RouteDay, V> loader) {
+        Objects.requireNonNull(key, "Key cannot be null");
+        long now = clock.getAsLong();
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            if (entry.expiresAtMillis > now) {
+                hits.increment();
+                recordHit(key);
+                return entry.value;
+            }
+            if (entries.remove(key, entry)) {
+                expirations.increment();
+                discard(key, entry);
+            }
+        }
+        misses.increment();
+        int stripe = stripe(key);
+        long stamp = invalidationStamps.get(stripe);
+        V value = loader.apply(key);
+        Entry<V> loaded = new Entry<>(value, now + ttlMillis);
+        entries.put(key, loaded);
+        if (invalidationStamps.get(stripe) != stamp) {
+            // the key may have been invalidated while loading, so the result may already be stale
+            entries.remove(key, loaded);
+            return value;
+        }
+        admit(key, loaded);
+        return value;
+    }
+
+    /**
+     * Drops the cached result of a route and day
+     * @param key route and departure day
+     */
+    public void invalidate(RouteDay key) {
+        invalidationStamps.incrementAndGet(stripe(key));
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            invalidations.increment();
+            discard(key, removed);
+        }
+    }
+
+    public void invalidateAll() {
+        for (RouteDay key : entries.keySet()) {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void flightChanged(ScheduledFlight flight) {
+        invalidate(RouteDay.of(flight));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the share of lookups answered from the cache
+     * @return hits divided by all lookups, or 0 before the first lookup
+     */
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    // Entries dropped to stay within the maximum size
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    private void recordHit(RouteDay key) {
+        if (policyLock.tryLock()) {
+            try {
+                sketch.increment(key);
+                if (window.get(key) == null) {
+                    main.get(key);
+                }
+            } finally {
+                policyLock.unlock();
+            }
+        }
+    }
+
+    private void admit(RouteDay key, Entry<V> entry) {
+        policyLock.lock();
+        try {
+            sketch.increment(key);
+            if (entries.get(key) != entry) {
+                return;
+            }
+            main.remove(key);
+            window.put(key, entry);
+            if (window.size() <= windowSize) {
+                return;
+            }
+            Iterator<Map.Entry<RouteDay, Entry<V>>> oldest = window.entrySet().iterator();
+            Map.Entry<RouteDay, Entry<V>> candidate = oldest.next();
+            oldest.remove();
+            if (main.size() < maximumSize - windowSize) {
+                main.put(candidate.getKey(), candidate.getValue());
+                return;
+            }
+            if (main.isEmpty()) {
+                evict(candidate);
+                return;
+            }
+            Iterator<Map.Entry<RouteDay, Entry<V>>> leastRecent = main.entrySet().iterator();
+            Map.Entry<RouteDay, Entry<V>> victim = leastRecent.next();
+            if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())) {
+                leastRecent.remove();
+                main.put(candidate.getKey(), candidate.getValue());
+                evict(victim);
+            } else {
+                evict(candidate);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private void evict(Map.Entry<RouteDay, Entry<V>> evicted) {
+        if (entries.remove(evicted.getKey(), evicted.getValue())) {
+            evictions.increment();
+        }
+    }
+
+    private void discard(RouteDay key, Entry<V> entry) {
+        policyLock.lock();
+        try {
+            window.remove(key, entry);
+            main.remove(key, entry);
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private static int stripe(RouteDay key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SearchCache{size=%d, hitRatio=%.3f, evictions=%d, expirations=%d, invalidations=%d}",
+                size(), getHitRatio(), getEvictions(), getExpirations(), getInvalidations());
+    }
+}
@@ -0,0 +1,10 @@
+package flight.reservation.search;
+
+/**
+ * What "best" means when ranking itineraries. Ties are broken by earliest arrival, then fewest legs.
+ */
+public enum SearchObjective {
+    EARLIEST_ARRIVAL,
+    FEWEST_LEGS,
+    CHEAPEST
+}
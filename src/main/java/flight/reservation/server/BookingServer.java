@@ -0,0 +1,539 @@
+package flight.reservation.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import flight.reservation.CustomerRegistry;
+import flight.reservation.Money;
+import flight.reservation.Passenger;
+import flight.reservation.flight.FlightSchedule;
+import flight.reservation.flight.ItineraryBooking;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.order.FlightOrder;
+import flight.reservation.order.Order;
+import flight.reservation.order.SeatHoldManager;
+import flight.reservation.persistence.OrderRepository;
+import flight.reservation.payment.CreditCardPayment;
+import flight.reservation.payment.PayPalPayment;
+import flight.reservation.payment.PaymentStrategy;
+import flight.reservation.search.Itinerary;
+import flight.reservation.search.RouteDay;
+import flight.reservation.search.RouteSearch;
+import flight.reservation.search.SearchCache;
+import flight.reservation.search.SearchObjective;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Lightweight HTTP/JSON front-end for searching, booking and paying flights of a {@link FlightSchedule}.
+ * Every request runs on its own virtual thread, so slow clients and blocking payments only park a
+ * virtual thread instead of occupying a platform thread from a pool.
+ * <p>
+ * Endpoints:
+ * <ul>
+ *     <li>{@code GET /flights?number=1} or {@code GET /flights?from=BER&to=FRA[&after=..&before=..]} (ISO-8601 instants,
+ *     at most 7 days apart)</li>
+ *     <li>{@code GET /itineraries?from=BER&to=MAD[&after=..&before=..&passengers=1&k=3&objective=EARLIEST_ARRIVAL]}
+ *     lists the best connections, at most 10</li>
+ *     <li>{@code POST /orders} with {@code {"name", "email", "passengers": [..], "flights": [{"number", "departureTime"}]}};
+ *     the price is the current fare of every leg per passenger. An optional {@code "price"} (and {@code "currency"})
+ *     quoted to the client is only accepted if it still matches.</li>
+ *     <li>{@code GET /orders/{id}}</li>
+ *     <li>{@code GET /orders?email=..} lists the orders of a customer</li>
+ *     <li>{@code POST /orders/{id}/payment} with {@code {"method": "paypal", "email", "password"}}
+ *     or {@code {"method": "creditcard", "number", "expirationDate", "cvv"}}</li>
+ * </ul>
+ */
+public class BookingServer implements AutoCloseable {
+    private static final int BACKLOG = 4096;
+    // longest route search window, so one request cannot fill the search cache with thousands of days
+    private static final int MAX_SEARCH_DAYS = 7;
+    private static final int MAX_ITINERARIES = 10;
+
+    private final FlightSchedule schedule;
+    private final RouteSearch routeSearch;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final CustomerRegistry customers = new CustomerRegistry();
+    private final SeatHoldManager seatHolds;
+    private final OrderRepository repository;
+    private final SearchCache<List<CachedFlight>> searchCache = new SearchCache.Builder().build();
+
+    public BookingServer(FlightSchedule schedule, InetSocketAddress address) throws IOException {
+        this(schedule, address, null);
+    }
+
+    public BookingServer(FlightSchedule schedule, InetSocketAddress address, SeatHoldManager seatHolds) throws IOException {
+        this(schedule, address, seatHolds, null);
+    }
+
+    /**
+     * @param schedule the flights to sell, a single or a sharded schedule
+     * @param address address to listen on
+     * @param seatHolds releases the seats of orders that are not paid in time, or null to hold seats until paid
+     * @param repository stores orders durably and restores them on start, or null to keep orders in memory only
+     * @throws IOException if the server cannot bind the address
+     */
+    public BookingServer(FlightSchedule schedule, InetSocketAddress address, SeatHoldManager seatHolds,
+                         OrderRepository repository) throws IOException {
+        this.schedule = Objects.requireNonNull(schedule, "Schedule cannot be null");
+        this.routeSearch = new RouteSearch.Builder().schedule(schedule).build();
+        this.seatHolds = seatHolds;
+        this.repository = repository;
+        schedule.addListener(searchCache);
+        if (repository != null) {
+            restoreOrders();
+        }
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server.setExecutor(executor);
+        this.server.createContext("/flights", exchange -> handle(exchange, this::flights));
+        this.server.createContext("/itineraries", exchange -> handle(exchange, this::itineraries));
+        this.server.createContext("/orders", exchange -> handle(exchange, this::orders));
+    }
+
+    private void restoreOrders() {
+        for (FlightOrder order : repository.restore(schedule)) {
+            customers.addOrder(order);
+            if (seatHolds != null && !order.isClosed()) {
+                seatHolds.hold(order);
+            }
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+        schedule.removeListener(searchCache);
+    }
+
+    /**
+     * Returns the cache of route search results, e.g. to read its hit ratio
+     * @return the search cache
+     */
+    public SearchCache<?> getSearchCache() {
+        return searchCache;
+    }
+
+    private interface Route {
+        Response apply(HttpExchange exchange) throws IOException;
+    }
+
+    private static final class Response {
+        private final int status;
+        private final Object body;
+
+        private Response(int status, Object body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private Response flights(HttpExchange exchange) {
+        requireMethod(exchange, "GET");
+        Map<String, String> query = queryParameters(exchange);
+        List<ScheduledFlight> found;
+        if (query.containsKey("number")) {
+            found = schedule.searchScheduledFlights(parseInt(query.get("number"), "number"));
+        } else {
+            String from = required(query, "from");
+            String to = required(query, "to");
+            Instant after = query.containsKey("after") ? parseInstant(query.get("after"), "after") : Instant.now();
+            Instant before = query.containsKey("before") ? parseInstant(query.get("before"), "before") : after.plus(1, ChronoUnit.DAYS);
+            return new Response(200, searchRoute(from, to, after.toEpochMilli(), before.toEpochMilli()));
+        }
+        return new Response(200, found.stream().map(BookingServer::toJson).collect(Collectors.toList()));
+    }
+
+    // Route searches are answered from cached per-day results, filtered to the requested window
+    private List<Map<String, Object>> searchRoute(String from, String to, long after, long before) {
+        List<Map<String, Object>> found = new ArrayList<>();
+        if (after >= before) {
+            return found;
+        }
+        requireSearchWindow(after, before);
+        for (long day = RouteDay.epochDay(after); day <= RouteDay.epochDay(before - 1); day++) {
+            for (CachedFlight flight : searchCache.get(new RouteDay(from, to, day), this::loadRouteDay)) {
+                if (flight.departureMillis >= after && flight.departureMillis < before) {
+                    found.add(flight.json);
+                }
+            }
+        }
+        return found;
+    }
+
+    private List<CachedFlight> loadRouteDay(RouteDay key) {
+        List<CachedFlight> flights = new ArrayList<>();
+        for (ScheduledFlight flight : schedule.searchScheduledFlights(key.getDepartureCode(), key.getArrivalCode(),
+                new Date(key.getStartMillis()), new Date(key.getEndMillis()))) {
+            flights.add(new CachedFlight(flight.getDepartureTimeMillis(), Collections.unmodifiableMap(toJson(flight))));
+        }
+        return flights;
+    }
+
+    // Connections may leave from airports on other shards; the route search follows them through a snapshot
+    private Response itineraries(HttpExchange exchange) {
+        requireMethod(exchange, "GET");
+        Map<String, String> query = queryParameters(exchange);
+        String from = required(query, "from");
+        String to = required(query, "to");
+        Instant after = query.containsKey("after") ? parseInstant(query.get("after"), "after") : Instant.now();
+        Instant before = query.containsKey("before") ? parseInstant(query.get("before"), "before") : after.plus(1, ChronoUnit.DAYS);
+        requireSearchWindow(after.toEpochMilli(), before.toEpochMilli());
+        int passengers = query.containsKey("passengers") ? parseInt(query.get("passengers"), "passengers") : 1;
+        int k = query.containsKey("k") ? parseInt(query.get("k"), "k") : 3;
+        if (passengers <= 0 || k <= 0 || k > MAX_ITINERARIES) {
+            throw new IllegalArgumentException(String.format("'passengers' must be positive and 'k' between 1 and %d", MAX_ITINERARIES));
+        }
+        SearchObjective objective = query.containsKey("objective")
+                ? parseObjective(query.get("objective"))
+                : SearchObjective.EARLIEST_ARRIVAL;
+        List<Map<String, Object>> found = new ArrayList<>();
+        for (Itinerary itinerary : routeSearch.search(from, to, Date.from(after), Date.from(before), passengers, k, objective)) {
+            found.add(toJson(itinerary));
+        }
+        return new Response(200, found);
+    }
+
+    private static void requireSearchWindow(long after, long before) {
+        if (before - after > TimeUnit.DAYS.toMillis(MAX_SEARCH_DAYS)) {
+            throw new IllegalArgumentException(String.format("Search window cannot exceed %d days", MAX_SEARCH_DAYS));
+        }
+    }
+
+    // A flight as rendered at the time it was cached
+    private static final class CachedFlight {
+        private final long departureMillis;
+        private final Map<String, Object> json;
+
+        private CachedFlight(long departureMillis, Map<String, Object> json) {
+            this.departureMillis = departureMillis;
+            this.json = json;
+        }
+    }
+
+    private Response orders(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        // path is "", "orders", [id], ["payment"]
+        if (path.length == 2) {
+            if (exchange.getRequestMethod().equalsIgnoreCase("GET")) {
+                return customerOrders(required(queryParameters(exchange), "email"));
+            }
+            requireMethod(exchange, "POST");
+            return createOrder(Json.parseObject(readBody(exchange)));
+        }
+        FlightOrder order = customers.findOrder(parseOrderId(path[2]))
+                .orElseThrow(() -> new NoSuchElementException("Order " + path[2] + " not found"));
+        if (path.length == 3) {
+            requireMethod(exchange, "GET");
+            return new Response(200, toJson(order));
+        }
+        if (path.length == 4 && path[3].equals("payment")) {
+            requireMethod(exchange, "POST");
+            return pay(order, Json.parseObject(readBody(exchange)));
+        }
+        throw new NoSuchElementException("Unknown resource " + exchange.getRequestURI().getPath());
+    }
+
+    private Response createOrder(Map<String, Object> request) {
+        String email = string(request, "email");
+        String name = string(request, "name");
+        List<String> passengerNames = new ArrayList<>();
+        for (Object passenger : list(request, "passengers")) {
+            passengerNames.add(String.valueOf(passenger));
+        }
+        List<ScheduledFlight> flights = new ArrayList<>();
+        for (Object leg : list(request, "flights")) {
+            flights.add(resolveFlight(leg));
+        }
+        FlightOrder order;
+        if (request.containsKey("price")) {
+            Money quoted = price(request);
+            Money price = ItineraryBooking.quote(flights, passengerNames.size());
+            if (!quoted.equals(price)) {
+                throw new IllegalStateException(String.format("Quoted price %s does not match the current price %s", quoted, price));
+            }
+            order = customers.createOrder(name, email, passengerNames, flights, price);
+        } else {
+            order = customers.createOrder(name, email, passengerNames, flights);
+        }
+        if (seatHolds != null) {
+            seatHolds.hold(order);
+        }
+        if (repository != null) {
+            repository.saveBooking(order).join();
+        }
+        return new Response(201, toJson(order));
+    }
+
+    private Response customerOrders(String email) {
+        List<Map<String, Object>> found = new ArrayList<>();
+        for (Order order : customers.getOrders(email)) {
+            found.add(toJson((FlightOrder) order));
+        }
+        return new Response(200, found);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ScheduledFlight resolveFlight(Object leg) {
+        if (!(leg instanceof Map)) {
+            throw new IllegalArgumentException("Each flight must be an object with a number and an optional departureTime");
+        }
+        Map<String, Object> flight = (Map<String, Object>) leg;
+        int number = integer(flight, "number");
+        List<ScheduledFlight> candidates = schedule.searchScheduledFlights(number);
+        Object departureTime = flight.get("departureTime");
+        if (departureTime != null) {
+            long departure = parseInstant(String.valueOf(departureTime), "departureTime").toEpochMilli();
+            candidates = candidates.stream()
+                    .filter(candidate -> candidate.getDepartureTime().getTime() == departure)
+                    .collect(Collectors.toList());
+        }
+        if (candidates.isEmpty()) {
+            throw new NoSuchElementException("Scheduled flight " + number + " not found");
+        }
+        return candidates.get(0);
+    }
+
+    private Response pay(FlightOrder order, Map<String, Object> request) {
+        PaymentStrategy strategy;
+        String method = string(request, "method");
+        switch (method.toLowerCase()) {
+            case "paypal":
+                strategy = new PayPalPayment(string(request, "email"), string(request, "password"));
+                break;
+            case "creditcard":
+                Date expiration = Date.from(parseInstant(string(request, "expirationDate"), "expirationDate"));
+                strategy = new CreditCardPayment(string(request, "number"), expiration, string(request, "cvv"), 0);
+                break;
+            default:
+                throw new IllegalArgumentException(String.format("Payment method '%s' is not recognized", method));
+        }
+        order.setPaymentStrategy(strategy);
+        boolean paid = order.processOrder();
+        if (paid && repository != null) {
+            repository.saveClosed(order).join();
+        }
+        Map<String, Object> body = toJson(order);
+        body.put("paid", paid);
+        return new Response(paid ? 200 : 402, body);
+    }
+
+    private static Map<String, Object> toJson(ScheduledFlight flight) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("number", flight.getNumber());
+        json.put("departure", flight.getDeparture().getCode());
+        json.put("arrival", flight.getArrival().getCode());
+        json.put("aircraft", flight.getAircraft().getModelName());
+        json.put("departureTime", flight.getDepartureTime().toInstant().toString());
+        json.put("price", flight.getCurrentPrice().toDouble());
+        json.put("currency", flight.getCurrency().getCurrencyCode());
+        json.put("availableSeats", flight.getAvailableCapacity());
+        return json;
+    }
+
+    private static Map<String, Object> toJson(Itinerary itinerary) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("legs", itinerary.getLegs().stream().map(BookingServer::toJson).collect(Collectors.toList()));
+        json.put("departureTime", itinerary.getDepartureTime().toInstant().toString());
+        json.put("arrivalTime", itinerary.getArrivalTime().toInstant().toString());
+        json.put("price", itinerary.getTotalPrice().toDouble());
+        json.put("currency", itinerary.getTotalPrice().getCurrency().getCurrencyCode());
+        return json;
+    }
+
+    private static Map<String, Object> toJson(FlightOrder order) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", order.getId().toString());
+        json.put("customer", order.getCustomer().getEmail());
+        json.put("passengers", order.getPassengers().stream().map(Passenger::getName).collect(Collectors.toList()));
+        json.put("price", order.getPrice().toDouble());
+        json.put("currency", order.getCurrency().getCurrencyCode());
+        json.put("closed", order.isClosed());
+        json.put("state", order.getState().name());
+        return json;
+    }
+
+    private static void handle(HttpExchange exchange, Route route) throws IOException {
+        Response response;
+        try {
+            response = route.apply(exchange);
+        } catch (NoSuchElementException e) {
+            response = error(404, e);
+        } catch (UnsupportedOperationException e) {
+            response = error(405, e);
+        } catch (IllegalArgumentException e) {
+            response = error(400, e);
+        } catch (IllegalStateException e) {
+            response = error(409, e);
+        } catch (RuntimeException e) {
+            response = error(500, e);
+        }
+        byte[] body = Json.write(response.body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Response error(int status, RuntimeException e) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        return new Response(status, body);
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equalsIgnoreCase(method)) {
+            throw new UnsupportedOperationException("Method " + exchange.getRequestMethod() + " is not allowed");
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static String required(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Query parameter '" + name + "' is required");
+        }
+        return value;
+    }
+
+    private static String string(Map<String, Object> object, String field) {
+        Object value = object.get(field);
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException("Field '" + field + "' must be a string");
+        }
+        return (String) value;
+    }
+
+    private static double number(Map<String, Object> object, String field) {
+        Object value = object.get(field);
+        if (!(value instanceof Double)) {
+            throw new IllegalArgumentException("Field '" + field + "' must be a number");
+        }
+        return (Double) value;
+    }
+
+    private static int integer(Map<String, Object> object, String field) {
+        double value = number(object, field);
+        if (value != Math.rint(value) || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Field '" + field + "' must be an integer");
+        }
+        return (int) value;
+    }
+
+    private static Money price(Map<String, Object> object) {
+        double amount = number(object, "price");
+        Currency currency = currency(object);
+        try {
+            return Money.of(amount, currency);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Field 'price' is out of range");
+        }
+    }
+
+    private static Currency currency(Map<String, Object> object) {
+        Object code = object.get("currency");
+        if (code == null) {
+            return Money.DEFAULT_CURRENCY;
+        }
+        try {
+            return Currency.getInstance(String.valueOf(code));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Field 'currency' must be an ISO 4217 currency code");
+        }
+    }
+
+    private static List<?> list(Map<String, Object> object, String field) {
+        Object value = object.get(field);
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("Field '" + field + "' must be an array");
+        }
+        return (List<?>) value;
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + name + "' must be an integer");
+        }
+    }
+
+    private static Instant parseInstant(String value, String name) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("'" + name + "' must be an ISO-8601 instant");
+        }
+    }
+
+    private static SearchObjective parseObjective(String value) {
+        try {
+            return SearchObjective.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Objective '%s' is not recognized", value));
+        }
+    }
+
+    private static UUID parseOrderId(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new NoSuchElementException("Order " + value + " not found");
+        }
+    }
+}
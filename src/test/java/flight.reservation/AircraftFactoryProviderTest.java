@@ -0,0 +1,67 @@
+package flight.reservation;
+
+import flight.reservation.plane.Aircraft;
+import flight.reservation.plane.AircraftCatalog;
+import flight.reservation.plane.AircraftModels;
+import flight.reservation.plane.AircraftType;
+import flight.reservation.plane.factories.AircraftFactoryProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Aircraft Factory Provider Tests")
+public class AircraftFactoryProviderTest {
+
+    @Test
+    @DisplayName("then factories and aircraft of the same model are shared instances")
+    void thenInstancesAreShared() {
+        assertSame(AircraftFactoryProvider.getAircraftFactory("plane"), AircraftFactoryProvider.getAircraftFactory("Plane"));
+        Aircraft first = AircraftFactoryProvider.getAircraftFactory("plane").createAircraft("A380");
+        Aircraft second = AircraftFactoryProvider.getAircraftFactory("plane").createAircraft("A380");
+        assertSame(first, second);
+    }
+
+    @Test
+    @DisplayName("then every helicopter reports its own model")
+    void thenHelicoptersReportTheirModel() {
+        Aircraft h2 = AircraftFactoryProvider.getAircraftFactory("helicopter").createAircraft("H2");
+        assertEquals("H2", h2.getModelName());
+        assertEquals(AircraftModels.idOf("H2"), h2.getModelId());
+        assertNotEquals(AircraftFactoryProvider.getAircraftFactory("helicopter").createAircraft("H1").getModelId(), h2.getModelId());
+    }
+
+    @Test
+    @DisplayName("then unknown types and models are rejected")
+    void thenUnknownModelsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> AircraftFactoryProvider.getAircraftFactory("balloon"));
+        assertThrows(IllegalArgumentException.class, () -> AircraftFactoryProvider.getAircraftFactory("drone").createAircraft("A380"));
+    }
+
+    @Test
+    @DisplayName("then a catalog file defines new models and their seat layout")
+    void thenCatalogDefinesModels() throws IOException {
+        AircraftCatalog catalog = AircraftCatalog.fromStream(new ByteArrayInputStream((
+                "# model,category,passengerCapacity,crewCapacity,seatLayout\n"
+                        + "B737,plane,189,6,3-3\n"
+                        + "Zeppelin NT,airship,12,2,2\n").getBytes(StandardCharsets.UTF_8)));
+
+        AircraftType b737 = catalog.find("plane", "B737").orElseThrow();
+        assertEquals(32, b737.getSeatLayout().getRows());
+        assertEquals(3, b737.getSeatLayout().getSeatsInRow(31));
+        assertTrue(catalog.find("plane", "Zeppelin NT").isEmpty());
+        assertTrue(catalog.getCategories().contains("airship"));
+    }
+
+    @Test
+    @DisplayName("then an invalid catalog line is rejected with its line number")
+    void thenInvalidCatalogLineIsRejected() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> AircraftCatalog.fromStream(
+                new ByteArrayInputStream("A380,plane,500,42,3-4-3\nA320,plane,many,6,3-3\n".getBytes(StandardCharsets.UTF_8))));
+        assertTrue(error.getMessage().startsWith("Line 2"));
+    }
+}
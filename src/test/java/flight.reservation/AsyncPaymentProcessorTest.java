@@ -0,0 +1,167 @@
+package flight.reservation;
+
+import flight.reservation.order.FlightOrder;
+import flight.reservation.order.OrderState;
+import flight.reservation.payment.AsyncPaymentProcessor;
+import flight.reservation.payment.PayPalPayment;
+import flight.reservation.payment.PaymentGateway;
+import flight.reservation.payment.PaymentRequest;
+import flight.reservation.payment.PaymentStrategy;
+import flight.reservation.payment.SimulatedPaymentGateway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Async Payment Processor Tests")
+public class AsyncPaymentProcessorTest {
+    private final PayPalPayment payPal = new PayPalPayment("user@example.com", "password123");
+    private AsyncPaymentProcessor processor;
+
+    @AfterEach
+    public void closeProcessor() {
+        if (processor != null) {
+            processor.close();
+        }
+    }
+
+    @Nested
+    @DisplayName("Given a simulated gateway")
+    class GivenASimulatedGateway {
+
+        @Test
+        @DisplayName("then an order should be paid and closed asynchronously")
+        void thenOrderShouldBeClosed() throws Exception {
+            processor = new AsyncPaymentProcessor.Builder().gateway(new SimulatedPaymentGateway(5)).build();
+            FlightOrder order = new FlightOrder(Collections.emptyList(), new Customer("Max Mustermann", "amanda@ya.com"));
+            order.setPrice(Money.of(180));
+            CompletableFuture<Boolean> paid = order.processOrderAsync(processor.async(payPal));
+            assertTrue(paid.get(5, TimeUnit.SECONDS));
+            assertTrue(order.isClosed());
+        }
+
+        @Test
+        @DisplayName("then a payment that timed out before the gateway answered should not be charged")
+        void thenTimedOutPaymentShouldNotBeCharged() throws Exception {
+            AtomicInteger charges = new AtomicInteger();
+            PaymentStrategy counting = amount -> charges.incrementAndGet() > 0;
+            processor = new AsyncPaymentProcessor.Builder()
+                    .gateway(new SimulatedPaymentGateway(200))
+                    .timeout(50, TimeUnit.MILLISECONDS)
+                    .build();
+            FlightOrder order = new FlightOrder(Collections.emptyList(), new Customer("Max Mustermann", "amanda@ya.com"));
+            order.setPrice(Money.of(180));
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                    () -> order.processOrderAsync(processor.async(counting)).get(5, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof TimeoutException);
+            assertEquals(OrderState.OPEN, order.getState());
+            Thread.sleep(400);
+            assertEquals(0, charges.get());
+        }
+
+        @Test
+        @DisplayName("then concurrent payments should be sent in batches")
+        void thenPaymentsShouldBeBatched() throws Exception {
+            List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+            SimulatedPaymentGateway simulated = new SimulatedPaymentGateway(20);
+            PaymentGateway recording = batch -> {
+                batchSizes.add(batch.size());
+                return simulated.process(batch);
+            };
+            processor = new AsyncPaymentProcessor.Builder().gateway(recording).workerThreads(1).maxBatchSize(10).build();
+            List<CompletableFuture<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                results.add(processor.submit(payPal, Money.of(10)));
+            }
+            for (CompletableFuture<Boolean> result : results) {
+                assertTrue(result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(30, batchSizes.stream().mapToInt(Integer::intValue).sum());
+            assertTrue(batchSizes.size() < 30, "Expected payments to be batched, got " + batchSizes);
+            assertTrue(batchSizes.stream().allMatch(size -> size <= 10));
+        }
+    }
+
+    @Nested
+    @DisplayName("Given a gateway that does not answer")
+    class GivenAStuckGateway {
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final PaymentGateway stuck = batch -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<Boolean> results = new ArrayList<>();
+            for (PaymentRequest ignored : batch) {
+                results.add(true);
+            }
+            return results;
+        };
+
+        @AfterEach
+        public void releaseGateway() {
+            release.countDown();
+        }
+
+        @Test
+        @DisplayName("then the payment should time out")
+        void thenPaymentShouldTimeOut() {
+            processor = new AsyncPaymentProcessor.Builder().gateway(stuck).timeout(50, TimeUnit.MILLISECONDS).build();
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> processor.submit(payPal, Money.of(10)).get(5, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof TimeoutException);
+        }
+
+        @Test
+        @DisplayName("and it started charging then the order should stay in payment until it answers")
+        void thenClaimedPaymentShouldNotTimeOut() throws Exception {
+            CountDownLatch claimed = new CountDownLatch(1);
+            PaymentGateway claiming = batch -> {
+                batch.forEach(PaymentRequest::claim);
+                claimed.countDown();
+                return stuck.process(batch);
+            };
+            processor = new AsyncPaymentProcessor.Builder().gateway(claiming).timeout(50, TimeUnit.MILLISECONDS).build();
+            FlightOrder order = new FlightOrder(Collections.emptyList(), new Customer("Max Mustermann", "amanda@ya.com"));
+            order.setPrice(Money.of(180));
+            CompletableFuture<Boolean> paid = order.processOrderAsync(processor.async(payPal));
+            assertTrue(claimed.await(5, TimeUnit.SECONDS));
+            Thread.sleep(200);
+            assertEquals(OrderState.PAYING, order.getState());
+
+            release.countDown();
+            assertTrue(paid.get(5, TimeUnit.SECONDS));
+            assertTrue(order.isClosed());
+        }
+
+        @Test
+        @DisplayName("and the queue is full then further payments should be rejected")
+        void thenPaymentsShouldBeRejected() throws Exception {
+            processor = new AsyncPaymentProcessor.Builder().gateway(stuck).workerThreads(1).maxBatchSize(1).queueCapacity(2).build();
+            processor.submit(payPal, Money.of(10));
+            // wait until the only worker picked up the first payment
+            long deadline = System.currentTimeMillis() + 5000;
+            while (processor.getQueuedPayments() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            processor.submit(payPal, Money.of(10));
+            processor.submit(payPal, Money.of(10));
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> processor.submit(payPal, Money.of(10)).get(5, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof RejectedExecutionException);
+        }
+    }
+}
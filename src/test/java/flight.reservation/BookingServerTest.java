@@ -0,0 +1,192 @@
+package flight.reservation;
+
+import flight.reservation.flight.Flight;
+import flight.reservation.flight.Schedule;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.plane.Aircraft;
+import flight.reservation.plane.factories.AircraftFactoryProvider;
+import flight.reservation.server.BookingServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.Date;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Booking Server Tests")
+public class BookingServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private BookingServer server;
+    private ScheduledFlight scheduledFlight;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        Schedule schedule = new Schedule();
+        Airport startAirport = new Airport("Berlin Airport", "BER", "Berlin, Berlin");
+        Airport destinationAirport = new Airport("Frankfurt Airport", "FRA", "Frankfurt, Hesse");
+        Aircraft h1Helicopter = AircraftFactoryProvider.getAircraftFactory("helicopter").createAircraft("H1");
+        Flight flight = new Flight.Builder().number(1).departure(startAirport).arrival(destinationAirport).aircraft(h1Helicopter).build();
+        scheduledFlight = schedule.scheduleFlight(flight, TestUtil.addDays(Date.from(Instant.now()), 1));
+        server = new BookingServer(schedule, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.close();
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+
+    @Nested
+    @DisplayName("Given a running booking server")
+    class GivenARunningServer {
+
+        @Test
+        @DisplayName("then a flight should be found by route")
+        void thenFlightShouldBeFound() throws Exception {
+            HttpResponse<String> response = get("/flights?from=BER&to=FRA");
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().contains("\"number\":1"));
+            assertTrue(response.body().contains("\"availableSeats\":4"));
+        }
+
+        @Test
+        @DisplayName("and the search window spans more than a week then the search should be rejected")
+        void thenLongSearchWindowShouldBeRejected() throws Exception {
+            HttpResponse<String> response = get("/flights?from=BER&to=FRA&after=2025-01-01T00:00:00Z&before=2030-01-01T00:00:00Z");
+            assertEquals(400, response.statusCode());
+            assertEquals(0, server.getSearchCache().size());
+            assertEquals(200, get("/flights?from=BER&to=FRA&after=2025-01-01T00:00:00Z&before=2025-01-08T00:00:00Z").statusCode());
+        }
+
+        @Test
+        @DisplayName("then itineraries should be found between two airports")
+        void thenItinerariesShouldBeFound() throws Exception {
+            HttpResponse<String> response = get("/itineraries?from=BER&to=FRA&objective=cheapest");
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().contains("\"legs\":[{\"number\":1"), response.body());
+            assertEquals(400, get("/itineraries?from=BER&to=FRA&k=0").statusCode());
+            assertEquals(400, get("/itineraries?from=BER&to=FRA&objective=shortest").statusCode());
+        }
+
+        @Test
+        @DisplayName("then a booking should be created and paid")
+        void thenBookingShouldBeCreatedAndPaid() throws Exception {
+            HttpResponse<String> booked = post("/orders", "{\"name\":\"Max Mustermann\",\"email\":\"amanda@ya.com\","
+                    + "\"passengers\":[\"Amanda\",\"Max\"],\"flights\":[{\"number\":1}]}");
+            assertEquals(201, booked.statusCode());
+            assertEquals(2, scheduledFlight.getPassengers().size());
+            Matcher id = Pattern.compile("\"id\":\"([^\"]+)\"").matcher(booked.body());
+            assertTrue(id.find());
+
+            HttpResponse<String> paid = post("/orders/" + id.group(1) + "/payment",
+                    "{\"method\":\"paypal\",\"email\":\"user@example.com\",\"password\":\"password123\"}");
+            assertEquals(200, paid.statusCode());
+            assertTrue(paid.body().contains("\"closed\":true"));
+        }
+
+        @Test
+        @DisplayName("then the order should be priced by the server from the current fares")
+        void thenOrderShouldBePricedByServer() throws Exception {
+            HttpResponse<String> booked = post("/orders", "{\"name\":\"Max Mustermann\",\"email\":\"amanda@ya.com\","
+                    + "\"passengers\":[\"Amanda\",\"Max\"],\"flights\":[{\"number\":1}]}");
+            assertEquals(201, booked.statusCode());
+            assertTrue(booked.body().contains("\"price\":200.0"), booked.body());
+        }
+
+        @Test
+        @DisplayName("and the client quotes a different price then the booking should be rejected")
+        void thenClientPriceShouldBeRejected() throws Exception {
+            HttpResponse<String> response = post("/orders", "{\"name\":\"Max Mustermann\",\"email\":\"amanda@ya.com\","
+                    + "\"passengers\":[\"Amanda\"],\"flights\":[{\"number\":1}],\"price\":0.01}");
+            assertEquals(409, response.statusCode());
+            assertEquals(0, scheduledFlight.getPassengers().size());
+
+            HttpResponse<String> matching = post("/orders", "{\"name\":\"Max Mustermann\",\"email\":\"amanda@ya.com\","
+                    + "\"passengers\":[\"Amanda\"],\"flights\":[{\"number\":1}],\"price\":100,\"currency\":\"USD\"}");
+            assertEquals(201, matching.statusCode());
+        }
+
+        @Test
+        @DisplayName("and the flight number or price is malformed then the booking should be rejected")
+        void thenMalformedNumbersShouldBeRejected() throws Exception {
+            for (String flight : new String[]{"1.7", "4294967297"}) {
+                HttpResponse<String> response = post("/orders", "{\"name\":\"Max Mustermann\",\"email\":\"amanda@ya.com\","
+                        + "\"passengers\":[\"Amanda\"],\"flights\":[{\"number\":" + flight + "}]}");
+                assertEquals(400, response.statusCode(), flight);
+            }
+            HttpResponse<String> response = post("/orders", "{\"name\":\"Max Mustermann\",\"email\":\"amanda@ya.com\","
+                    + "\"passengers\":[\"Amanda\"],\"flights\":[{\"number\":1}],\"price\":1e300}");
+            assertEquals(400, response.statusCode());
+            assertEquals(0, scheduledFlight.getPassengers().size());
+        }
+
+        @Test
+        @DisplayName("and the flight is fully booked then the booking should be rejected")
+        void thenOverbookingShouldBeRejected() throws Exception {
+            HttpResponse<String> response = post("/orders", "{\"name\":\"Max Mustermann\",\"email\":\"amanda@ya.com\","
+                    + "\"passengers\":[\"A\",\"B\",\"C\",\"D\",\"E\"],\"flights\":[{\"number\":1}]}");
+            assertEquals(409, response.statusCode());
+            assertEquals(0, scheduledFlight.getPassengers().size());
+        }
+
+        @Test
+        @DisplayName("then a route search should show the seats left after a booking")
+        void thenSearchShouldReflectBooking() throws Exception {
+            assertTrue(get("/flights?from=BER&to=FRA").body().contains("\"availableSeats\":4"));
+            post("/orders", "{\"name\":\"Max Mustermann\",\"email\":\"amanda@ya.com\","
+                    + "\"passengers\":[\"Amanda\"],\"flights\":[{\"number\":1}]}");
+
+            assertTrue(get("/flights?from=BER&to=FRA").body().contains("\"availableSeats\":3"));
+            assertTrue(server.getSearchCache().getInvalidations() > 0);
+        }
+
+        @Test
+        @DisplayName("then a customer's bookings should be listed by email")
+        void thenBookingsShouldBeListedByEmail() throws Exception {
+            post("/orders", "{\"name\":\"Max Mustermann\",\"email\":\"Amanda@Ya.com\","
+                    + "\"passengers\":[\"Amanda\"],\"flights\":[{\"number\":1}]}");
+            post("/orders", "{\"name\":\"Max Mustermann\",\"email\":\"amanda@ya.com\","
+                    + "\"passengers\":[\"Max\"],\"flights\":[{\"number\":1}]}");
+
+            HttpResponse<String> response = get("/orders?email=amanda@ya.com");
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().contains("\"passengers\":[\"Amanda\"]"));
+            assertTrue(response.body().contains("\"passengers\":[\"Max\"]"));
+            assertEquals("[]", get("/orders?email=nobody@example.com").body());
+        }
+
+        @Test
+        @DisplayName("and the order does not exist then it should not be found")
+        void thenUnknownOrderShouldNotBeFound() throws Exception {
+            assertEquals(404, get("/orders/00000000-0000-0000-0000-000000000000").statusCode());
+        }
+    }
+}
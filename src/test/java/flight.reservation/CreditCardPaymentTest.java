@@ -0,0 +1,66 @@
+package flight.reservation;
+
+import flight.reservation.payment.CreditCardPayment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Credit Card Payment Tests")
+public class CreditCardPaymentTest {
+    private static final int THREADS = 16;
+
+    private CreditCardPayment creditCard;
+
+    @BeforeEach
+    public void initCreditCard() {
+        creditCard = new CreditCardPayment("4111111111111111", TestUtil.addDays(Date.from(Instant.now()), 365), "123", 0);
+        creditCard.setBalance(100.0);
+    }
+
+    @Nested
+    @DisplayName("Given many threads paying with the same card concurrently")
+    class GivenConcurrentPayments {
+
+        @Test
+        @DisplayName("then the card should never be overdrawn")
+        void thenCardShouldNeverBeOverdrawn() throws Exception {
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int paid = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (creditCard.pay(Money.of(0.10))) {
+                            paid++;
+                        }
+                    }
+                    return paid;
+                }));
+            }
+            start.countDown();
+            int totalPaid = 0;
+            for (Future<Integer> result : results) {
+                totalPaid += result.get(30, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            assertEquals(1000, totalPaid);
+            assertEquals(0.0, creditCard.getBalance());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package flight.reservation;
+
+import flight.reservation.flight.Flight;
+import flight.reservation.flight.Schedule;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.order.FlightOrder;
+import flight.reservation.plane.factories.AircraftFactoryProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Customer Registry Tests")
+public class CustomerRegistryTest {
+    private CustomerRegistry registry;
+    private ScheduledFlight flight;
+
+    @BeforeEach
+    void initRegistry() {
+        registry = new CustomerRegistry();
+        Schedule schedule = new Schedule();
+        flight = schedule.scheduleFlight(new Flight.Builder().number(1)
+                        .departure(new Airport("Berlin Airport", "BER", "Berlin, Berlin"))
+                        .arrival(new Airport("Frankfurt Airport", "FRA", "Frankfurt, Hesse"))
+                        .aircraft(AircraftFactoryProvider.getAircraftFactory("plane").createAircraft("A380"))
+                        .build(),
+                TestUtil.addDays(Date.from(Instant.now()), 1));
+    }
+
+    @Nested
+    @DisplayName("Given registered customers")
+    class GivenRegisteredCustomers {
+
+        @Test
+        @DisplayName("then emails differing only in case and spaces name the same customer")
+        void thenEmailsAreNormalized() {
+            Customer customer = registry.register("Amanda", "Amanda@Ya.com");
+            assertSame(customer, registry.register("Someone else", " amanda@ya.com "));
+            assertSame(customer, registry.findCustomer("AMANDA@YA.COM").orElseThrow());
+            assertEquals("Amanda", customer.getName());
+            assertEquals(1, registry.getCustomerCount());
+        }
+
+        @Test
+        @DisplayName("then an order is found by its id and listed for its customer")
+        void thenOrdersAreIndexed() {
+            FlightOrder order = registry.createOrder("Amanda", "amanda@ya.com", List.of("Amanda"), List.of(flight), Money.of(100));
+
+            assertSame(order, registry.findOrder(order.getId()).orElseThrow());
+            assertEquals(List.of(order), registry.getOrders("Amanda@ya.com"));
+            assertTrue(registry.findOrder(UUID.randomUUID()).isEmpty());
+            assertTrue(registry.getOrders("nobody@example.com").isEmpty());
+        }
+
+        @Test
+        @DisplayName("then an added order is listed for the registered customer with the same email")
+        void thenAddedOrderJoinsRegisteredCustomer() {
+            Customer registered = registry.register("Amanda", "amanda@ya.com");
+            FlightOrder restored = new FlightOrder(List.of(flight), new Customer("Amanda", "AMANDA@ya.com"));
+
+            registry.addOrder(restored);
+
+            assertTrue(registered.getOrders().contains(restored));
+            assertSame(restored, registry.findOrder(restored.getId()).orElseThrow());
+        }
+    }
+
+    @Nested
+    @DisplayName("Given concurrent bookings by one customer")
+    class GivenConcurrentBookings {
+
+        @Test
+        @DisplayName("then every order is kept")
+        void thenNoOrderIsLost() throws Exception {
+            int bookings = 200;
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            List<Future<FlightOrder>> futures = new ArrayList<>();
+            try {
+                for (int i = 0; i < bookings; i++) {
+                    String passenger = "Passenger " + i;
+                    futures.add(executor.submit(() -> registry.createOrder("Amanda", "amanda@ya.com",
+                            List.of(passenger), List.of(flight), Money.of(100))));
+                }
+                for (Future<FlightOrder> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+            assertEquals(bookings, registry.getOrders("amanda@ya.com").size());
+            assertEquals(bookings, registry.getOrderCount());
+        }
+    }
+}
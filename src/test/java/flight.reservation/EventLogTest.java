@@ -0,0 +1,174 @@
+package flight.reservation;
+
+import flight.reservation.events.EventLog;
+import flight.reservation.events.EventSink;
+import flight.reservation.events.EventType;
+import flight.reservation.events.Events;
+import flight.reservation.payment.PayPalPayment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Event Log Tests")
+public class EventLogTest {
+
+    @TempDir
+    Path directory;
+
+    private EventLog.Builder builder() {
+        return new EventLog.Builder().directory(directory);
+    }
+
+    private List<String> lines(String fileName) throws IOException {
+        return Files.readAllLines(directory.resolve(fileName));
+    }
+
+    @Nested
+    @DisplayName("Given an open event log")
+    class OpenLogTest {
+
+        @Test
+        @DisplayName("then events are written as JSON lines in order")
+        void writesJsonLines() throws IOException {
+            try (EventLog log = builder().open()) {
+                assertTrue(log.emit(EventType.PAYMENT_SUCCEEDED, "credit card", 8999, "EUR"));
+                assertTrue(log.emit(EventType.ORDER_REJECTED, "say \"hi\"", 2, null));
+                log.flush();
+
+                List<String> lines = lines("events.log");
+                assertEquals(2, lines.size());
+                assertTrue(lines.get(0).matches("\\{\"time\":\"[0-9T:.\\-]+Z\",\"type\":\"PAYMENT_SUCCEEDED\","
+                        + "\"subject\":\"credit card\",\"value\":8999,\"detail\":\"EUR\"}"), lines.get(0));
+                assertTrue(lines.get(1).endsWith("\"type\":\"ORDER_REJECTED\",\"subject\":\"say \\\"hi\\\"\",\"value\":2,\"detail\":null}"),
+                        lines.get(1));
+                assertEquals(2, log.getWritten());
+            }
+        }
+
+        @Test
+        @DisplayName("then concurrent emitters lose no event when blocking on a full buffer")
+        void blockingPolicyKeepsEverything() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try (EventLog log = builder().bufferSize(16).overflowPolicy(EventLog.OverflowPolicy.BLOCK).open()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    int thread = t;
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < 2_500; i++) {
+                            log.emit(EventType.ORDER_BOOKED, "thread-" + thread, i, null);
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                log.flush();
+
+                assertEquals(0, log.getDropped());
+                assertEquals(10_000, log.getWritten());
+                assertEquals(10_000, lines("events.log").size());
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        @Test
+        @DisplayName("then the file is rotated once it exceeds its maximum size")
+        void rotatesFiles() throws IOException {
+            try (EventLog log = builder().maxFileBytes(1_000).maxFiles(3).open()) {
+                for (int i = 0; i < 100; i++) {
+                    log.emit(EventType.SEATS_SOLD_OUT, null, i, null);
+                    log.flush();
+                }
+            }
+
+            assertTrue(Files.size(directory.resolve("events.log")) <= 1_000);
+            assertTrue(Files.exists(directory.resolve("events.log.1")));
+            assertTrue(Files.exists(directory.resolve("events.log.2")));
+            assertFalse(Files.exists(directory.resolve("events.log.3")));
+            List<String> newest = lines("events.log");
+            assertTrue(newest.get(newest.size() - 1).contains("\"value\":99,"));
+        }
+
+        @Test
+        @DisplayName("then events emitted after closing are dropped and counted")
+        void dropsAfterClose() throws IOException {
+            EventLog log = builder().open();
+            log.emit(EventType.ORDER_BOOKED, "max@example.com", 1, null);
+            log.close();
+
+            assertFalse(log.emit(EventType.ORDER_BOOKED, "max@example.com", 1, null));
+            assertEquals(1, log.getDropped());
+            assertEquals(1, lines("events.log").size());
+        }
+
+        @Test
+        @DisplayName("then every event accepted while closing concurrently is written")
+        void writesEventsAcceptedDuringClose() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                EventLog log = builder().overflowPolicy(EventLog.OverflowPolicy.BLOCK).open();
+                List<Future<Integer>> accepted = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    accepted.add(executor.submit(() -> {
+                        int count = 0;
+                        while (log.emit(EventType.ORDER_BOOKED, "max@example.com", 1, null)) {
+                            count++;
+                        }
+                        return count;
+                    }));
+                }
+                Thread.sleep(20);
+                log.close();
+
+                int total = 0;
+                for (Future<Integer> future : accepted) {
+                    total += future.get();
+                }
+                assertEquals(total, log.getWritten());
+                assertEquals(total, lines("events.log").size());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Given an installed event sink")
+    class InstalledSinkTest {
+        private final EventSink previous = Events.getSink();
+        private final List<String> events = new ArrayList<>();
+
+        @AfterEach
+        void restoreSink() {
+            Events.setSink(previous);
+        }
+
+        @Test
+        @DisplayName("then payments and bookings emit events instead of printing")
+        void paymentAndBookingEmit() {
+            Events.setSink((type, subject, value, detail) -> events.add(type + " " + subject + " " + value + " " + detail));
+
+            new PayPalPayment("user@example.com", "password123").pay(Money.of(12.5));
+            new PayPalPayment("user@example.com", "wrong").pay(Money.of(1));
+            assertThrows(IllegalStateException.class,
+                    () -> new Customer("Peter", "peter@example.com").createOrder(List.of("Peter"), List.of(), 100));
+
+            assertEquals(List.of("PAYMENT_SUCCEEDED paypal 1250 USD", "PAYMENT_DECLINED paypal 100 invalid credentials",
+                    "ORDER_REJECTED peter@example.com 1 no-fly list"), events);
+        }
+    }
+}
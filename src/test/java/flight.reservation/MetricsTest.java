@@ -0,0 +1,180 @@
+package flight.reservation;
+
+import flight.reservation.metrics.Counter;
+import flight.reservation.metrics.LatencyHistogram;
+import flight.reservation.metrics.MetricsRegistry;
+import flight.reservation.metrics.MetricsReporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Metrics Tests")
+public class MetricsTest {
+    private MetricsRegistry registry;
+
+    @BeforeEach
+    void initRegistry() {
+        registry = new MetricsRegistry();
+    }
+
+    @Nested
+    @DisplayName("Given a latency histogram")
+    class LatencyHistogramTest {
+        private LatencyHistogram histogram;
+
+        @BeforeEach
+        void initHistogram() {
+            histogram = registry.histogram("test.latency");
+        }
+
+        @Test
+        @DisplayName("then an empty histogram reports zero for every statistic")
+        void emptyHistogram() {
+            assertEquals(0, histogram.getCount());
+            assertEquals(0, histogram.getMeanNanos());
+            assertEquals(0, histogram.getP99Nanos());
+            assertEquals(0, histogram.getMaxNanos());
+        }
+
+        @Test
+        @DisplayName("then percentiles are reported within the bucket precision")
+        void percentilesWithinPrecision() {
+            for (long nanos = 1; nanos <= 100_000; nanos++) {
+                histogram.record(nanos * 1000);
+            }
+
+            assertEquals(100_000, histogram.getCount());
+            assertEquals(50_000_500, histogram.getMeanNanos(), 1);
+            assertEquals(100_000_000, histogram.getMaxNanos());
+            assertWithinPrecision(50_000_000, histogram.getP50Nanos());
+            assertWithinPrecision(90_000_000, histogram.getP90Nanos());
+            assertWithinPrecision(99_000_000, histogram.getP99Nanos());
+            assertWithinPrecision(99_900_000, histogram.getP999Nanos());
+            assertEquals(100_000_000, histogram.getPercentileNanos(100));
+        }
+
+        @Test
+        @DisplayName("then small latencies are reported exactly")
+        void smallLatenciesExact() {
+            Arrays.asList(3L, 3L, 7L, 12L).forEach(histogram::record);
+
+            assertEquals(3, histogram.getP50Nanos());
+            assertEquals(12, histogram.getPercentileNanos(100));
+        }
+
+        @Test
+        @DisplayName("then recordings from concurrent threads are all counted")
+        void concurrentRecording() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < 10_000; i++) {
+                            histogram.record(i);
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            assertEquals(40_000, histogram.getCount());
+            assertEquals(9_999, histogram.getMaxNanos());
+        }
+
+        @Test
+        @DisplayName("then a percentile outside 0 to 100 is rejected")
+        void invalidPercentile() {
+            assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileNanos(101));
+        }
+
+        private void assertWithinPrecision(long expected, long actual) {
+            assertTrue(Math.abs(actual - expected) <= expected / 16,
+                    String.format("expected %d within 6.25%%, was %d", expected, actual));
+        }
+    }
+
+    @Nested
+    @DisplayName("Given a registry")
+    class RegistryTest {
+
+        @Test
+        @DisplayName("then metrics are created once per name")
+        void sameMetricPerName() {
+            Counter counter = registry.counter("test.count");
+            counter.add(2);
+            registry.counter("test.count").increment();
+
+            assertSame(counter, registry.counter("test.count"));
+            assertEquals(3, counter.getCount());
+            assertSame(registry.histogram("test.latency"), registry.histogram("test.latency"));
+            assertThrows(IllegalArgumentException.class, () -> registry.counter(""));
+        }
+
+        @Test
+        @DisplayName("then current and later metrics are exported as MXBeans")
+        void exportedToJmx() throws Exception {
+            MBeanServer server = MBeanServerFactory.newMBeanServer();
+            registry.counter("payment.failed").increment();
+            registry.exportTo(server);
+            registry.histogram("booking.createOrder").record(2_000);
+
+            assertEquals(1L, server.getAttribute(
+                    new ObjectName("flight.reservation:type=Counter,name=payment.failed"), "Count"));
+            ObjectName histogram = new ObjectName("flight.reservation:type=Histogram,name=booking.createOrder");
+            assertEquals(1L, server.getAttribute(histogram, "Count"));
+            assertEquals(2_000L, server.getAttribute(histogram, "MaxNanos"));
+        }
+
+        @Test
+        @DisplayName("then the dump lists every metric on its own line")
+        void textDump() {
+            registry.counter("payment.succeeded").add(5);
+            registry.histogram("search.route").record(1_500);
+            List<String> reports = new ArrayList<>();
+            new MetricsReporter.Builder().registry(registry).output(reports::add).build().report();
+
+            String[] lines = reports.get(0).split(System.lineSeparator());
+            assertEquals(3, lines.length);
+            assertTrue(lines[0].startsWith("# metrics at "));
+            assertEquals("payment.succeeded count=5", lines[1]);
+            assertTrue(lines[2].startsWith("search.route count=1 mean=1.5us"), lines[2]);
+        }
+    }
+
+    @Nested
+    @DisplayName("Given the booking paths")
+    class InstrumentationTest {
+
+        @Test
+        @DisplayName("then a rejected order is counted and timed")
+        void rejectedOrderRecorded() {
+            MetricsRegistry metrics = MetricsRegistry.getDefault();
+            long rejected = metrics.counter("booking.rejected").getCount();
+            long bookings = metrics.histogram("booking.createOrder").getCount();
+            Customer customer = new Customer("Peter", "peter@example.com");
+
+            assertThrows(IllegalStateException.class,
+                    () -> customer.createOrder(List.of("Peter"), List.of(), 100));
+            assertEquals(rejected + 1, metrics.counter("booking.rejected").getCount());
+            assertEquals(bookings + 1, metrics.histogram("booking.createOrder").getCount());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package flight.reservation;
+
+import flight.reservation.order.Order;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Money Tests")
+public class MoneyTest {
+
+    @Nested
+    @DisplayName("Given decimal amounts")
+    class GivenDecimalAmounts {
+
+        @Test
+        @DisplayName("then they should be stored exactly in minor units")
+        void thenAmountsShouldBeExact() {
+            assertEquals(1999, Money.of(19.99).getMinorUnits());
+            assertEquals(30, Money.of(0.1).plus(Money.of(0.2)).getMinorUnits());
+            assertEquals(1200, Money.of(1200, Currency.getInstance("JPY")).getMinorUnits());
+        }
+
+        @Test
+        @DisplayName("then they should be formatted with the currency's fraction digits")
+        void thenAmountsShouldBeFormatted() {
+            assertEquals("100.00 USD", Money.of(100).toString());
+            assertEquals("-0.05 USD", Money.ofMinor(-5).toString());
+            assertEquals("1200 JPY", Money.of(1200, Currency.getInstance("JPY")).toString());
+        }
+
+        @Test
+        @DisplayName("then mixing currencies should be rejected")
+        void thenMixingCurrenciesShouldBeRejected() {
+            assertThrows(IllegalArgumentException.class, () -> Money.of(1).plus(Money.of(1, Currency.getInstance("EUR"))));
+        }
+    }
+
+    @Nested
+    @DisplayName("Given many orders")
+    class GivenManyOrders {
+
+        @Test
+        @DisplayName("then the total revenue should be exact")
+        void thenTotalRevenueShouldBeExact() {
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 100_000; i++) {
+                Order order = new Order();
+                order.setPrice(Money.of(0.1));
+                orders.add(order);
+            }
+            assertEquals(Money.of(10_000), Order.totalRevenue(orders, Money.DEFAULT_CURRENCY));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package flight.reservation;
+
+import flight.reservation.screening.NoFlyListScreening;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("No-Fly List Screening Tests")
+public class NoFlyListScreeningTest {
+    private NoFlyListScreening screening;
+
+    @BeforeEach
+    public void initScreening() {
+        screening = NoFlyListScreening.of("Peter", "José Müller");
+    }
+
+    @Nested
+    @DisplayName("Given a no-fly list")
+    class GivenANoFlyList {
+
+        @Test
+        @DisplayName("then names should match regardless of case, accents and whitespace")
+        void thenNormalizedNamesShouldMatch() {
+            assertTrue(screening.isOnNoFlyList("peter"));
+            assertTrue(screening.isOnNoFlyList("  JOSE   muller "));
+            assertFalse(screening.isOnNoFlyList("Max Mustermann"));
+            assertFalse(screening.isOnNoFlyList(null));
+        }
+
+        @Nested
+        @DisplayName("when the list is reloaded from a file")
+        class WhenReloaded {
+
+            @Test
+            @DisplayName("then only the names in the file should be screened")
+            void thenOnlyFileNamesShouldMatch(@TempDir Path dir) throws IOException {
+                Path file = dir.resolve("no-fly.txt");
+                Files.write(file, Arrays.asList("# watchlist", "Johannes", "", "Amanda"), StandardCharsets.UTF_8);
+                screening.reload(file);
+                assertEquals(2, screening.size());
+                assertTrue(screening.isOnNoFlyList("Johannes"));
+                assertTrue(screening.isOnNoFlyList("amanda"));
+                assertFalse(screening.isOnNoFlyList("Peter"));
+            }
+
+            @Test
+            @DisplayName("and the file cannot be read then the previous list should stay active")
+            void thenPreviousListShouldStayActive(@TempDir Path dir) {
+                assertThrows(IOException.class, () -> screening.reload(dir.resolve("missing.txt")));
+                assertTrue(screening.isOnNoFlyList("Peter"));
+            }
+        }
+    }
+}
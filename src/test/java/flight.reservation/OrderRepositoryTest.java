@@ -0,0 +1,211 @@
+package flight.reservation;
+
+import flight.reservation.flight.Flight;
+import flight.reservation.flight.Schedule;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.order.FlightOrder;
+import flight.reservation.order.OrderState;
+import flight.reservation.order.SeatHoldManager;
+import flight.reservation.persistence.OrderRecord;
+import flight.reservation.persistence.OrderRepository;
+import flight.reservation.plane.factories.AircraftFactoryProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Order Repository Tests")
+public class OrderRepositoryTest {
+    private static final long DEPARTURE = TimeUnit.DAYS.toMillis(30000);
+
+    @TempDir
+    Path directory;
+
+    private Customer customer;
+
+    @BeforeEach
+    public void initCustomer() {
+        customer = new Customer("Max Mustermann", "max@example.com");
+    }
+
+    private static Schedule schedule() {
+        Schedule schedule = new Schedule();
+        Flight flight = new Flight.Builder()
+                .number(1)
+                .departure(new Airport("Berlin Airport", "BER", "Berlin, Berlin"))
+                .arrival(new Airport("Frankfurt Airport", "FRA", "Frankfurt, Hesse"))
+                .aircraft(AircraftFactoryProvider.getAircraftFactory("plane").createAircraft("A380"))
+                .build();
+        schedule.scheduleFlight(flight, new Date(DEPARTURE));
+        return schedule;
+    }
+
+    private FlightOrder book(Schedule schedule, OrderRepository repository, String... passengers) {
+        ScheduledFlight flight = schedule.searchScheduledFlight(1).orElseThrow();
+        FlightOrder order = customer.createOrder(Arrays.asList(passengers), Collections.singletonList(flight), Money.of(150));
+        repository.saveBooking(order).join();
+        return order;
+    }
+
+    private static void expire(FlightOrder order) {
+        AtomicLong now = new AtomicLong();
+        SeatHoldManager seatHolds = new SeatHoldManager.Builder()
+                .holdTime(Duration.ofMinutes(1))
+                .tick(Duration.ofSeconds(1))
+                .clock(now::get)
+                .build();
+        seatHolds.hold(order);
+        now.addAndGet(Duration.ofMinutes(2).toMillis());
+        assertEquals(1, seatHolds.expireHolds());
+    }
+
+    private OrderRepository open() throws IOException {
+        return new OrderRepository.Builder().directory(directory).snapshotEvery(1000).open();
+    }
+
+    @Test
+    @DisplayName("then bookings, payments and expiries survive a restart")
+    void thenOrdersSurviveRestart() throws IOException {
+        Schedule before = schedule();
+        FlightOrder paid;
+        FlightOrder open;
+        try (OrderRepository repository = open()) {
+            paid = book(before, repository, "Amanda", "Max");
+            open = book(before, repository, "Erika");
+            FlightOrder expired = book(before, repository, "Hans");
+            paid.setClosed();
+            repository.saveClosed(paid).join();
+            repository.saveExpired(expired).join();
+        }
+
+        Schedule after = schedule();
+        try (OrderRepository repository = open()) {
+            List<FlightOrder> restored = repository.restore(after);
+
+            assertEquals(2, restored.size());
+            assertEquals(paid.getId(), restored.get(0).getId());
+            assertTrue(restored.get(0).isClosed());
+            assertEquals(Money.of(150), restored.get(0).getPrice());
+            assertEquals(open.getId(), restored.get(1).getId());
+            assertFalse(restored.get(1).isClosed());
+            assertEquals(497, after.searchScheduledFlight(1).orElseThrow().getAvailableCapacity());
+        }
+    }
+
+    @Test
+    @DisplayName("then passengers keep their seats across a restart")
+    void thenSeatsSurviveRestart() throws IOException {
+        Schedule before = schedule();
+        ScheduledFlight flight = before.searchScheduledFlight(1).orElseThrow();
+        FlightOrder kept;
+        try (OrderRepository repository = open()) {
+            FlightOrder expired = book(before, repository, "Amanda");
+            kept = book(before, repository, "Max");
+            expire(expired);
+            repository.saveExpired(expired).join();
+        }
+        String seat = flight.getSeat(kept.getPassengers().get(0)).orElseThrow();
+
+        Schedule after = schedule();
+        try (OrderRepository repository = open()) {
+            FlightOrder restored = repository.restore(after).get(0);
+            ScheduledFlight restoredFlight = after.searchScheduledFlight(1).orElseThrow();
+            assertEquals(seat, restoredFlight.getSeat(restored.getPassengers().get(0)).orElseThrow());
+        }
+    }
+
+    @Test
+    @DisplayName("then orders whose flights are no longer scheduled are skipped")
+    void thenUnrestorableOrdersAreSkipped() throws IOException {
+        try (OrderRepository repository = open()) {
+            book(schedule(), repository, "Amanda");
+        }
+
+        try (OrderRepository repository = open()) {
+            assertTrue(repository.restore(new Schedule()).isEmpty());
+            assertEquals(1, repository.getRecoveredOrders().size());
+        }
+    }
+
+    @Test
+    @DisplayName("then an expired order is stored as expired")
+    void thenExpiredStateIsKept() {
+        ScheduledFlight flight = schedule().searchScheduledFlight(1).orElseThrow();
+        FlightOrder order = customer.createOrder(List.of("Amanda"), Collections.singletonList(flight), Money.of(150));
+        expire(order);
+        assertEquals(OrderState.EXPIRED, OrderRecord.of(order).getState());
+    }
+
+    @Test
+    @DisplayName("then orders are recovered from a snapshot plus the log written after it")
+    void thenSnapshotAndLogAreCombined() throws IOException {
+        Schedule schedule = schedule();
+        try (OrderRepository repository = open()) {
+            book(schedule, repository, "Amanda");
+            repository.snapshot().join();
+            assertEquals(0, Files.size(directory.resolve("orders.wal")));
+            book(schedule, repository, "Max");
+        }
+
+        try (OrderRepository repository = open()) {
+            assertEquals(2, repository.getRecoveredOrders().size());
+            assertEquals(Collections.singletonList("Max"), repository.getRecoveredOrders().get(1).getPassengerNames());
+        }
+    }
+
+    @Test
+    @DisplayName("then changes still queued when the repository is closed are written")
+    void thenPendingChangesAreWrittenOnClose() throws IOException {
+        Schedule schedule = schedule();
+        ScheduledFlight flight = schedule.searchScheduledFlight(1).orElseThrow();
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        try (OrderRepository repository = open()) {
+            for (int i = 0; i < 200; i++) {
+                FlightOrder order = customer.createOrder(List.of("P" + i), Collections.singletonList(flight), Money.of(150));
+                pending.add(repository.saveBooking(order));
+            }
+        }
+        pending.forEach(CompletableFuture::join);
+
+        try (OrderRepository repository = open()) {
+            assertEquals(200, repository.getRecoveredOrders().size());
+        }
+    }
+
+    @Test
+    @DisplayName("then a torn write at the end of the log is discarded")
+    void thenTornTailIsDiscarded() throws IOException {
+        Schedule schedule = schedule();
+        try (OrderRepository repository = open()) {
+            book(schedule, repository, "Amanda");
+        }
+        Path log = directory.resolve("orders.wal");
+        long valid = Files.size(log);
+        Files.write(log, new byte[]{0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (OrderRepository repository = open()) {
+            assertEquals(1, repository.getRecoveredOrders().size());
+            assertEquals(valid, Files.size(log));
+            book(schedule, repository, "Max");
+        }
+        try (OrderRepository repository = open()) {
+            assertEquals(2, repository.getRecoveredOrders().size());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package flight.reservation;
+
+import flight.reservation.flight.Flight;
+import flight.reservation.flight.Schedule;
+import flight.reservation.plane.Aircraft;
+import flight.reservation.plane.factories.AircraftFactoryProvider;
+import flight.reservation.search.Itinerary;
+import flight.reservation.search.RouteSearch;
+import flight.reservation.search.SearchObjective;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Route Search Tests")
+public class RouteSearchTest {
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    private final Airport berlin = new Airport("Berlin Airport", "BER", "Berlin, Berlin");
+    private final Airport frankfurt = new Airport("Frankfurt Airport", "FRA", "Frankfurt, Hesse");
+    private final Airport madrid = new Airport("Madrid Barajas Airport", "MAD", "Barajas, Madrid");
+    private final Airport newYork = new Airport("John F. Kennedy International Airport", "JFK", "Queens, New York, New York");
+    private final Aircraft a380 = AircraftFactoryProvider.getAircraftFactory("plane").createAircraft("A380");
+
+    private Schedule schedule;
+    private long start;
+
+    @BeforeEach
+    public void initSchedule() {
+        schedule = new Schedule();
+        start = TimeUnit.DAYS.toMillis(20000);
+    }
+
+    private void schedule(int number, Airport from, Airport to, long departureOffset, long duration, double price) {
+        Flight flight = new Flight.Builder().number(number).departure(from).arrival(to).aircraft(a380).build();
+        schedule.scheduleFlight(flight, new Date(start + departureOffset), new Date(start + departureOffset + duration));
+        schedule.searchScheduledFlight(number).get().setCurrentPrice(Money.of(price));
+    }
+
+    private List<Itinerary> search(RouteSearch search, SearchObjective objective) {
+        return search.search("BER", "JFK", new Date(start), new Date(start + 24 * HOUR), 1, 3, objective);
+    }
+
+    @Nested
+    @DisplayName("Given a schedule with a direct flight and connections via Frankfurt and Madrid")
+    class GivenConnections {
+
+        @BeforeEach
+        void initFlights() {
+            schedule(1, berlin, newYork, 10 * HOUR, 9 * HOUR, 900);
+            schedule(2, berlin, frankfurt, 0, HOUR, 100);
+            schedule(3, frankfurt, newYork, 2 * HOUR, 8 * HOUR, 400);
+            schedule(4, frankfurt, newYork, HOUR + 20 * MINUTE, 8 * HOUR, 300);
+            schedule(5, berlin, madrid, 0, 3 * HOUR, 50);
+            schedule(6, madrid, newYork, 5 * HOUR, 8 * HOUR, 250);
+        }
+
+        @Test
+        @DisplayName("then the earliest arrival respects the minimum connection time")
+        void thenEarliestArrivalRespectsMinimumConnectionTime() {
+            RouteSearch search = new RouteSearch.Builder().schedule(schedule).build();
+
+            List<Itinerary> itineraries = search(search, SearchObjective.EARLIEST_ARRIVAL);
+
+            assertEquals(3, itineraries.size());
+            Itinerary best = itineraries.get(0);
+            assertEquals(2, best.getLegCount());
+            assertEquals(3, best.getLegs().get(1).getNumber(), "Flight 4 leaves before the 45 minute connection time");
+            assertEquals(new Date(start + 10 * HOUR), best.getArrivalTime());
+            assertEquals(Money.of(500), best.getTotalPrice());
+        }
+
+        @Test
+        @DisplayName("then a shorter connection time at an airport unlocks a tighter connection")
+        void thenAirportConnectionTimeOverrideIsUsed() {
+            RouteSearch search = new RouteSearch.Builder()
+                    .schedule(schedule)
+                    .minConnectionTime("FRA", Duration.ofMinutes(10))
+                    .build();
+
+            Itinerary best = search(search, SearchObjective.EARLIEST_ARRIVAL).get(0);
+
+            assertEquals(4, best.getLegs().get(1).getNumber());
+        }
+
+        @Test
+        @DisplayName("then the other objectives rank the direct and the cheapest itinerary first")
+        void thenObjectivesChangeTheRanking() {
+            RouteSearch search = new RouteSearch.Builder().schedule(schedule).build();
+
+            assertEquals(1, search(search, SearchObjective.FEWEST_LEGS).get(0).getLegCount());
+            Itinerary cheapest = search(search, SearchObjective.CHEAPEST).get(0);
+            assertEquals(Money.of(300), cheapest.getTotalPrice());
+            assertEquals("MAD", cheapest.getLegs().get(0).getArrival().getCode());
+        }
+
+        @Test
+        @DisplayName("then limiting the number of legs leaves only the direct flight")
+        void thenMaxLegsLimitsConnections() {
+            RouteSearch search = new RouteSearch.Builder().schedule(schedule).maxLegs(1).build();
+
+            List<Itinerary> itineraries = search(search, SearchObjective.EARLIEST_ARRIVAL);
+
+            assertEquals(1, itineraries.size());
+            assertEquals(1, itineraries.get(0).getLegs().get(0).getNumber());
+        }
+    }
+}
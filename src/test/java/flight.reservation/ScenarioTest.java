@@ -62,6 +62,14 @@ public class ScenarioTest {
                 assertThrows(IllegalArgumentException.class, () -> new Flight.Builder().arrival(destinationAirport).departure(startAirport).aircraft(h1Helicopter).number(1).build());
             }
 
+            @Test
+            @DisplayName("then planes allowed in Frankfurt should still be available")
+            void thenAllowedPlanesAvailable() {
+                Aircraft a350 = AircraftFactoryProvider.getAircraftFactory("plane").createAircraft("A350");
+                assertTrue(destinationAirport.allowsAircraft(a350));
+                assertDoesNotThrow(() -> new Flight.Builder().arrival(destinationAirport).departure(startAirport).aircraft(a350).number(1).build());
+            }
+
         }
 
         @Nested
@@ -232,4 +240,59 @@ public class ScenarioTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Scenario 3: A customer books 2 passengers on a connecting itinerary from Berlin via Frankfurt to Madrid")
+    class CustomerConnectingItinerary {
+        private ScheduledFlight firstLeg;
+        private ScheduledFlight secondLeg;
+
+        @BeforeEach
+        public void init() {
+            Airport berlin = new Airport("Berlin Airport", "BER", "Berlin, Berlin");
+            Airport frankfurt = new Airport("Frankfurt Airport", "FRA", "Frankfurt, Hesse");
+            Airport madrid = new Airport("Madrid Barajas Airport", "MAD", "Barajas, Madrid");
+            Aircraft A380 = AircraftFactoryProvider.getAircraftFactory("plane").createAircraft("A380");
+            Aircraft h1Helicopter = AircraftFactoryProvider.getAircraftFactory("helicopter").createAircraft("H1");
+            Date departure = TestUtil.addDays(Date.from(Instant.now()), 3);
+            firstLeg = schedule.scheduleFlight(new Flight.Builder().number(1).departure(berlin).arrival(frankfurt).aircraft(A380).build(), departure);
+            secondLeg = schedule.scheduleFlight(new Flight.Builder().number(2).departure(frankfurt).arrival(madrid).aircraft(h1Helicopter).build(), TestUtil.addDays(departure, 1));
+            customer = new Customer("Max Mustermann", "amanda@ya.com");
+        }
+
+        @Nested
+        @DisplayName("and the second leg is fully booked")
+        class SecondLegFullyBooked {
+
+            @BeforeEach
+            public void initPassengers() {
+                secondLeg.addPassengers(Arrays.asList(new Passenger("P0"), new Passenger("P1"), new Passenger("P2")));
+            }
+
+            @Test
+            @DisplayName("then the booking should be stopped and no leg should be changed")
+            void thenNoLegShouldBeChanged() {
+                assertThrows(IllegalStateException.class, () -> customer.createOrder(Arrays.asList("Amanda", "Max"), Arrays.asList(firstLeg, secondLeg), 300));
+                assertEquals(0, firstLeg.getPassengers().size());
+                assertEquals(500, firstLeg.getAvailableCapacity());
+                assertEquals(3, secondLeg.getPassengers().size());
+                assertEquals(1, secondLeg.getAvailableCapacity());
+                assertTrue(customer.getOrders().isEmpty());
+            }
+        }
+
+        @Nested
+        @DisplayName("and both legs have seats available")
+        class BothLegsAvailable {
+
+            @Test
+            @DisplayName("then the passengers should be booked on every leg")
+            void thenAllLegsShouldBeBooked() {
+                FlightOrder order = customer.createOrder(Arrays.asList("Amanda", "Max"), Arrays.asList(firstLeg, secondLeg), 300);
+                assertEquals(2, firstLeg.getPassengers().size());
+                assertEquals(2, secondLeg.getPassengers().size());
+                assertEquals(order, customer.getOrders().get(0));
+            }
+        }
+    }
+}
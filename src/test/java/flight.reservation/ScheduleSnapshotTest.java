@@ -0,0 +1,71 @@
+package flight.reservation;
+
+import flight.reservation.flight.Flight;
+import flight.reservation.flight.Schedule;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.persistence.ScheduleSnapshot;
+import flight.reservation.plane.factories.AircraftFactoryProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Currency;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Schedule Snapshot Tests")
+public class ScheduleSnapshotTest {
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long START = TimeUnit.DAYS.toMillis(20000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("then a schedule read back from a snapshot has the same flights")
+    void thenScheduleRoundTrips() throws IOException {
+        Airport berlin = new Airport("Berlin Airport", "BER", "Berlin, Berlin");
+        Airport frankfurt = new Airport("Frankfurt Airport", "FRA", "Frankfurt, Hesse", new String[]{"A380", "A350"});
+        Airport istanbul = new Airport("Istanbul Airport", "IST", "Arnavutköy, Istanbul");
+        Schedule schedule = new Schedule();
+        schedule.scheduleFlight(new Flight.Builder().number(2).departure(frankfurt).arrival(istanbul)
+                .aircraft(AircraftFactoryProvider.getAircraftFactory("plane").createAircraft("A350")).build(),
+                new Date(START + 5 * HOUR), new Date(START + 8 * HOUR));
+        schedule.scheduleFlights(List.of(new ScheduledFlight.Builder().number(1).departure(berlin).arrival(frankfurt)
+                .aircraft(AircraftFactoryProvider.getAircraftFactory("plane").createAircraft("A380"))
+                .departureTime(new Date(START))
+                .currentPrice(Money.of(89.99, Currency.getInstance("EUR")))
+                .build()));
+
+        Path file = directory.resolve("schedule.bin");
+        ScheduleSnapshot.write(schedule, file);
+        Schedule loaded = ScheduleSnapshot.read(file);
+
+        List<ScheduledFlight> flights = loaded.getScheduledFlights();
+        assertEquals(2, flights.size());
+        assertEquals(1, flights.get(0).getNumber(), "flights are stored by departure time");
+        assertEquals(Money.of(89.99, Currency.getInstance("EUR")), flights.get(0).getCurrentPrice());
+        assertEquals(new Date(START), flights.get(0).getArrivalTime());
+        ScheduledFlight second = loaded.searchScheduledFlight(2).orElseThrow();
+        assertEquals(new Date(START + 8 * HOUR), second.getArrivalTime());
+        assertEquals("A350", second.getAircraft().getModelName());
+        assertEquals("Arnavutköy, Istanbul", second.getArrival().getLocation());
+        assertSame(flights.get(0).getArrival(), second.getDeparture(), "airports are shared between flights");
+        assertFalse(second.getDeparture().allowsModel(AircraftFactoryProvider.getAircraftFactory("helicopter").createAircraft("H1").getModelId()));
+        assertEquals(1, loaded.searchScheduledFlights("BER", "FRA", new Date(START), new Date(START + HOUR)).size());
+    }
+
+    @Test
+    @DisplayName("then a file that is not a snapshot is rejected")
+    void thenInvalidFileIsRejected() throws IOException {
+        Path file = directory.resolve("schedule.bin");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> ScheduleSnapshot.read(file));
+    }
+}
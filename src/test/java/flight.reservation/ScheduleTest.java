@@ -2,6 +2,7 @@ package flight.reservation;
 
 import flight.reservation.flight.Flight;
 import flight.reservation.flight.Schedule;
+import flight.reservation.flight.ScheduleView;
 import flight.reservation.flight.ScheduledFlight;
 import flight.reservation.plane.Aircraft;
 import flight.reservation.plane.factories.AircraftFactoryProvider;
@@ -13,10 +14,15 @@ import org.junit.jupiter.api.Test;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -229,6 +235,151 @@ public class ScheduleTest {
                 Optional<ScheduledFlight> scheduledFlightOpt = schedule.searchScheduledFlight(flights.get(0).getNumber());
                 assertTrue(scheduledFlightOpt.isEmpty());
             }
+
+            @Test
+            @DisplayName("and the first flight with the number is removed then the next one scheduled should be returned")
+            void thenNextScheduledFlightShouldBeReturned() throws ParseException {
+                SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+                ScheduledFlight first = schedule.searchScheduledFlight(flights.get(1).getNumber()).orElseThrow();
+                ScheduledFlight second = schedule.scheduleFlight(flights.get(1), TestUtil.addDays(format.parse("2020-01-01"), -5));
+                ScheduleView before = schedule.snapshot();
+                assertSame(first, schedule.searchScheduledFlight(flights.get(1).getNumber()).orElseThrow());
+
+                assertTrue(schedule.removeScheduledFlight(first));
+                assertSame(second, schedule.searchScheduledFlight(flights.get(1).getNumber()).orElseThrow());
+                assertEquals(List.of(second), schedule.searchScheduledFlights(flights.get(1).getNumber()));
+                assertEquals(List.of(first, second), before.searchScheduledFlights(flights.get(1).getNumber()));
+            }
+
+            @Test
+            @DisplayName("and many numbers share their low bits then every number should be found until removed")
+            void thenCollidingNumbersShouldBeFound() throws ParseException {
+                SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+                Date departure = format.parse("2020-02-01");
+                List<ScheduledFlight> scheduled = new ArrayList<>();
+                for (int i = 1; i <= 500; i++) {
+                    Flight flight = new Flight.Builder().number(i << 10).departure(airports.get(0)).arrival(airports.get(1))
+                            .aircraft(flights.get(0).getAircraft()).build();
+                    scheduled.add(schedule.scheduleFlight(flight, departure));
+                }
+                for (int i = 0; i < scheduled.size(); i += 2) {
+                    assertTrue(schedule.removeScheduledFlight(scheduled.get(i)));
+                }
+                for (int i = 0; i < scheduled.size(); i++) {
+                    Optional<ScheduledFlight> found = schedule.searchScheduledFlight(scheduled.get(i).getNumber());
+                    if (i % 2 == 0) {
+                        assertTrue(found.isEmpty());
+                    } else {
+                        assertSame(scheduled.get(i), found.orElseThrow());
+                    }
+                }
+                assertEquals(6 + 250, schedule.size());
+            }
+        }
+
+        @Nested
+        @DisplayName("when flights are searched by route and departure time")
+        class FlightsAreSearchedByRouteAndTime {
+
+            @Test
+            @DisplayName("then only flights on the route within the window should be returned")
+            void thenRouteWindowShouldBeReturned() throws ParseException {
+                SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+                List<ScheduledFlight> found = schedule.searchScheduledFlights("BER", "FRA", format.parse("2020-01-01"), format.parse("2020-01-03"));
+                assertEquals(1, found.size());
+                assertEquals(flights.get(0).getNumber(), found.get(0).getNumber());
+                assertTrue(schedule.searchScheduledFlights("BER", "FRA", format.parse("2020-01-03"), format.parse("2020-02-01")).isEmpty());
+                assertTrue(schedule.searchScheduledFlights("FRA", "BER", format.parse("2020-01-01"), format.parse("2020-02-01")).isEmpty());
+            }
+
+            @Test
+            @DisplayName("then flights within the window should be returned ordered by departure time")
+            void thenTimeWindowShouldBeReturnedInOrder() throws ParseException {
+                SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+                List<ScheduledFlight> found = schedule.searchScheduledFlights(format.parse("2020-01-02"), format.parse("2020-01-05"));
+                assertEquals(3, found.size());
+                assertEquals(1, found.get(0).getNumber());
+                assertEquals(2, found.get(1).getNumber());
+                assertEquals(3, found.get(2).getNumber());
+            }
+
+            @Test
+            @DisplayName("and the flight was removed then it should not be returned anymore")
+            void thenRemovedFlightShouldNotBeReturned() throws ParseException {
+                SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+                schedule.removeFlight(flights.get(0));
+                assertTrue(schedule.searchScheduledFlights("BER", "FRA", format.parse("2020-01-01"), format.parse("2020-02-01")).isEmpty());
+                assertEquals(5, schedule.searchScheduledFlights(format.parse("2020-01-01"), format.parse("2020-02-01")).size());
+            }
+        }
+
+        @Nested
+        @DisplayName("when a snapshot is taken")
+        class ASnapshotIsTaken {
+
+            @Test
+            @DisplayName("then later changes should not be visible in the snapshot")
+            void thenSnapshotShouldNotChange() throws ParseException {
+                SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+                ScheduleView before = schedule.snapshot();
+                schedule.removeFlight(flights.get(0));
+                schedule.scheduleFlight(flights.get(0), format.parse("2020-03-01"));
+
+                assertEquals(6, before.size());
+                assertEquals(1, before.getScheduledFlights().get(0).getNumber());
+                assertEquals(1, before.searchScheduledFlights("BER", "FRA", format.parse("2020-01-01"), format.parse("2020-02-01")).size());
+                ScheduleView after = schedule.snapshot();
+                assertEquals(before.getVersion() + 2, after.getVersion());
+                assertTrue(after.searchScheduledFlights("BER", "FRA", format.parse("2020-01-01"), format.parse("2020-02-01")).isEmpty());
+                assertEquals(1, after.getScheduledFlights().get(after.size() - 1).getNumber());
+            }
+
+            @Test
+            @DisplayName("then readers should see complete versions while flights are scheduled and removed")
+            void thenReadersShouldSeeConsistentVersions() throws Exception {
+                Date from = new SimpleDateFormat("yyyy-MM-dd").parse("2021-01-01");
+                AtomicBoolean writing = new AtomicBoolean(true);
+                ExecutorService readers = Executors.newFixedThreadPool(4);
+                List<Future<?>> results = new ArrayList<>();
+                try {
+                    for (int r = 0; r < 4; r++) {
+                        results.add(readers.submit(() -> {
+                            while (writing.get()) {
+                                ScheduleView view = schedule.snapshot();
+                                // pairs are added in one change and removed outbound first, then return
+                                int there = view.searchScheduledFlights("BER", "FRA", from, TestUtil.addDays(from, 1000)).size();
+                                int back = view.searchScheduledFlights("FRA", "BER", from, TestUtil.addDays(from, 1000)).size();
+                                assertTrue(there == back || there == 0, there + " outbound, " + back + " return flights");
+                                assertEquals(6 + there + back, view.getScheduledFlights().size());
+                                assertEquals(there, view.searchScheduledFlights(100).size());
+                            }
+                        }));
+                    }
+                    Flight there = new Flight.Builder().number(100).departure(airports.get(0)).arrival(airports.get(1))
+                            .aircraft(flights.get(0).getAircraft()).build();
+                    Flight back = new Flight.Builder().number(101).departure(airports.get(1)).arrival(airports.get(0))
+                            .aircraft(flights.get(0).getAircraft()).build();
+                    for (int day = 0; day < 500; day++) {
+                        Date departure = TestUtil.addDays(from, day);
+                        schedule.scheduleFlights(List.of(
+                                new ScheduledFlight.Builder().number(100).departure(there.getDeparture()).arrival(there.getArrival())
+                                        .aircraft(there.getAircraft()).departureTime(departure).build(),
+                                new ScheduledFlight.Builder().number(101).departure(back.getDeparture()).arrival(back.getArrival())
+                                        .aircraft(back.getAircraft()).departureTime(departure).build()));
+                        if (day % 3 == 2) {
+                            schedule.removeFlight(there);
+                            schedule.removeFlight(back);
+                            assertEquals(6, schedule.size());
+                        }
+                    }
+                } finally {
+                    writing.set(false);
+                    readers.shutdown();
+                }
+                for (Future<?> result : results) {
+                    result.get();
+                }
+            }
         }
     }
 }
@@ -0,0 +1,182 @@
+package flight.reservation;
+
+import flight.reservation.flight.FarePolicy;
+import flight.reservation.flight.LoadFactorFarePolicy;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.order.FlightOrder;
+import flight.reservation.plane.Aircraft;
+import flight.reservation.plane.factories.AircraftFactoryProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Scheduled Flight Tests")
+public class ScheduledFlightTest {
+    private static final int THREADS = 16;
+
+    private ScheduledFlight scheduledFlight;
+
+    @BeforeEach
+    public void initFlight() {
+        Airport startAirport = new Airport("Berlin Airport", "BER", "Berlin, Berlin");
+        Airport destinationAirport = new Airport("Frankfurt Airport", "FRA", "Frankfurt, Hesse");
+        Aircraft A380 = AircraftFactoryProvider.getAircraftFactory("plane").createAircraft("A380");
+        scheduledFlight = new ScheduledFlight.Builder()
+                .number(1)
+                .departure(startAirport)
+                .arrival(destinationAirport)
+                .aircraft(A380)
+                .departureTime(TestUtil.addDays(Date.from(Instant.now()), 3))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Given many threads booking the same flight concurrently")
+    class GivenConcurrentBookings {
+
+        @Test
+        @DisplayName("then the passenger capacity should never be exceeded")
+        void thenCapacityShouldNeverBeExceeded() throws Exception {
+            int bookingsPerThread = 100;
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int booked = 0;
+                    for (int i = 0; i < bookingsPerThread; i++) {
+                        try {
+                            scheduledFlight.addPassengers(Collections.singletonList(new Passenger("P" + thread + "-" + i)));
+                            booked++;
+                        } catch (IllegalStateException fullyBooked) {
+                            // expected once the flight is sold out
+                        }
+                    }
+                    return booked;
+                }));
+            }
+            start.countDown();
+            int totalBooked = 0;
+            for (Future<Integer> result : results) {
+                totalBooked += result.get(30, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            assertEquals(scheduledFlight.getPassengerCapacity(), totalBooked);
+            assertEquals(scheduledFlight.getPassengerCapacity(), scheduledFlight.getPassengers().size());
+            assertEquals(0, scheduledFlight.getAvailableCapacity());
+        }
+
+        @Test
+        @DisplayName("then booking and cancelling should not lose any updates")
+        void thenBookingAndCancellingShouldNotLoseUpdates() throws Exception {
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1000; i++) {
+                        List<Passenger> group = List.of(new Passenger("A"), new Passenger("B"));
+                        scheduledFlight.addPassengers(group);
+                        scheduledFlight.removePassengers(group);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            assertEquals(0, scheduledFlight.getPassengers().size());
+            assertEquals(scheduledFlight.getPassengerCapacity(), scheduledFlight.getAvailableCapacity());
+            assertEquals(scheduledFlight.getPassengerCapacity(), scheduledFlight.getSeatMap().getAvailable());
+        }
+    }
+
+    @Nested
+    @DisplayName("Given a flight priced by load factor")
+    class GivenLoadFactorPricing {
+        private ScheduledFlight pricedFlight;
+
+        @BeforeEach
+        public void initPricedFlight() {
+            FarePolicy policy = new LoadFactorFarePolicy.Builder()
+                    .loadFactorBucket(0.5, 1.5)
+                    .loadFactorBucket(0.75, 2.0)
+                    .timeToDepartureBucket(Duration.ofDays(1), 3.0)
+                    .build();
+            pricedFlight = new ScheduledFlight.Builder()
+                    .number(2)
+                    .departure(scheduledFlight.getDeparture())
+                    .arrival(scheduledFlight.getArrival())
+                    .aircraft(AircraftFactoryProvider.getAircraftFactory("helicopter").createAircraft("H1"))
+                    .departureTime(TestUtil.addDays(Date.from(Instant.now()), 3))
+                    .currentPrice(Money.of(100))
+                    .farePolicy(policy)
+                    .build();
+        }
+
+        @Test
+        @DisplayName("then the price should follow the seats sold")
+        void thenPriceShouldFollowSeatsSold() {
+            assertEquals(Money.of(100), pricedFlight.getCurrentPrice());
+            List<Passenger> couple = List.of(new Passenger("Amanda"), new Passenger("Max"));
+            pricedFlight.addPassengers(couple);
+            assertEquals(Money.of(150), pricedFlight.getCurrentPrice());
+            pricedFlight.addPassengers(List.of(new Passenger("P")));
+            assertEquals(Money.of(200), pricedFlight.getCurrentPrice());
+            pricedFlight.removePassengers(couple);
+            assertEquals(Money.of(100), pricedFlight.getCurrentPrice());
+        }
+
+        @Test
+        @DisplayName("then an order should be charged the current fare")
+        void thenOrderShouldBeChargedCurrentFare() {
+            pricedFlight.addPassengers(List.of(new Passenger("Amanda"), new Passenger("Max")));
+            Customer customer = new Customer("Max Mustermann", "max@example.com");
+            FlightOrder order = customer.createOrder(List.of("Anna", "Paul"), List.of(pricedFlight));
+            assertEquals(Money.of(300), order.getPrice());
+        }
+
+        @Test
+        @DisplayName("then bookings and repricing should not change the flight's identity")
+        void thenIdentityShouldBeStable() {
+            Set<ScheduledFlight> flights = new HashSet<>(List.of(pricedFlight));
+            int hashCode = pricedFlight.hashCode();
+            pricedFlight.addPassengers(List.of(new Passenger("Amanda"), new Passenger("Max")));
+            assertEquals(hashCode, pricedFlight.hashCode());
+            assertTrue(flights.contains(pricedFlight));
+        }
+
+        @Test
+        @DisplayName("then changing the base fare should reprice the flight")
+        void thenBaseFareChangeShouldReprice() {
+            pricedFlight.addPassengers(List.of(new Passenger("Amanda"), new Passenger("Max")));
+            pricedFlight.setCurrentPrice(Money.of(80));
+            assertEquals(Money.of(80), pricedFlight.getBaseFare());
+            assertEquals(Money.of(120), pricedFlight.getCurrentPrice());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package flight.reservation;
+
+import flight.reservation.flight.Flight;
+import flight.reservation.flight.Schedule;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.plane.factories.AircraftFactoryProvider;
+import flight.reservation.search.RouteDay;
+import flight.reservation.search.SearchCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Search Cache Tests")
+public class SearchCacheTest {
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long START = TimeUnit.DAYS.toMillis(20000);
+
+    private final Airport berlin = new Airport("Berlin Airport", "BER", "Berlin, Berlin");
+    private final Airport frankfurt = new Airport("Frankfurt Airport", "FRA", "Frankfurt, Hesse");
+    private final Flight flight = new Flight.Builder().number(1).departure(berlin).arrival(frankfurt)
+            .aircraft(AircraftFactoryProvider.getAircraftFactory("plane").createAircraft("A380")).build();
+    private final AtomicLong now = new AtomicLong(START);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Schedule schedule;
+    private SearchCache<List<ScheduledFlight>> cache;
+    private ScheduledFlight morning;
+    private RouteDay berlinFrankfurt;
+
+    @BeforeEach
+    void initCache() {
+        schedule = new Schedule();
+        morning = schedule.scheduleFlight(flight, new Date(START + 8 * HOUR));
+        cache = new SearchCache.Builder().ttl(Duration.ofMinutes(5)).clock(now::get).build();
+        schedule.addListener(cache);
+        berlinFrankfurt = RouteDay.of(morning);
+    }
+
+    private List<ScheduledFlight> search(RouteDay key) {
+        return cache.get(key, loader());
+    }
+
+    private Function<RouteDay, List<ScheduledFlight>> loader() {
+        return key -> {
+            loads.incrementAndGet();
+            return schedule.searchScheduledFlights(key.getDepartureCode(), key.getArrivalCode(),
+                    new Date(key.getStartMillis()), new Date(key.getEndMillis()));
+        };
+    }
+
+    @Nested
+    @DisplayName("Given a cached route search")
+    class GivenCachedSearch {
+
+        @BeforeEach
+        void searchOnce() {
+            assertEquals(1, search(berlinFrankfurt).size());
+        }
+
+        @Test
+        @DisplayName("then the same search is answered from the cache")
+        void thenRepeatedSearchHits() {
+            search(berlinFrankfurt);
+            search(new RouteDay("BER", "FRA", berlinFrankfurt.getEpochDay()));
+            assertEquals(1, loads.get());
+            assertEquals(2, cache.getHits());
+            assertEquals(2.0 / 3, cache.getHitRatio(), 1e-9);
+        }
+
+        @Test
+        @DisplayName("then booking a seat on the route invalidates it")
+        void thenBookingInvalidates() {
+            morning.addPassengers(List.of(new Passenger("Amanda")));
+            assertEquals(0, cache.size());
+            search(berlinFrankfurt);
+            assertEquals(2, loads.get());
+            assertEquals(1, cache.getInvalidations());
+        }
+
+        @Test
+        @DisplayName("then a price change or a new flight on the route and day invalidates it")
+        void thenPriceAndScheduleChangesInvalidate() {
+            morning.setCurrentPrice(Money.of(150.0));
+            search(berlinFrankfurt);
+            schedule.scheduleFlight(flight, new Date(START + 18 * HOUR));
+            assertEquals(2, search(berlinFrankfurt).size());
+            schedule.removeScheduledFlight(morning);
+            assertEquals(1, search(berlinFrankfurt).size());
+            assertEquals(4, loads.get());
+        }
+
+        @Test
+        @DisplayName("then changes on another day or route leave it cached")
+        void thenUnrelatedChangesKeepIt() {
+            schedule.scheduleFlight(flight, new Date(START + 32 * HOUR));
+            schedule.scheduleFlight(new Flight.Builder().number(2).departure(frankfurt).arrival(berlin)
+                    .aircraft(flight.getAircraft()).build(), new Date(START + 9 * HOUR));
+            search(berlinFrankfurt);
+            assertEquals(1, loads.get());
+        }
+
+        @Test
+        @DisplayName("then it expires after the time to live")
+        void thenItExpires() {
+            now.addAndGet(TimeUnit.MINUTES.toMillis(5));
+            search(berlinFrankfurt);
+            assertEquals(2, loads.get());
+            assertEquals(1, cache.getExpirations());
+        }
+    }
+
+    @Test
+    @DisplayName("then the cache never holds more than its maximum size and keeps popular routes")
+    void thenSizeIsBounded() {
+        cache = new SearchCache.Builder().maximumSize(100).build();
+        RouteDay popular = new RouteDay("BER", "FRA", 1);
+        for (int i = 0; i < 5; i++) {
+            cache.get(popular, loader());
+        }
+        for (int day = 2; day < 1000; day++) {
+            cache.get(new RouteDay("BER", "FRA", day), loader());
+            cache.get(popular, loader());
+        }
+        assertTrue(cache.size() <= 100, "size " + cache.size());
+        assertTrue(cache.getEvictions() >= 898);
+        assertEquals(1 + 998, loads.get(), "the popular route is loaded only once");
+    }
+}
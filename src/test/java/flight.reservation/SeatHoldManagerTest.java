@@ -0,0 +1,203 @@
+package flight.reservation;
+
+import flight.reservation.flight.Flight;
+import flight.reservation.flight.Schedule;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.flight.SeatMap;
+import flight.reservation.order.FlightOrder;
+import flight.reservation.order.OrderState;
+import flight.reservation.order.SeatHoldManager;
+import flight.reservation.payment.PaymentStrategy;
+import flight.reservation.plane.factories.AircraftFactoryProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Seat Hold Manager Tests")
+public class SeatHoldManagerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private SeatHoldManager seatHolds;
+    private ScheduledFlight scheduledFlight;
+    private Customer customer;
+
+    @BeforeEach
+    public void init() {
+        seatHolds = new SeatHoldManager.Builder()
+                .holdTime(Duration.ofMinutes(15))
+                .tick(Duration.ofSeconds(1))
+                .clock(now::get)
+                .build();
+        Schedule schedule = new Schedule();
+        Flight flight = new Flight.Builder()
+                .number(1)
+                .departure(new Airport("Berlin Airport", "BER", "Berlin, Berlin"))
+                .arrival(new Airport("Frankfurt Airport", "FRA", "Frankfurt, Hesse"))
+                .aircraft(AircraftFactoryProvider.getAircraftFactory("helicopter").createAircraft("H1"))
+                .build();
+        schedule.scheduleFlight(flight, TestUtil.addDays(Date.from(Instant.now()), 3));
+        scheduledFlight = schedule.searchScheduledFlight(1).orElseThrow();
+        customer = new Customer("Max Mustermann", "max@example.com");
+    }
+
+    private FlightOrder book(String... passengers) {
+        FlightOrder order = customer.createOrder(Arrays.asList(passengers), Collections.singletonList(scheduledFlight), 100);
+        seatHolds.hold(order);
+        return order;
+    }
+
+    @Nested
+    @DisplayName("Given an unpaid order holding two seats")
+    class GivenAnUnpaidOrder {
+        private FlightOrder order;
+
+        @BeforeEach
+        void initOrder() {
+            order = book("Amanda", "Max");
+        }
+
+        @Test
+        @DisplayName("then the seats are kept until the hold runs out")
+        void thenSeatsAreKeptDuringTheHold() {
+            now.addAndGet(Duration.ofMinutes(14).toMillis());
+            assertEquals(0, seatHolds.expireHolds());
+            assertEquals(2, scheduledFlight.getAvailableCapacity());
+        }
+
+        @Test
+        @DisplayName("then the order expires and the seats are released after the hold time")
+        void thenOrderExpires() {
+            now.addAndGet(Duration.ofMinutes(15).plusSeconds(1).toMillis());
+            assertEquals(1, seatHolds.expireHolds());
+            assertEquals(OrderState.EXPIRED, order.getState());
+            assertEquals(4, scheduledFlight.getAvailableCapacity());
+            assertTrue(scheduledFlight.getPassengers().isEmpty());
+
+            order.setPaymentStrategy(amount -> true);
+            assertThrows(IllegalStateException.class, order::processOrder);
+        }
+
+        @Test
+        @DisplayName("then the seat map holds a seat per booked passenger until the order expires")
+        void thenSeatMapFollowsTheHold() {
+            SeatMap seatMap = scheduledFlight.getSeatMap();
+            List<String> seats = order.getPassengers().stream()
+                    .map(passenger -> scheduledFlight.getSeat(passenger).orElseThrow())
+                    .collect(Collectors.toList());
+            assertEquals(2, new HashSet<>(seats).size());
+            seats.forEach(seat -> assertTrue(seatMap.isHeld(seat)));
+            assertEquals(scheduledFlight.getAvailableCapacity(), seatMap.getAvailable());
+
+            now.addAndGet(Duration.ofMinutes(15).plusSeconds(1).toMillis());
+            assertEquals(1, seatHolds.expireHolds());
+            seats.forEach(seat -> assertFalse(seatMap.isHeld(seat)));
+            assertEquals(scheduledFlight.getAvailableCapacity(), seatMap.getAvailable());
+            assertTrue(scheduledFlight.getSeat(order.getPassengers().get(0)).isEmpty());
+        }
+
+        @Test
+        @DisplayName("and seats are blocked on the seat map then a booking that no longer fits is rejected")
+        void thenBlockedSeatsCannotBeBooked() {
+            SeatMap seatMap = scheduledFlight.getSeatMap();
+            seatMap.getAvailableSeats().forEach(seatMap::hold);
+
+            assertThrows(IllegalStateException.class, () -> book("Anna"));
+            assertEquals(2, scheduledFlight.getAvailableCapacity(), "the seat count is rolled back");
+            assertEquals(2, scheduledFlight.getPassengers().size());
+        }
+
+        @Test
+        @DisplayName("then paying in time cancels the hold")
+        void thenPaymentCancelsTheHold() {
+            order.setPaymentStrategy(amount -> true);
+            assertTrue(order.processOrder());
+            assertEquals(0, seatHolds.getPendingHolds());
+
+            now.addAndGet(Duration.ofHours(1).toMillis());
+            assertEquals(0, seatHolds.expireHolds());
+            assertEquals(OrderState.CLOSED, order.getState());
+            assertEquals(2, scheduledFlight.getAvailableCapacity());
+        }
+
+        @Test
+        @DisplayName("then an order being paid when the hold runs out is not expired")
+        void thenPaymentInFlightIsNotExpired() {
+            PaymentStrategy slowPayment = amount -> {
+                now.addAndGet(Duration.ofMinutes(20).toMillis());
+                assertEquals(0, seatHolds.expireHolds());
+                return false;
+            };
+            order.setPaymentStrategy(slowPayment);
+            assertFalse(order.processOrder());
+            assertEquals(OrderState.OPEN, order.getState());
+
+            now.addAndGet(Duration.ofSeconds(2).toMillis());
+            assertEquals(1, seatHolds.expireHolds());
+            assertEquals(OrderState.EXPIRED, order.getState());
+        }
+    }
+
+    @Test
+    @DisplayName("then holds spanning days expire exactly when due")
+    void thenLongHoldsExpireWhenDue() {
+        SeatHoldManager longHolds = new SeatHoldManager.Builder()
+                .holdTime(Duration.ofDays(2))
+                .tick(Duration.ofMillis(10))
+                .clock(now::get)
+                .build();
+        FlightOrder first = customer.createOrder(Collections.singletonList("Amanda"), Collections.singletonList(scheduledFlight), 100);
+        longHolds.hold(first);
+        now.addAndGet(Duration.ofDays(1).toMillis());
+        FlightOrder second = customer.createOrder(Collections.singletonList("Max"), Collections.singletonList(scheduledFlight), 100);
+        longHolds.hold(second);
+
+        now.addAndGet(Duration.ofDays(1).minusSeconds(1).toMillis());
+        assertEquals(0, longHolds.expireHolds());
+        now.addAndGet(Duration.ofSeconds(2).toMillis());
+        assertEquals(1, longHolds.expireHolds());
+        assertEquals(OrderState.EXPIRED, first.getState());
+        assertEquals(OrderState.OPEN, second.getState());
+        assertEquals(3, scheduledFlight.getAvailableCapacity());
+
+        now.addAndGet(Duration.ofDays(1).toMillis());
+        assertEquals(1, longHolds.expireHolds());
+        assertEquals(0, longHolds.getPendingHolds());
+        assertEquals(4, scheduledFlight.getAvailableCapacity());
+    }
+
+    @Test
+    @DisplayName("then holds due on the last tick of a wheel rotation expire exactly when due")
+    void thenHoldsAtRotationBoundariesExpireWhenDue() {
+        AtomicLong clock = new AtomicLong();
+        for (long deadline : new long[]{63, 127, 4095, 8191}) {
+            clock.set(0);
+            SeatHoldManager holds = new SeatHoldManager.Builder()
+                    .holdTime(Duration.ofMillis(deadline))
+                    .tick(Duration.ofMillis(1))
+                    .clock(clock::get)
+                    .build();
+            FlightOrder order = customer.createOrder(Collections.singletonList("Amanda"), Collections.singletonList(scheduledFlight), 100);
+            holds.hold(order);
+
+            clock.set(deadline - 1);
+            assertEquals(0, holds.expireHolds(), "deadline " + deadline);
+            clock.set(deadline);
+            assertEquals(1, holds.expireHolds(), "deadline " + deadline);
+            assertEquals(OrderState.EXPIRED, order.getState());
+        }
+        assertEquals(4, scheduledFlight.getAvailableCapacity());
+    }
+}
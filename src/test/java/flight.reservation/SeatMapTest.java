@@ -0,0 +1,92 @@
+package flight.reservation;
+
+import flight.reservation.flight.SeatMap;
+import flight.reservation.plane.SeatLayout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Seat Map Tests")
+public class SeatMapTest {
+
+    private SeatMap seatMap;
+
+    @Nested
+    @DisplayName("Given a 3-4-3 cabin with 25 seats")
+    class GivenAWideBodyCabin {
+
+        @BeforeEach
+        void initSeatMap() {
+            seatMap = new SeatMap(SeatLayout.parse("3-4-3", 25));
+        }
+
+        @Test
+        @DisplayName("then a held seat cannot be held again until it is released")
+        void thenHeldSeatIsExclusive() {
+            assertTrue(seatMap.hold("2C"));
+            assertFalse(seatMap.hold("2c"));
+            assertEquals(24, seatMap.getAvailable());
+            seatMap.release("2C");
+            assertTrue(seatMap.hold("2C"));
+        }
+
+        @Test
+        @DisplayName("then seats outside the cabin do not exist")
+        void thenUnknownSeatsAreRejected() {
+            assertThrows(IllegalArgumentException.class, () -> seatMap.hold("3F"));
+            assertThrows(IllegalArgumentException.class, () -> seatMap.hold("4A"));
+            assertThrows(IllegalArgumentException.class, () -> seatMap.hold("1I"));
+            assertThrows(IllegalStateException.class, () -> seatMap.release("1A"));
+        }
+
+        @Test
+        @DisplayName("then adjacent seats stay within one block before spanning an aisle")
+        void thenAdjacentSeatsPreferBlocks() {
+            assertEquals(Arrays.asList("1D", "1E", "1F", "1G"), seatMap.assignAdjacent(4).orElseThrow());
+            assertEquals(Arrays.asList("2D", "2E", "2F", "2G"), seatMap.assignAdjacent(4).orElseThrow());
+            // the last row only has seats A to E, so four seats must span the aisle
+            assertEquals(Arrays.asList("3A", "3B", "3C", "3D"), seatMap.assignAdjacent(4).orElseThrow());
+            assertTrue(seatMap.assignAdjacent(4).isEmpty());
+            assertEquals(List.of("1A", "1B", "1C"), seatMap.assignAdjacent(3).orElseThrow());
+        }
+    }
+
+    @Test
+    @DisplayName("then concurrent assignments never give a seat away twice")
+    void thenConcurrentAssignmentsAreExclusive() throws InterruptedException {
+        seatMap = new SeatMap(SeatLayout.parse("2-4-2", 500));
+        Set<String> assigned = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                List<String> seats;
+                while ((seats = seatMap.assignAdjacent(2).orElse(null)) != null) {
+                    seats.forEach(seat -> assertTrue(assigned.add(seat)));
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(500, assigned.size());
+        assertEquals(0, seatMap.getAvailable());
+    }
+}
@@ -0,0 +1,132 @@
+package flight.reservation;
+
+import flight.reservation.flight.Flight;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.flight.ShardedSchedule;
+import flight.reservation.plane.Aircraft;
+import flight.reservation.plane.factories.AircraftFactoryProvider;
+import flight.reservation.search.Itinerary;
+import flight.reservation.search.RouteSearch;
+import flight.reservation.search.SearchObjective;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Sharded Schedule Tests")
+public class ShardedScheduleTest {
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long START = TimeUnit.DAYS.toMillis(20000);
+
+    private final List<Airport> airports = Arrays.asList(
+            new Airport("Berlin Airport", "BER", "Berlin, Berlin"),
+            new Airport("Frankfurt Airport", "FRA", "Frankfurt, Hesse"),
+            new Airport("Madrid Barajas Airport", "MAD", "Barajas, Madrid"),
+            new Airport("Istanbul Airport", "IST", "Arnavutköy, Istanbul")
+    );
+    private final Aircraft aircraft = AircraftFactoryProvider.getAircraftFactory("plane").createAircraft("A380");
+
+    private ShardedSchedule schedule;
+
+    @BeforeEach
+    void initSchedule() {
+        schedule = new ShardedSchedule(3);
+        // one flight per hour, each leaving the next airport in turn
+        for (int number = 1; number <= 12; number++) {
+            Flight flight = new Flight.Builder().number(number)
+                    .departure(airports.get(number % airports.size()))
+                    .arrival(airports.get((number + 1) % airports.size()))
+                    .aircraft(aircraft).build();
+            schedule.scheduleFlight(flight, new Date(START + number * HOUR));
+        }
+    }
+
+    @Nested
+    @DisplayName("Given a schedule with several shards")
+    class GivenShards {
+
+        @Test
+        @DisplayName("then every flight is stored on the shard of its departure airport")
+        void thenFlightsArePartitionedByDeparture() {
+            assertEquals(12, schedule.size());
+            int total = 0;
+            for (Airport airport : airports) {
+                List<ScheduledFlight> departures = schedule.getShard(airport.getCode())
+                        .searchDepartures(airport.getCode(), new Date(START), new Date(START + 24 * HOUR));
+                assertEquals(3, departures.size());
+                assertTrue(departures.stream().allMatch(flight -> flight.getDeparture() == airport));
+                total += departures.size();
+            }
+            assertEquals(12, total);
+        }
+
+        @Test
+        @DisplayName("then a departure window search merges all shards ordered by departure time")
+        void thenTimeWindowIsMerged() {
+            List<ScheduledFlight> found = schedule.searchScheduledFlights(new Date(START + 3 * HOUR), new Date(START + 9 * HOUR));
+            assertEquals(6, found.size());
+            for (int i = 0; i < found.size(); i++) {
+                assertEquals(i + 3, found.get(i).getNumber());
+            }
+        }
+
+        @Test
+        @DisplayName("then route and flight number searches find flights on any shard")
+        void thenRouteAndNumberSearchesWork() {
+            List<ScheduledFlight> route = schedule.searchScheduledFlights("FRA", "MAD", new Date(START), new Date(START + 24 * HOUR));
+            assertEquals(Arrays.asList(1, 5, 9), route.stream().map(Flight::getNumber).collect(Collectors.toList()));
+            assertEquals(7, schedule.searchScheduledFlight(7).orElseThrow().getNumber());
+            assertTrue(schedule.searchScheduledFlight(99).isEmpty());
+        }
+
+        @Test
+        @DisplayName("then a flight number search returns the flight scheduled first, whatever its shard")
+        void thenFirstScheduledFlightIsReturned() {
+            ScheduledFlight first = schedule.searchScheduledFlight(7).orElseThrow();
+            Airport berlin = airports.get(0);
+            assertNotSame(schedule.getShard(berlin.getCode()), schedule.getShard(first.getDeparture().getCode()));
+            ScheduledFlight second = schedule.scheduleFlight(new Flight.Builder().number(7).departure(berlin)
+                    .arrival(airports.get(1)).aircraft(aircraft).build(), new Date(START));
+
+            assertSame(first, schedule.searchScheduledFlight(7).orElseThrow(), "the second flight departs earlier but was scheduled later");
+            assertEquals(List.of(first, second), schedule.searchScheduledFlights(7));
+        }
+
+        @Test
+        @DisplayName("then an itinerary search follows connections across shards")
+        void thenItinerariesSpanShards() {
+            assertNotSame(schedule.getShard("FRA"), schedule.getShard("MAD"));
+            RouteSearch search = new RouteSearch.Builder().schedule(schedule).build();
+
+            List<Itinerary> itineraries = search.search("BER", "IST", new Date(START), new Date(START + 24 * HOUR),
+                    1, 1, SearchObjective.EARLIEST_ARRIVAL);
+
+            assertEquals(1, itineraries.size());
+            assertEquals(Arrays.asList(4, 5, 6), itineraries.get(0).getLegs().stream()
+                    .map(Flight::getNumber).collect(Collectors.toList()), "BER-FRA-MAD-IST");
+        }
+
+        @Test
+        @DisplayName("then a removed flight is gone from its shard")
+        void thenFlightIsRemoved() {
+            ScheduledFlight flight = schedule.searchScheduledFlight(5).orElseThrow();
+            assertTrue(schedule.removeScheduledFlight(flight));
+            assertEquals(11, schedule.size());
+            assertTrue(schedule.searchScheduledFlights(5).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("then a schedule without shards is rejected")
+    void thenShardCountMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardedSchedule(0));
+    }
+}
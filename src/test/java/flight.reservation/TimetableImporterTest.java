@@ -0,0 +1,136 @@
+package flight.reservation;
+
+import flight.reservation.flight.Schedule;
+import flight.reservation.flight.ScheduledFlight;
+import flight.reservation.persistence.ImportReport;
+import flight.reservation.persistence.TimetableImporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Timetable Importer Tests")
+public class TimetableImporterTest {
+    private final List<Airport> airports = List.of(
+            new Airport("Berlin Airport", "BER", "Berlin, Berlin"),
+            new Airport("Frankfurt Airport", "FRA", "Frankfurt, Hesse", new String[]{"A380", "A350"}),
+            new Airport("Istanbul Airport", "IST", "Arnavutköy, Istanbul")
+    );
+
+    private Schedule schedule;
+
+    @BeforeEach
+    void initSchedule() {
+        schedule = new Schedule();
+    }
+
+    @Nested
+    @DisplayName("Given a valid timetable")
+    class GivenValidTimetable {
+
+        @Test
+        @DisplayName("then every row is scheduled with its times and fare")
+        void thenRowsAreScheduled() throws IOException {
+            String timetable = "# number,departure,arrival,aircraft,departureTime,arrivalTime,fare,currency\n"
+                    + "1,BER,FRA,A380,2025-05-01T08:00:00Z,2025-05-01T09:10:00Z,89.99,EUR\n"
+                    + "\n"
+                    + "2,FRA,IST,A350,2025-05-01T11:00:00Z,,,\n";
+            ImportReport report = new TimetableImporter.Builder().airports(airports).build()
+                    .importFrom(new StringReader(timetable), schedule);
+
+            assertEquals(2, report.getImported());
+            assertEquals(0, report.getRejectedCount());
+            ScheduledFlight first = schedule.searchScheduledFlight(1).orElseThrow();
+            assertEquals(Date.from(Instant.parse("2025-05-01T09:10:00Z")), first.getArrivalTime());
+            assertEquals(Money.of(89.99, Currency.getInstance("EUR")), first.getCurrentPrice());
+            ScheduledFlight second = schedule.searchScheduledFlight(2).orElseThrow();
+            assertEquals(second.getDepartureTime(), second.getArrivalTime());
+            assertEquals(Money.of(100.0), second.getCurrentPrice());
+        }
+
+        @Test
+        @DisplayName("then a file larger than one chunk is imported in file order")
+        void thenChunksKeepFileOrder(@TempDir Path directory) throws IOException {
+            Path file = directory.resolve("timetable.csv");
+            List<String> lines = new ArrayList<>();
+            for (int number = 1; number <= 1000; number++) {
+                lines.add(String.format("%d,BER,FRA,A380,%s,,,", number, Instant.ofEpochSecond(number * 60L)));
+            }
+            Files.write(file, lines, StandardCharsets.UTF_8);
+
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                ImportReport report = new TimetableImporter.Builder().airports(airports).pool(pool).chunkSize(64).build()
+                        .importFile(file, schedule);
+                assertEquals(1000, report.getImported());
+            } finally {
+                pool.shutdown();
+            }
+            List<ScheduledFlight> flights = schedule.getScheduledFlights();
+            for (int i = 0; i < flights.size(); i++) {
+                assertEquals(i + 1, flights.get(i).getNumber());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Given invalid rows")
+    class GivenInvalidRows {
+
+        @Test
+        @DisplayName("then they are rejected with line number and reason while valid rows are imported")
+        void thenInvalidRowsAreReported() throws IOException {
+            String timetable = "1,BER,FRA,A380,2025-05-01T08:00:00Z,,,\n"
+                    + "2,BER,XXX,A380,2025-05-01T08:00:00Z,,,\n"
+                    + "3,BER,FRA,H1,2025-05-01T08:00:00Z,,,\n"
+                    + "4,BER,FRA,A380,tomorrow,,,\n"
+                    + "5,BER,FRA,A380,2025-05-01T08:00:00Z,2025-05-01T07:00:00Z,,\n"
+                    + "6,BER,BER,A380,2025-05-01T08:00:00Z,,,\n"
+                    + "7,BER,FRA\n";
+            ImportReport report = new TimetableImporter.Builder().airports(airports).build()
+                    .importFrom(new StringReader(timetable), schedule);
+
+            assertEquals(1, report.getImported());
+            assertEquals(6, report.getRejectedCount());
+            assertEquals(1, schedule.size());
+            List<ImportReport.RejectedRow> rejected = report.getRejectedRows();
+            assertEquals(2, rejected.get(0).getLineNumber());
+            assertEquals("Unknown airport code 'XXX'", rejected.get(0).getReason());
+            assertEquals("Aircraft H1 is not valid for the route BER-FRA", rejected.get(1).getReason());
+            assertEquals("Invalid departure time 'tomorrow'", rejected.get(2).getReason());
+            assertEquals("Arrival time cannot be before departure time", rejected.get(3).getReason());
+            assertEquals("Departure and arrival airports cannot be the same", rejected.get(4).getReason());
+            assertEquals("Line 7: Expected 8 columns but found 3", rejected.get(5).toString());
+        }
+
+        @Test
+        @DisplayName("then only the configured number of rejections is kept")
+        void thenRejectionsAreCapped() throws IOException {
+            StringBuilder timetable = new StringBuilder();
+            for (int i = 0; i < 10; i++) {
+                timetable.append("x,BER,FRA,A380,2025-05-01T08:00:00Z,,,\n");
+            }
+            ImportReport report = new TimetableImporter.Builder().airports(airports).maxReportedRejections(3).build()
+                    .importFrom(new StringReader(timetable.toString()), schedule);
+
+            assertEquals(10, report.getRejectedCount());
+            assertEquals(3, report.getRejectedRows().size());
+            assertEquals("Invalid flight number 'x'", report.getRejectedRows().get(0).getReason());
+        }
+    }
+}